@@ -7,22 +7,34 @@
  */
 package me.waliedyassen.runescript.compiler;
 
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaReader;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaWriter;
+import me.waliedyassen.runescript.compiler.cache.SyntaxTreeCache;
 import me.waliedyassen.runescript.compiler.codegen.CodeGenerator;
 import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.DeadProcEliminator;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Inliner;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationLevel;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationRegistry;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
-import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBlockOptimization;
-import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBranchOptimization;
-import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.NaturalFlowOptimization;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
 import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
 import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeScript;
 import me.waliedyassen.runescript.compiler.lexer.Lexer;
+import me.waliedyassen.runescript.compiler.lexer.LexicalError;
 import me.waliedyassen.runescript.compiler.lexer.table.LexicalTable;
 import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
 import me.waliedyassen.runescript.compiler.parser.ScriptParser;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -32,7 +44,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -78,31 +94,111 @@ public final class Compiler {
     private final CodeGenerator codeGenerator;
 
     /**
-     * The generated scripts optimizer.
+     * The optimization level of the scripts which do not declare their own level.
      */
-    private final Optimizer optimizer;
+    @Getter
+    private final OptimizationLevel optimizationLevel;
+
+    /**
+     * The generated scripts optimizer of each optimization level.
+     */
+    private final Map<OptimizationLevel, Optimizer> optimizers = new EnumMap<>(OptimizationLevel.class);
+
+    /**
+     * The procedures inliner of the compiler.
+     */
+    private final Inliner inliner;
+
+    /**
+     * The dead procedures eliminator of the compiler, which holds the procedures that are always kept in the
+     * whole-program mode.
+     */
+    @Getter
+    private final DeadProcEliminator deadProcEliminator = new DeadProcEliminator();
+
+    /**
+     * Whether or not the compiler is in the whole-program mode, in which the procedures that can not be reached from
+     * any of the compiled entry points are not written. This must only be enabled when all of the scripts of the
+     * program are compiled together.
+     */
+    @Getter
+    @Setter
+    private boolean wholeProgram;
+
+    /**
+     * The procedures which were eliminated by the last compilation in the whole-program mode.
+     */
+    @Getter
+    private List<ScriptInfo> eliminatedScripts = Collections.emptyList();
 
     /**
      * The code writer of the compiler.
      */
-    private final BytecodeCodeWriter codeWriter = new BytecodeCodeWriter();
+    private final BytecodeCodeWriter codeWriter;
 
     /**
-     * Constructs a new {@link Compiler} type object instance.
+     * Whether or not the parsed scripts are held in a flat {@link AstArena} between the compilation phases instead of
+     * as object trees. The signatures of the scripts are declared straight from the arena, and the tree of each script
+     * is only built right before the script is checked and generated, then dropped, which lowers the heap usage when
+     * compiling large source files.
+     */
+    @Getter
+    @Setter
+    private boolean arenaMode;
+
+    /**
+     * The syntax tree cache of the compiler, or {@code null} if the syntax trees should not be cached.
+     */
+    @Getter
+    @Setter
+    private SyntaxTreeCache syntaxTreeCache;
+
+    /**
+     * Constructs a new {@link Compiler} type object instance with the {@link OptimizationLevel#O1} level, which only
+     * runs the cheap clean-up passes. The {@link OptimizationLevel#O2} level must be requested explicitly, either for
+     * the whole compiler or for a single script through its optimization hints.
      *
      * @param instructionMap
      *         the instruction map to use for this compiler.
      */
     public Compiler(InstructionMap instructionMap) {
+        this(instructionMap, OptimizationLevel.O1);
+    }
+
+    /**
+     * Constructs a new {@link Compiler} type object instance with the built-in optimization passes.
+     *
+     * @param instructionMap
+     *         the instruction map to use for this compiler.
+     * @param optimizationLevel
+     *         the optimization level of the scripts which do not declare their own level.
+     */
+    public Compiler(InstructionMap instructionMap, OptimizationLevel optimizationLevel) {
+        this(instructionMap, optimizationLevel, OptimizationRegistry.createDefault());
+    }
+
+    /**
+     * Constructs a new {@link Compiler} type object instance.
+     *
+     * @param instructionMap
+     *         the instruction map to use for this compiler.
+     * @param optimizationLevel
+     *         the optimization level of the scripts which do not declare their own level.
+     * @param registry
+     *         the registry of the optimization passes to run.
+     */
+    public Compiler(InstructionMap instructionMap, @NonNull OptimizationLevel optimizationLevel, @NonNull OptimizationRegistry registry) {
         if (!instructionMap.isReady()) {
             throw new IllegalArgumentException("The provided InstructionMap is not ready, please register all of core opcodes before using it.");
         }
         this.instructionMap = instructionMap;
-        codeGenerator = new CodeGenerator(symbolTable, instructionMap);
-        optimizer = new Optimizer(instructionMap);
-        optimizer.register(new NaturalFlowOptimization());
-        optimizer.register(new DeadBranchOptimization());
-        optimizer.register(new DeadBlockOptimization());
+        this.optimizationLevel = optimizationLevel;
+        codeGenerator = new CodeGenerator(symbolTable);
+        for (var level : OptimizationLevel.values()) {
+            optimizers.put(level, registry.createOptimizer(level));
+        }
+        inliner = new Inliner(Inliner.DEFAULT_THRESHOLD, optimizationLevel);
+        codeWriter = new BytecodeCodeWriter(instructionMap);
     }
 
     /**
@@ -122,33 +218,13 @@ public final class Compiler {
         if (sourceFiles.size() < 1) {
             return;
         }
-        // Parse all of the script files.
-        var scripts = new ArrayList<AstScript>();
+        // Read all of the script files.
+        var sources = new ArrayList<byte[]>(sourceFiles.size());
         for (var sourceFile : sourceFiles) {
-            scripts.addAll(parseSyntaxTree(Files.readAllBytes(sourceFile)));
-        }
-        // Perform pre type checking on all of the files.
-        var checker = new SemanticChecker(symbolTable);
-        checker.executePre(scripts);
-        checker.execute(scripts);
-        // Check if we have any errors and if so we do not compile.
-        if (checker.getErrors().size() > 0) {
-            throw new CompilerErrors(checker.getErrors());
+            sources.add(Files.readAllBytes(sourceFile));
         }
         // Compile all of the scripts and store them in a list.
-        var result = new ArrayList<CompiledScript>();
-        for (var script : scripts) {
-            // Run the code generator on the script.
-            var generated = codeGenerator.visit(script);
-            // Optimize the generated script.
-            optimizer.run(generated);
-            // Write the generated script to a bytecode format.
-            BytecodeScript bytecode = codeWriter.write(generated);
-            try (var stream = new ByteArrayOutputStream()) {
-                bytecode.write(stream);
-                result.add(new CompiledScript(generated.getName(), stream.toByteArray()));
-            }
-        }
+        var result = compileSources(sources);
         // Loop through each compiled script and write it to the output directory.
         for (var script : result) {
             Files.write(outputDirectory.resolve(script.getName() + OUTPUT_EXTENSION), script.getData(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
@@ -224,10 +300,36 @@ public final class Compiler {
      *         if there was any syntax or semantic errors in the given source code data.
      */
     public CompiledScript[] compile(byte[] source) throws IOException, CompilerErrors {
-        // Parse the Abstract Syntax Tree of the source.
-        var scripts = parseSyntaxTree(source);
+        return compileSources(List.of(source)).toArray(CompiledScript[]::new);
+    }
+
+    /**
+     * Compiles the specified source files data together, in the {@link #arenaMode arena mode} if it is enabled.
+     *
+     * @param sources
+     *         the data of each source file in bytes.
+     *
+     * @return a {@link List list} of the {@link CompiledScript} objects.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in any of the source files data.
+     */
+    private List<CompiledScript> compileSources(List<byte[]> sources) throws IOException, CompilerErrors {
+        if (arenaMode) {
+            return compileArenas(sources);
+        }
+        // Parse the Abstract Syntax Tree of all the sources.
+        var errors = new ArrayList<CompilerError>();
+        var scripts = new ArrayList<AstScript>();
+        for (var source : sources) {
+            scripts.addAll(parseSyntaxTree(source, errors));
+        }
+        if (errors.size() > 0) {
+            throw new CompilerErrors(errors);
+        }
         if (scripts.size() < 1) {
-            return new CompiledScript[0];
+            return Collections.emptyList();
         }
         // Perform semantic analysis checking on the parsed AST.
         var checker = new SemanticChecker(symbolTable);
@@ -237,40 +339,217 @@ public final class Compiler {
         if (checker.getErrors().size() > 0) {
             throw new CompilerErrors(checker.getErrors());
         }
-        // Compile all of the parsed and checked scripts into a bytecode format.
-        var result = new ArrayList<CompiledScript>();
+        // Run the code generator on all of the parsed and checked scripts.
+        var generated = new LinkedHashMap<ScriptInfo, Script>();
         for (var script : scripts) {
-            // Run the code generator on each script.,
-            var generated = codeGenerator.visit(script);
-            // Optimize the generated script.
-            optimizer.run(generated);
+            generated.put(lookupScript(script), codeGenerator.visit(script));
+        }
+        // Compile all of the generated scripts into a bytecode format.
+        return compileScripts(generated);
+    }
+
+    /**
+     * Compiles the specified source files data in the {@link #arenaMode arena mode}. The parsed scripts are only kept
+     * in their {@link AstArena} form, each script is turned back into a tree right before it is checked and generated.
+     *
+     * @param sources
+     *         the data of each source file in bytes.
+     *
+     * @return a {@link List list} of the {@link CompiledScript} objects.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in any of the source files data.
+     */
+    private List<CompiledScript> compileArenas(List<byte[]> sources) throws IOException, CompilerErrors {
+        // Parse each of the sources into a flat arena.
+        var errors = new ArrayList<CompilerError>();
+        var arenas = new ArrayList<AstArena>(sources.size());
+        for (var source : sources) {
+            arenas.add(parseArena(source, errors));
+        }
+        if (errors.size() > 0) {
+            throw new CompilerErrors(errors);
+        }
+        // Declare the signatures of all the scripts before any of them is checked.
+        var checker = new SemanticChecker(symbolTable);
+        arenas.forEach(checker::declare);
+        // Check and generate the scripts one at a time, the tree of each script can be collected right after.
+        var generated = new LinkedHashMap<ScriptInfo, Script>();
+        for (var arena : arenas) {
+            var reader = new AstArenaReader(arena);
+            for (var index = 0; index < arena.getRootCount(); index++) {
+                var script = reader.script(arena.getRoot(index));
+                // the remaining scripts are still checked so all of the errors are reported at once.
+                if (checker.check(script) && checker.getErrors().isEmpty()) {
+                    generated.put(lookupScript(script), codeGenerator.visit(script));
+                }
+            }
+        }
+        if (checker.getErrors().size() > 0) {
+            throw new CompilerErrors(checker.getErrors());
+        }
+        // Compile all of the generated scripts into a bytecode format.
+        return compileScripts(generated);
+    }
+
+    /**
+     * Looks-up the symbol information of the specified semantically checked {@link AstScript script}.
+     *
+     * @param script
+     *         the script to look-up the symbol information for.
+     *
+     * @return the {@link ScriptInfo} of the script.
+     */
+    private ScriptInfo lookupScript(AstScript script) {
+        return symbolTable.lookupScript(TriggerType.forRepresentation(script.getTrigger().getText()), script.getName().getText());
+    }
+
+    /**
+     * Optimizes and writes the specified generated scripts. The scripts are optimized on their
+     * own first, then the calls between them are inlined and the scripts which had any call inlined are optimized
+     * again. In the whole-program mode, the procedures which can not be reached are removed right after the code
+     * generation and once more after the inlining.
+     *
+     * @param generated
+     *         the generated scripts keyed by their symbol information.
+     *
+     * @return a {@link List list} of the {@link CompiledScript} objects.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     */
+    private List<CompiledScript> compileScripts(Map<ScriptInfo, Script> generated) throws IOException {
+        // Remove the procedures which are never reached before spending any time on them.
+        var eliminated = new ArrayList<ScriptInfo>();
+        if (wholeProgram) {
+            eliminated.addAll(deadProcEliminator.eliminate(generated));
+        }
+        for (var entry : generated.entrySet()) {
+            // Optimize the script at its optimization level.
+            getOptimizer(entry.getKey()).run(entry.getValue());
+            inliner.register(entry.getKey(), entry.getValue());
+        }
+        // Inline the small procedures into their callers, which are optimized again.
+        inliner.run(this::getOptimizer);
+        inliner.clear();
+        // Remove the procedures which are no longer called after all of their calls were inlined.
+        if (wholeProgram) {
+            eliminated.addAll(deadProcEliminator.eliminate(generated));
+        }
+        eliminatedScripts = Collections.unmodifiableList(eliminated);
+        var result = new ArrayList<CompiledScript>(generated.size());
+        for (var script : generated.values()) {
             // Write the generated script to a bytecode format.
-            BytecodeScript bytecode = codeWriter.write(generated);
+            BytecodeScript bytecode = codeWriter.write(script);
             try (var stream = new ByteArrayOutputStream()) {
                 bytecode.write(stream);
-                result.add(new CompiledScript(generated.getName(), stream.toByteArray()));
+                result.add(new CompiledScript(script.getName(), stream.toByteArray()));
             }
         }
-        return result.toArray(CompiledScript[]::new);
+        return result;
+    }
+
+    /**
+     * Gets the {@link Optimizer} of the optimization level the specified {@link ScriptInfo script} is compiled at.
+     *
+     * @param info
+     *         the script to get the optimizer for.
+     *
+     * @return the {@link Optimizer} object.
+     */
+    private Optimizer getOptimizer(ScriptInfo info) {
+        return optimizers.get(OptimizationLevel.forScript(info, optimizationLevel));
+    }
+
+    /**
+     * Gets the {@link Optimizer} of the specified {@link OptimizationLevel}, which holds the statistics of each of the
+     * optimization passes it ran.
+     *
+     * @param level
+     *         the optimization level of the optimizer.
+     *
+     * @return the {@link Optimizer} object.
+     */
+    public Optimizer getOptimizer(@NonNull OptimizationLevel level) {
+        return optimizers.get(level);
     }
 
     /**
-     * Parses the Abstract Syntax Tree of the specified source file data.
+     * Parses the Abstract Syntax Tree of the specified source file data. The parser recovers from syntax errors, so all
+     * of the errors within the source file data are added to the specified {@code errors} list.
      *
      * @param data
      *         the source file data in bytes.
+     * @param errors
+     *         the list to add the lexical and syntax errors to.
      *
      * @return a {@link List list} of the parsed {@link AstScript} objects.
      */
-    private List<AstScript> parseSyntaxTree(byte[] data) throws IOException {
+    private List<AstScript> parseSyntaxTree(byte[] data, List<CompilerError> errors) throws IOException {
+        String key = null;
+        if (syntaxTreeCache != null) {
+            key = SyntaxTreeCache.key(lexicalTable, data);
+            var scripts = syntaxTreeCache.lookup(key);
+            if (scripts != null) {
+                return scripts;
+            }
+        }
         var stream = new BufferedCharStream(new ByteArrayInputStream(data));
         var tokenizer = new Tokenizer(lexicalTable, stream);
-        var lexer = new Lexer(tokenizer);
+        Lexer lexer;
+        try {
+            lexer = new Lexer(tokenizer);
+        } catch (LexicalError error) {
+            errors.add(error);
+            return Collections.emptyList();
+        }
         var parser = new ScriptParser(lexer);
-        var scripts = new ArrayList<AstScript>();
-        while (lexer.reminaing() > 0) {
-            scripts.add(parser.script());
+        var scripts = parser.scripts();
+        errors.addAll(parser.getErrors());
+        if (syntaxTreeCache != null && parser.getErrors().isEmpty()) {
+            syntaxTreeCache.store(key, scripts);
         }
         return scripts;
     }
+
+    /**
+     * Parses the Abstract Syntax Tree of the specified source file data into an {@link AstArena}. Each script is
+     * written into the arena as soon as it is parsed, so the trees of the scripts are never all kept at once. The
+     * errors are handled the same way as in {@link #parseSyntaxTree(byte[], List)}.
+     *
+     * @param data
+     *         the source file data in bytes.
+     * @param errors
+     *         the list to add the lexical and syntax errors to.
+     *
+     * @return the {@link AstArena} which holds the parsed scripts.
+     */
+    private AstArena parseArena(byte[] data, List<CompilerError> errors) throws IOException {
+        String key = null;
+        if (syntaxTreeCache != null) {
+            key = SyntaxTreeCache.key(lexicalTable, data);
+            var arena = syntaxTreeCache.lookupArena(key);
+            if (arena != null) {
+                return arena;
+            }
+        }
+        var arena = new AstArena();
+        var stream = new BufferedCharStream(new ByteArrayInputStream(data));
+        var tokenizer = new Tokenizer(lexicalTable, stream);
+        Lexer lexer;
+        try {
+            lexer = new Lexer(tokenizer);
+        } catch (LexicalError error) {
+            errors.add(error);
+            return arena;
+        }
+        var parser = new ScriptParser(lexer);
+        var writer = new AstArenaWriter(arena);
+        parser.scripts(writer::write);
+        errors.addAll(parser.getErrors());
+        if (syntaxTreeCache != null && parser.getErrors().isEmpty()) {
+            syntaxTreeCache.store(key, arena);
+        }
+        return arena;
+    }
 }
@@ -8,9 +8,11 @@
 package me.waliedyassen.runescript.compiler.ast;
 
 import lombok.Getter;
+import lombok.Setter;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.compiler.ast.expr.AstIdentifier;
 import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
+import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableInfo;
 import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
 
 /**
@@ -32,6 +34,13 @@ public final class AstParameter extends AstNode {
     @Getter
     private final AstIdentifier name;
 
+    /**
+     * The parameter variable information.
+     */
+    @Getter
+    @Setter
+    private VariableInfo variable;
+
     /**
      * Construct a new {@link AstScript} type object instance.
      *
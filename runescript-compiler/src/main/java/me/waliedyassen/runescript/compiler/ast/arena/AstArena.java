@@ -0,0 +1,636 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.compiler.type.Type;
+import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
+import me.waliedyassen.runescript.compiler.type.tuple.TupleType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a flat, index based storage of Abstract Syntax Tree nodes. Instead of allocating an object for each node,
+ * all of the nodes are stored in parallel primitive arrays and are referred to by their index in these arrays. The
+ * children of each node are stored contiguously in one shared array, and all of the strings, longs and types are
+ * stored once in side tables.
+ * <p>
+ * Nodes are added in post-order, which means the children of a node are always added before the node itself.
+ *
+ * @author Walied K. Yassen
+ */
+public final class AstArena {
+
+    /**
+     * The node index that is used to mark an absent optional child.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * The version of the binary format which is produced by {@link #write(OutputStream)}, this must be changed whenever
+     * the format or the layout of any of the {@link AstKind kinds} change.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    /**
+     * The primitive type tag in the binary format.
+     */
+    private static final int TYPE_PRIMITIVE = 0;
+
+    /**
+     * The tuple type tag in the binary format.
+     */
+    private static final int TYPE_TUPLE = 1;
+
+    /**
+     * The initial capacity of the node arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The amount of position values we store for each node.
+     */
+    private static final int POSITION_STRIDE = 4;
+
+    /**
+     * The kind ordinal of each node.
+     */
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+    /**
+     * The kind specific data value of each node.
+     */
+    private int[] data = new int[INITIAL_CAPACITY];
+
+    /**
+     * The offset of the first child of each node within the {@link #children} array.
+     */
+    private int[] childOffsets = new int[INITIAL_CAPACITY];
+
+    /**
+     * The amount of children of each node.
+     */
+    private int[] childCounts = new int[INITIAL_CAPACITY];
+
+    /**
+     * The source code positions of each node, laid out as start line, start column, end line and end column.
+     */
+    private int[] positions = new int[INITIAL_CAPACITY * POSITION_STRIDE];
+
+    /**
+     * The shared children indices array.
+     */
+    private int[] children = new int[INITIAL_CAPACITY];
+
+    /**
+     * The long values side table.
+     */
+    private long[] longs = new long[8];
+
+    /**
+     * The root nodes (the script nodes) within this arena.
+     */
+    private int[] roots = new int[8];
+
+    /**
+     * The string values side table.
+     */
+    @Getter
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * The string values look-up map, used to store each string only once.
+     */
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    /**
+     * The type values side table.
+     */
+    @Getter
+    private final List<Type> types = new ArrayList<>();
+
+    /**
+     * The amount of nodes within this arena.
+     */
+    @Getter
+    private int size;
+
+    /**
+     * The amount of used slots in the {@link #children} array.
+     */
+    private int childrenSize;
+
+    /**
+     * The amount of used slots in the {@link #longs} array.
+     */
+    private int longsSize;
+
+    /**
+     * The amount of roots within this arena.
+     */
+    @Getter
+    private int rootCount;
+
+    /**
+     * Adds a new node to this arena.
+     *
+     * @param kind
+     *         the kind of the node.
+     * @param value
+     *         the kind specific data value of the node.
+     * @param range
+     *         the source code range of the node.
+     * @param nodes
+     *         the array which contains the children of the node.
+     * @param offset
+     *         the offset of the first child within the {@code nodes} array.
+     * @param count
+     *         the amount of children to add from the {@code nodes} array.
+     *
+     * @return the index of the added node.
+     */
+    public int add(AstKind kind, int value, Range range, int[] nodes, int offset, int count) {
+        var node = size++;
+        if (node == kinds.length) {
+            var capacity = node << 1;
+            kinds = Arrays.copyOf(kinds, capacity);
+            data = Arrays.copyOf(data, capacity);
+            childOffsets = Arrays.copyOf(childOffsets, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            positions = Arrays.copyOf(positions, capacity * POSITION_STRIDE);
+        }
+        if (childrenSize + count > children.length) {
+            children = Arrays.copyOf(children, Math.max(children.length << 1, childrenSize + count));
+        }
+        kinds[node] = (byte) kind.ordinal();
+        data[node] = value;
+        childOffsets[node] = childrenSize;
+        childCounts[node] = count;
+        System.arraycopy(nodes, offset, children, childrenSize, count);
+        childrenSize += count;
+        var position = node * POSITION_STRIDE;
+        positions[position] = range.getStart().getLine();
+        positions[position + 1] = range.getStart().getColumn();
+        positions[position + 2] = range.getEnd().getLine();
+        positions[position + 3] = range.getEnd().getColumn();
+        return node;
+    }
+
+    /**
+     * Marks the specified node as a root node.
+     *
+     * @param node
+     *         the index of the node.
+     */
+    public void addRoot(int node) {
+        if (rootCount == roots.length) {
+            roots = Arrays.copyOf(roots, rootCount << 1);
+        }
+        roots[rootCount++] = node;
+    }
+
+    /**
+     * Stores the specified string value in the strings side table if it was not already stored.
+     *
+     * @param value
+     *         the string value to store.
+     *
+     * @return the index of the string within the side table.
+     */
+    public int addString(String value) {
+        var id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Stores the specified long value in the longs side table.
+     *
+     * @param value
+     *         the long value to store.
+     *
+     * @return the index of the long within the side table.
+     */
+    public int addLong(long value) {
+        if (longsSize == longs.length) {
+            longs = Arrays.copyOf(longs, longsSize << 1);
+        }
+        longs[longsSize] = value;
+        return longsSize++;
+    }
+
+    /**
+     * Stores the specified {@link Type} in the types side table if it was not already stored.
+     *
+     * @param type
+     *         the type to store.
+     *
+     * @return the index of the type within the side table.
+     */
+    public int addType(Type type) {
+        for (var index = 0; index < types.size(); index++) {
+            if (types.get(index).equals(type)) {
+                return index;
+            }
+        }
+        types.add(type);
+        return types.size() - 1;
+    }
+
+    /**
+     * Gets the root node at the specified index.
+     *
+     * @param index
+     *         the index of the root.
+     *
+     * @return the index of the root node.
+     */
+    public int getRoot(int index) {
+        return roots[index];
+    }
+
+    /**
+     * Gets the {@link AstKind} of the specified node.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the {@link AstKind} of the node.
+     */
+    public AstKind getKind(int node) {
+        return AstKind.forOrdinal(kinds[node]);
+    }
+
+    /**
+     * Gets the kind specific data value of the specified node.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the data value of the node.
+     */
+    public int getData(int node) {
+        return data[node];
+    }
+
+    /**
+     * Gets the amount of children the specified node has.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the amount of children.
+     */
+    public int getChildCount(int node) {
+        return childCounts[node];
+    }
+
+    /**
+     * Gets the child at the specified index of the specified node.
+     *
+     * @param node
+     *         the index of the node.
+     * @param index
+     *         the index of the child within the node children.
+     *
+     * @return the index of the child node or {@link #NO_NODE} if the optional child was absent.
+     */
+    public int getChild(int node, int index) {
+        return children[childOffsets[node] + index];
+    }
+
+    /**
+     * Gets the text of the specified identifier or string literal node.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the text of the node.
+     */
+    public String getString(int node) {
+        return strings.get(data[node]);
+    }
+
+    /**
+     * Gets the value of the specified long literal node.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the value of the node.
+     */
+    public long getLong(int node) {
+        return longs[data[node]];
+    }
+
+    /**
+     * Gets the {@link Type} of the specified node which has a type index as its data value.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the {@link Type} of the node.
+     */
+    public Type getType(int node) {
+        return types.get(data[node]);
+    }
+
+    /**
+     * Creates a new {@link Range} object for the source code range of the specified node.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the created {@link Range} object.
+     */
+    public Range getRange(int node) {
+        var position = node * POSITION_STRIDE;
+        var start = new LineColumn(positions[position], positions[position + 1]);
+        var end = new LineColumn(positions[position + 2], positions[position + 3]);
+        return new Range(start, end);
+    }
+
+    /**
+     * Walks through all of the nodes that are reachable from the specified node in depth-first order, calling the
+     * {@link AstArenaVisitor#enter(AstArena, int)} before the children of each node and {@link
+     * AstArenaVisitor#exit(AstArena, int)} after them. The walk does not use recursion so it is safe for deeply nested
+     * trees.
+     *
+     * @param node
+     *         the index of the node to start from.
+     * @param visitor
+     *         the visitor to call for each node.
+     */
+    public void walk(int node, AstArenaVisitor visitor) {
+        // each entry of the stack is the node index shifted left by one, the lowest bit tells whether we are
+        // exiting the node or not.
+        var stack = new int[16];
+        var top = 0;
+        stack[top++] = node << 1;
+        while (top > 0) {
+            var entry = stack[--top];
+            var current = entry >>> 1;
+            if ((entry & 1) != 0) {
+                visitor.exit(this, current);
+                continue;
+            }
+            if (!visitor.enter(this, current)) {
+                continue;
+            }
+            var count = childCounts[current];
+            if (top + count + 1 > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length << 1, top + count + 1));
+            }
+            stack[top++] = (current << 1) | 1;
+            var offset = childOffsets[current];
+            for (var index = count - 1; index >= 0; index--) {
+                var child = children[offset + index];
+                if (child != NO_NODE) {
+                    stack[top++] = child << 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks through all of the root nodes within this arena.
+     *
+     * @param visitor
+     *         the visitor to call for each node.
+     * @see #walk(int, AstArenaVisitor)
+     */
+    public void walk(AstArenaVisitor visitor) {
+        for (var index = 0; index < rootCount; index++) {
+            walk(roots[index], visitor);
+        }
+    }
+
+    /**
+     * Writes the binary form of this arena to the specified {@link OutputStream stream}.
+     *
+     * @param stream
+     *         the stream to write the binary data to.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the data.
+     */
+    public void write(OutputStream stream) throws IOException {
+        var data = new DataOutputStream(stream);
+        data.writeInt(FORMAT_VERSION);
+        // write the side tables of the arena.
+        data.writeInt(strings.size());
+        for (var string : strings) {
+            writeString(data, string);
+        }
+        data.writeInt(longsSize);
+        for (var index = 0; index < longsSize; index++) {
+            data.writeLong(longs[index]);
+        }
+        data.writeInt(types.size());
+        for (var type : types) {
+            writeType(data, type);
+        }
+        // write the nodes of the arena, the child offsets are not written since the children
+        // of each node are always stored right after the children of the previous node.
+        data.writeInt(size);
+        for (var node = 0; node < size; node++) {
+            data.writeByte(kinds[node]);
+            data.writeInt(this.data[node]);
+            data.writeInt(childCounts[node]);
+        }
+        for (var index = 0; index < size * POSITION_STRIDE; index++) {
+            data.writeInt(positions[index]);
+        }
+        data.writeInt(childrenSize);
+        for (var index = 0; index < childrenSize; index++) {
+            data.writeInt(children[index]);
+        }
+        data.writeInt(rootCount);
+        for (var index = 0; index < rootCount; index++) {
+            data.writeInt(roots[index]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads an arena from the binary data that is within the specified {@link InputStream stream}.
+     *
+     * @param stream
+     *         the stream to read the binary data from.
+     *
+     * @return the read {@link AstArena} object.
+     * @throws IOException
+     *         if anything occurs while reading the data or if the data was not written using the current {@link
+     *         #FORMAT_VERSION}.
+     */
+    public static AstArena read(InputStream stream) throws IOException {
+        var data = new DataInputStream(stream);
+        var version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported arena format version: " + version);
+        }
+        var arena = new AstArena();
+        var numStrings = data.readInt();
+        for (var index = 0; index < numStrings; index++) {
+            arena.addString(readString(data));
+        }
+        var numLongs = data.readInt();
+        arena.longs = new long[Math.max(numLongs, 1)];
+        for (var index = 0; index < numLongs; index++) {
+            arena.longs[index] = data.readLong();
+        }
+        arena.longsSize = numLongs;
+        var numTypes = data.readInt();
+        for (var index = 0; index < numTypes; index++) {
+            arena.types.add(readType(data));
+        }
+        var size = data.readInt();
+        var capacity = Math.max(size, 1);
+        arena.kinds = new byte[capacity];
+        arena.data = new int[capacity];
+        arena.childOffsets = new int[capacity];
+        arena.childCounts = new int[capacity];
+        arena.positions = new int[capacity * POSITION_STRIDE];
+        var offset = 0;
+        for (var node = 0; node < size; node++) {
+            arena.kinds[node] = data.readByte();
+            arena.data[node] = data.readInt();
+            arena.childCounts[node] = data.readInt();
+            arena.childOffsets[node] = offset;
+            offset += arena.childCounts[node];
+        }
+        for (var index = 0; index < size * POSITION_STRIDE; index++) {
+            arena.positions[index] = data.readInt();
+        }
+        arena.size = size;
+        var childrenSize = data.readInt();
+        if (childrenSize != offset) {
+            throw new IOException("Malformed arena children table");
+        }
+        arena.children = new int[Math.max(childrenSize, 1)];
+        for (var index = 0; index < childrenSize; index++) {
+            arena.children[index] = data.readInt();
+        }
+        arena.childrenSize = childrenSize;
+        var rootCount = data.readInt();
+        arena.roots = new int[Math.max(rootCount, 1)];
+        for (var index = 0; index < rootCount; index++) {
+            arena.roots[index] = data.readInt();
+        }
+        arena.rootCount = rootCount;
+        return arena;
+    }
+
+    /**
+     * Writes the specified string to the specified {@link DataOutputStream stream}, the string is written as UTF-8 bytes
+     * prefixed with their length rather than using {@link DataOutputStream#writeUTF(String)} which is limited to 64KB.
+     *
+     * @param data
+     *         the stream to write the string to.
+     * @param string
+     *         the string to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the string.
+     */
+    private static void writeString(DataOutputStream data, String string) throws IOException {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Reads a string that was written using {@link #writeString(DataOutputStream, String)} from the specified {@link
+     * DataInputStream stream}.
+     *
+     * @param data
+     *         the stream to read the string from.
+     *
+     * @return the read string.
+     * @throws IOException
+     *         if anything occurs while reading the string.
+     */
+    private static String readString(DataInputStream data) throws IOException {
+        var length = data.readInt();
+        if (length < 0) {
+            throw new IOException("Malformed arena string length: " + length);
+        }
+        var bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the specified {@link Type} to the specified {@link DataOutputStream stream}.
+     *
+     * @param data
+     *         the stream to write the type to.
+     * @param type
+     *         the type to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the type.
+     */
+    private static void writeType(DataOutputStream data, Type type) throws IOException {
+        if (type instanceof PrimitiveType) {
+            data.writeByte(TYPE_PRIMITIVE);
+            data.writeByte(((PrimitiveType) type).ordinal());
+        } else if (type instanceof TupleType) {
+            var childs = ((TupleType) type).getChilds();
+            data.writeByte(TYPE_TUPLE);
+            data.writeByte(childs.length);
+            for (var child : childs) {
+                writeType(data, child);
+            }
+        } else {
+            throw new UnsupportedOperationException("Unsupported type: " + type);
+        }
+    }
+
+    /**
+     * Reads a {@link Type} from the specified {@link DataInputStream stream}.
+     *
+     * @param data
+     *         the stream to read the type from.
+     *
+     * @return the read {@link Type} object.
+     * @throws IOException
+     *         if anything occurs while reading the type.
+     */
+    private static Type readType(DataInputStream data) throws IOException {
+        var tag = data.readUnsignedByte();
+        switch (tag) {
+            case TYPE_PRIMITIVE:
+                return PrimitiveType.values()[data.readUnsignedByte()];
+            case TYPE_TUPLE:
+                var childs = new Type[data.readUnsignedByte()];
+                for (var index = 0; index < childs.length; index++) {
+                    childs[index] = readType(data);
+                }
+                return TupleType.of(childs);
+            default:
+                throw new IOException("Unsupported type tag: " + tag);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.ast.AstAnnotation;
+import me.waliedyassen.runescript.compiler.ast.AstParameter;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.expr.*;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString;
+import me.waliedyassen.runescript.compiler.ast.stmt.*;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
+import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
+import me.waliedyassen.runescript.compiler.util.Operator;
+import me.waliedyassen.runescript.compiler.util.VariableScope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the reader which turns the nodes of an {@link AstArena} back into regular {@link AstScript} trees, this
+ * is done right before the phases which require the tree form such as the semantic analysis.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class AstArenaReader {
+
+    /**
+     * The cached values of the operators.
+     */
+    private static final Operator[] OPERATORS = Operator.values();
+
+    /**
+     * The cached values of the variable scopes.
+     */
+    private static final VariableScope[] SCOPES = VariableScope.values();
+
+    /**
+     * The arena which we are reading the nodes from.
+     */
+    private final AstArena arena;
+
+    /**
+     * Reads all of the root scripts that are stored within the arena.
+     *
+     * @return the list of the read {@link AstScript} objects.
+     */
+    public List<AstScript> readAll() {
+        var scripts = new ArrayList<AstScript>(arena.getRootCount());
+        for (var index = 0; index < arena.getRootCount(); index++) {
+            scripts.add(script(arena.getRoot(index)));
+        }
+        return scripts;
+    }
+
+    /**
+     * Reads the {@link AstScript} node at the specified index.
+     *
+     * @param node
+     *         the index of the script node.
+     *
+     * @return the read {@link AstScript} object.
+     */
+    public AstScript script(int node) {
+        return script(node, true);
+    }
+
+    /**
+     * Reads the header of the {@link AstScript} node at the specified index, which is the annotations, the trigger, the
+     * name, the parameters and the type of the script. The code of the script is not read, the returned script has an
+     * empty code block instead.
+     *
+     * @param node
+     *         the index of the script node.
+     *
+     * @return the read {@link AstScript} object.
+     */
+    public AstScript header(int node) {
+        return script(node, false);
+    }
+
+    /**
+     * Reads the {@link AstScript} node at the specified index.
+     *
+     * @param node
+     *         the index of the script node.
+     * @param code
+     *         whether or not the code of the script should be read.
+     *
+     * @return the read {@link AstScript} object.
+     */
+    private AstScript script(int node, boolean code) {
+        var count = arena.getChildCount(node);
+        var index = 0;
+        var annotations = new ArrayList<AstAnnotation>();
+        while (arena.getKind(arena.getChild(node, index)) == AstKind.ANNOTATION) {
+            annotations.add(annotation(arena.getChild(node, index++)));
+        }
+        var trigger = identifier(arena.getChild(node, index++));
+        var name = identifier(arena.getChild(node, index++));
+        var parameters = new AstParameter[count - index - 1];
+        for (var parameter = 0; parameter < parameters.length; parameter++) {
+            parameters[parameter] = parameter(arena.getChild(node, index++));
+        }
+        var child = arena.getChild(node, index);
+        var block = code ? (AstBlockStatement) statement(child) : new AstBlockStatement(arena.getRange(child), new AstStatement[0]);
+        return new AstScript(arena.getRange(node), annotations, trigger, name, parameters, arena.getType(node), block);
+    }
+
+    /**
+     * Reads the {@link AstAnnotation} node at the specified index.
+     *
+     * @param node
+     *         the index of the annotation node.
+     *
+     * @return the read {@link AstAnnotation} object.
+     */
+    private AstAnnotation annotation(int node) {
+        var name = identifier(arena.getChild(node, 0));
+        var value = (AstLiteralInteger) expression(arena.getChild(node, 1));
+        return new AstAnnotation(arena.getRange(node), name, value);
+    }
+
+    /**
+     * Reads the {@link AstParameter} node at the specified index.
+     *
+     * @param node
+     *         the index of the parameter node.
+     *
+     * @return the read {@link AstParameter} object.
+     */
+    private AstParameter parameter(int node) {
+        return new AstParameter(arena.getRange(node), (PrimitiveType) arena.getType(node), identifier(arena.getChild(node, 0)));
+    }
+
+    /**
+     * Reads the {@link AstIdentifier} node at the specified index.
+     *
+     * @param node
+     *         the index of the identifier node.
+     *
+     * @return the read {@link AstIdentifier} object.
+     */
+    private AstIdentifier identifier(int node) {
+        return new AstIdentifier(arena.getRange(node), arena.getString(node));
+    }
+
+    /**
+     * Reads the {@link AstStatement} node at the specified index.
+     *
+     * @param node
+     *         the index of the statement node.
+     *
+     * @return the read {@link AstStatement} object or {@code null} if the node index was {@link AstArena#NO_NODE}.
+     */
+    private AstStatement statement(int node) {
+        if (node == AstArena.NO_NODE) {
+            return null;
+        }
+        var range = arena.getRange(node);
+        switch (arena.getKind(node)) {
+            case VARIABLE_DECLARATION:
+                return new AstVariableDeclaration(range, arena.getType(node), identifier(arena.getChild(node, 0)), expression(arena.getChild(node, 1)));
+            case ARRAY_DECLARATION:
+                return new AstArrayDeclaration(range, (PrimitiveType) arena.getType(node), identifier(arena.getChild(node, 0)), expression(arena.getChild(node, 1)));
+            case VARIABLE_INITIALIZER:
+                return new AstVariableInitializer(range, SCOPES[arena.getData(node)], identifier(arena.getChild(node, 0)), expression(arena.getChild(node, 1)));
+            case ARRAY_INITIALIZER:
+                return new AstArrayInitializer(range, identifier(arena.getChild(node, 0)), expression(arena.getChild(node, 1)), expression(arena.getChild(node, 2)));
+            case SWITCH_STATEMENT: {
+                var condition = expression(arena.getChild(node, 0));
+                var defaultCase = (AstSwitchCase) statement(arena.getChild(node, 1));
+                var cases = new AstSwitchCase[arena.getChildCount(node) - 2];
+                for (var index = 0; index < cases.length; index++) {
+                    cases[index] = (AstSwitchCase) statement(arena.getChild(node, index + 2));
+                }
+                return new AstSwitchStatement(range, (PrimitiveType) arena.getType(node), condition, cases, defaultCase);
+            }
+            case SWITCH_CASE: {
+                var code = (AstBlockStatement) statement(arena.getChild(node, 0));
+                return new AstSwitchCase(range, expressions(node, 1), code);
+            }
+            case IF_STATEMENT:
+                return new AstIfStatement(range, expression(arena.getChild(node, 0)), statement(arena.getChild(node, 1)), statement(arena.getChild(node, 2)));
+            case WHILE_STATEMENT:
+                return new AstWhileStatement(range, expression(arena.getChild(node, 0)), statement(arena.getChild(node, 1)));
+            case EXPRESSION_STATEMENT:
+                return new AstExpressionStatement(range, expression(arena.getChild(node, 0)));
+            case RETURN_STATEMENT:
+                return new AstReturnStatement(range, expressions(node, 0));
+            case BLOCK_STATEMENT: {
+                var statements = new AstStatement[arena.getChildCount(node)];
+                for (var index = 0; index < statements.length; index++) {
+                    statements[index] = statement(arena.getChild(node, index));
+                }
+                return new AstBlockStatement(range, statements);
+            }
+            default:
+                throw new IllegalStateException("Unexpected statement node kind: " + arena.getKind(node));
+        }
+    }
+
+    /**
+     * Reads the {@link AstExpression} node at the specified index.
+     *
+     * @param node
+     *         the index of the expression node.
+     *
+     * @return the read {@link AstExpression} object or {@code null} if the node index was {@link AstArena#NO_NODE}.
+     */
+    private AstExpression expression(int node) {
+        if (node == AstArena.NO_NODE) {
+            return null;
+        }
+        var range = arena.getRange(node);
+        switch (arena.getKind(node)) {
+            case IDENTIFIER:
+                return identifier(node);
+            case LITERAL_BOOL:
+                return new AstLiteralBool(range, arena.getData(node) != 0);
+            case LITERAL_INTEGER:
+                return new AstLiteralInteger(range, arena.getData(node));
+            case LITERAL_LONG:
+                return new AstLiteralLong(range, arena.getLong(node));
+            case LITERAL_STRING:
+                return new AstLiteralString(range, arena.getString(node));
+            case CONCATENATION:
+                return new AstConcatenation(range, expressions(node, 0));
+            case VARIABLE_EXPRESSION:
+                return new AstVariableExpression(range, SCOPES[arena.getData(node)], identifier(arena.getChild(node, 0)));
+            case ARRAY_EXPRESSION:
+                return new AstArrayExpression(range, identifier(arena.getChild(node, 0)), expression(arena.getChild(node, 1)));
+            case GOSUB:
+                return new AstGosub(range, identifier(arena.getChild(node, 0)), expressions(node, 1));
+            case DYNAMIC:
+                return new AstDynamic(range, identifier(arena.getChild(node, 0)));
+            case CONSTANT:
+                return new AstConstant(range, identifier(arena.getChild(node, 0)));
+            case COMMAND:
+                return new AstCommand(range, identifier(arena.getChild(node, 0)), expressions(node, 1), arena.getData(node) != 0);
+            case BINARY_OPERATION:
+                return new AstBinaryOperation(expression(arena.getChild(node, 0)), OPERATORS[arena.getData(node)], expression(arena.getChild(node, 1)));
+            default:
+                throw new IllegalStateException("Unexpected expression node kind: " + arena.getKind(node));
+        }
+    }
+
+    /**
+     * Reads all of the expression children of the specified node starting from the specified child index.
+     *
+     * @param node
+     *         the index of the parent node.
+     * @param from
+     *         the index of the first expression child.
+     *
+     * @return the read {@link AstExpression} objects.
+     */
+    private AstExpression[] expressions(int node, int from) {
+        var expressions = new AstExpression[arena.getChildCount(node) - from];
+        for (var index = 0; index < expressions.length; index++) {
+            expressions[index] = expression(arena.getChild(node, from + index));
+        }
+        return expressions;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+/**
+ * Represents the base interface for an {@link AstArena} visitor. This is the flat equivalent of the {@link
+ * me.waliedyassen.runescript.compiler.ast.visitor.AstTreeVisitor} type, the node kind can be retrieved from the arena
+ * using {@link AstArena#getKind(int)}.
+ *
+ * @author Walied K. Yassen
+ */
+public interface AstArenaVisitor {
+
+    /**
+     * Gets called when we have just entered a node, before any of its children are visited.
+     *
+     * @param arena
+     *         the arena which the node is stored in.
+     * @param node
+     *         the index of the node.
+     *
+     * @return <code>true</code> if the children of the node should be visited otherwise <code>false</code>.
+     */
+    default boolean enter(AstArena arena, int node) {
+        return true;
+    }
+
+    /**
+     * Gets called when we are exiting a node, after all of its children are visited.
+     *
+     * @param arena
+     *         the arena which the node is stored in.
+     * @param node
+     *         the index of the node.
+     */
+    default void exit(AstArena arena, int node) {
+        // NOOP
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.compiler.ast.AstAnnotation;
+import me.waliedyassen.runescript.compiler.ast.AstNode;
+import me.waliedyassen.runescript.compiler.ast.AstParameter;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.expr.*;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString;
+import me.waliedyassen.runescript.compiler.ast.stmt.*;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
+import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
+
+import java.util.Arrays;
+
+/**
+ * Represents the visitor which stores an {@link AstScript} tree into an {@link AstArena}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class AstArenaWriter implements AstVisitor<Integer, Integer> {
+
+    /**
+     * The arena which we are writing the nodes to.
+     */
+    private final AstArena arena;
+
+    /**
+     * The pending children stack, each node pushes its children then pops them once the node is added.
+     */
+    private int[] stack = new int[32];
+
+    /**
+     * The current top of the {@link #stack}.
+     */
+    private int top;
+
+    /**
+     * Writes the specified {@link AstScript} tree into the arena and marks it as a root.
+     *
+     * @param script
+     *         the script to write.
+     *
+     * @return the index of the script node.
+     */
+    public int write(AstScript script) {
+        int node = script.accept(this);
+        arena.addRoot(node);
+        return node;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstScript script) {
+        var base = top;
+        for (var annotation : script.getAnnotations()) {
+            push(visit(annotation));
+        }
+        push(identifier(script.getTrigger()));
+        push(identifier(script.getName()));
+        for (var parameter : script.getParameters()) {
+            push(parameter.accept(this));
+        }
+        push(script.getCode().accept(this));
+        return add(AstKind.SCRIPT, arena.addType(script.getType()), script, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstAnnotation annotation) {
+        var base = top;
+        push(identifier(annotation.getName()));
+        push(annotation.getValue().accept(this));
+        return add(AstKind.ANNOTATION, 0, annotation, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstParameter parameter) {
+        var base = top;
+        push(identifier(parameter.getName()));
+        return add(AstKind.PARAMETER, arena.addType(parameter.getType()), parameter, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstLiteralBool bool) {
+        return add(AstKind.LITERAL_BOOL, bool.getValue() ? 1 : 0, bool, top);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstLiteralInteger integer) {
+        return add(AstKind.LITERAL_INTEGER, integer.getValue(), integer, top);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstLiteralLong longInteger) {
+        return add(AstKind.LITERAL_LONG, arena.addLong(longInteger.getValue()), longInteger, top);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstLiteralString string) {
+        return add(AstKind.LITERAL_STRING, arena.addString(string.getValue()), string, top);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstConcatenation concatenation) {
+        var base = top;
+        pushAll(concatenation.getExpressions());
+        return add(AstKind.CONCATENATION, 0, concatenation, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstVariableExpression variableExpression) {
+        var base = top;
+        push(identifier(variableExpression.getName()));
+        return add(AstKind.VARIABLE_EXPRESSION, variableExpression.getScope().ordinal(), variableExpression, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstArrayExpression arrayExpression) {
+        var base = top;
+        push(identifier(arrayExpression.getName()));
+        push(arrayExpression.getIndex().accept(this));
+        return add(AstKind.ARRAY_EXPRESSION, 0, arrayExpression, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstGosub gosub) {
+        var base = top;
+        push(identifier(gosub.getName()));
+        pushAll(gosub.getArguments());
+        return add(AstKind.GOSUB, 0, gosub, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstDynamic dynamic) {
+        var base = top;
+        push(identifier(dynamic.getName()));
+        return add(AstKind.DYNAMIC, 0, dynamic, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstConstant constant) {
+        var base = top;
+        push(identifier(constant.getName()));
+        return add(AstKind.CONSTANT, 0, constant, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstCommand command) {
+        var base = top;
+        push(identifier(command.getName()));
+        pushAll(command.getArguments());
+        return add(AstKind.COMMAND, command.isAlternative() ? 1 : 0, command, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstBinaryOperation binaryOperation) {
+        var base = top;
+        push(binaryOperation.getLeft().accept(this));
+        push(binaryOperation.getRight().accept(this));
+        return add(AstKind.BINARY_OPERATION, binaryOperation.getOperator().ordinal(), binaryOperation, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstVariableDeclaration variableDeclaration) {
+        var base = top;
+        push(identifier(variableDeclaration.getName()));
+        push(optional(variableDeclaration.getExpression()));
+        return add(AstKind.VARIABLE_DECLARATION, arena.addType(variableDeclaration.getType()), variableDeclaration, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstArrayDeclaration arrayDeclaration) {
+        var base = top;
+        push(identifier(arrayDeclaration.getName()));
+        push(arrayDeclaration.getSize().accept(this));
+        return add(AstKind.ARRAY_DECLARATION, arena.addType(arrayDeclaration.getType()), arrayDeclaration, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstVariableInitializer variableInitializer) {
+        var base = top;
+        push(identifier(variableInitializer.getName()));
+        push(variableInitializer.getExpression().accept(this));
+        return add(AstKind.VARIABLE_INITIALIZER, variableInitializer.getScope().ordinal(), variableInitializer, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstArrayInitializer arrayInitializer) {
+        var base = top;
+        push(identifier(arrayInitializer.getName()));
+        push(arrayInitializer.getIndex().accept(this));
+        push(arrayInitializer.getValue().accept(this));
+        return add(AstKind.ARRAY_INITIALIZER, 0, arrayInitializer, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstSwitchStatement switchStatement) {
+        var base = top;
+        push(switchStatement.getCondition().accept(this));
+        push(optional(switchStatement.getDefaultCase()));
+        for (var switchCase : switchStatement.getCases()) {
+            push(switchCase.accept(this));
+        }
+        return add(AstKind.SWITCH_STATEMENT, arena.addType(switchStatement.getType()), switchStatement, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstSwitchCase switchCase) {
+        var base = top;
+        push(switchCase.getCode().accept(this));
+        pushAll(switchCase.getKeys());
+        return add(AstKind.SWITCH_CASE, 0, switchCase, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstIfStatement ifStatement) {
+        var base = top;
+        push(ifStatement.getCondition().accept(this));
+        push(ifStatement.getTrueStatement().accept(this));
+        push(optional(ifStatement.getFalseStatement()));
+        return add(AstKind.IF_STATEMENT, 0, ifStatement, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstWhileStatement whileStatement) {
+        var base = top;
+        push(whileStatement.getCondition().accept(this));
+        push(whileStatement.getCode().accept(this));
+        return add(AstKind.WHILE_STATEMENT, 0, whileStatement, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstExpressionStatement expressionStatement) {
+        var base = top;
+        push(expressionStatement.getExpression().accept(this));
+        return add(AstKind.EXPRESSION_STATEMENT, 0, expressionStatement, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstReturnStatement returnStatement) {
+        var base = top;
+        pushAll(returnStatement.getExpressions());
+        return add(AstKind.RETURN_STATEMENT, 0, returnStatement, base);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer visit(AstBlockStatement blockStatement) {
+        var base = top;
+        for (var statement : blockStatement.getStatements()) {
+            push(statement.accept(this));
+        }
+        return add(AstKind.BLOCK_STATEMENT, 0, blockStatement, base);
+    }
+
+    /**
+     * Writes the specified {@link AstIdentifier} node into the arena. Identifiers do not dispatch any visit method so
+     * we have to write them explicitly.
+     *
+     * @param identifier
+     *         the identifier node to write.
+     *
+     * @return the index of the identifier node.
+     */
+    private int identifier(AstIdentifier identifier) {
+        return add(AstKind.IDENTIFIER, arena.addString(identifier.getText()), identifier, top);
+    }
+
+    /**
+     * Writes the specified optional node into the arena.
+     *
+     * @param node
+     *         the node to write, or {@code null} if the node is absent.
+     *
+     * @return the index of the written node or {@link AstArena#NO_NODE} if the node was absent.
+     */
+    private int optional(AstNode node) {
+        if (node == null) {
+            return AstArena.NO_NODE;
+        }
+        return (int) node.accept(this);
+    }
+
+    /**
+     * Writes all of the specified expressions and pushes them into the children stack.
+     *
+     * @param expressions
+     *         the expressions to write.
+     */
+    private void pushAll(AstExpression[] expressions) {
+        for (var expression : expressions) {
+            push(expression.accept(this));
+        }
+    }
+
+    /**
+     * Pushes the specified node index into the children stack.
+     *
+     * @param node
+     *         the node index to push.
+     */
+    private void push(int node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top << 1);
+        }
+        stack[top++] = node;
+    }
+
+    /**
+     * Adds a node to the arena with all of the children that were pushed after the specified {@code base}, then pops
+     * these children from the stack.
+     *
+     * @param kind
+     *         the kind of the node.
+     * @param value
+     *         the kind specific data value of the node.
+     * @param node
+     *         the tree node we are adding.
+     * @param base
+     *         the top of the stack before any of the node children were pushed.
+     *
+     * @return the index of the added node.
+     */
+    private int add(AstKind kind, int value, AstNode node, int base) {
+        Range range = node.getRange();
+        var index = arena.add(kind, value, range, stack, base, top - base);
+        top = base;
+        return index;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+/**
+ * Represents the kind of a node that is stored within an {@link AstArena}. Each kind describes how the data and the
+ * children slots of the node are laid out.
+ *
+ * @author Walied K. Yassen
+ */
+public enum AstKind {
+
+    /**
+     * The script node kind, data is the type index, children are the annotations, the trigger, the name, the parameters
+     * and then the code block.
+     */
+    SCRIPT,
+
+    /**
+     * The annotation node kind, children are the name and the value.
+     */
+    ANNOTATION,
+
+    /**
+     * The parameter node kind, data is the type index, children is the name.
+     */
+    PARAMETER,
+
+    /**
+     * The identifier node kind, data is the string index of the identifier text.
+     */
+    IDENTIFIER,
+
+    /**
+     * The boolean literal node kind, data is either {@code 1} or {@code 0}.
+     */
+    LITERAL_BOOL,
+
+    /**
+     * The integer literal node kind, data is the integer value.
+     */
+    LITERAL_INTEGER,
+
+    /**
+     * The long literal node kind, data is the long index of the value.
+     */
+    LITERAL_LONG,
+
+    /**
+     * The string literal node kind, data is the string index of the value.
+     */
+    LITERAL_STRING,
+
+    /**
+     * The string concatenation node kind, children are the concatenated expressions.
+     */
+    CONCATENATION,
+
+    /**
+     * The variable expression node kind, data is the variable scope ordinal, children is the name.
+     */
+    VARIABLE_EXPRESSION,
+
+    /**
+     * The array expression node kind, children are the name and the index.
+     */
+    ARRAY_EXPRESSION,
+
+    /**
+     * The gosub expression node kind, children are the name and then the arguments.
+     */
+    GOSUB,
+
+    /**
+     * The dynamic expression node kind, children is the name.
+     */
+    DYNAMIC,
+
+    /**
+     * The constant expression node kind, children is the name.
+     */
+    CONSTANT,
+
+    /**
+     * The command expression node kind, data is whether or not the command is alternative, children are the name and
+     * then the arguments.
+     */
+    COMMAND,
+
+    /**
+     * The binary operation node kind, data is the operator ordinal, children are the left and the right hand sides.
+     */
+    BINARY_OPERATION,
+
+    /**
+     * The variable declaration node kind, data is the type index, children are the name and the optional
+     * initialiser expression.
+     */
+    VARIABLE_DECLARATION,
+
+    /**
+     * The array declaration node kind, data is the type index, children are the name and the size.
+     */
+    ARRAY_DECLARATION,
+
+    /**
+     * The variable initializer node kind, data is the variable scope ordinal, children are the name and the
+     * expression.
+     */
+    VARIABLE_INITIALIZER,
+
+    /**
+     * The array initializer node kind, children are the name, the index and the value.
+     */
+    ARRAY_INITIALIZER,
+
+    /**
+     * The switch statement node kind, data is the type index, children are the condition, the optional default case
+     * and then the cases.
+     */
+    SWITCH_STATEMENT,
+
+    /**
+     * The switch case node kind, children are the code block and then the keys.
+     */
+    SWITCH_CASE,
+
+    /**
+     * The if statement node kind, children are the condition, the true statement and the optional false statement.
+     */
+    IF_STATEMENT,
+
+    /**
+     * The while statement node kind, children are the condition and the code statement.
+     */
+    WHILE_STATEMENT,
+
+    /**
+     * The expression statement node kind, children is the expression.
+     */
+    EXPRESSION_STATEMENT,
+
+    /**
+     * The return statement node kind, children are the returned expressions.
+     */
+    RETURN_STATEMENT,
+
+    /**
+     * The block statement node kind, children are the statements.
+     */
+    BLOCK_STATEMENT;
+
+    /**
+     * The cached values of the enum to avoid copying the array on each look-up.
+     */
+    private static final AstKind[] VALUES = values();
+
+    /**
+     * Gets the {@link AstKind} with the specified {@code ordinal}.
+     *
+     * @param ordinal
+     *         the ordinal of the kind.
+     *
+     * @return the {@link AstKind} object.
+     */
+    public static AstKind forOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
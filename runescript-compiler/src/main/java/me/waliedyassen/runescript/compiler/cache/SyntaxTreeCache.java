@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaReader;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaWriter;
+import me.waliedyassen.runescript.compiler.lexer.table.LexicalTable;
+import me.waliedyassen.runescript.compiler.parser.ScriptParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Represents an on-disk cache of the parsed syntax trees. The trees of each source file are stored in their {@link
+ * AstArena} binary form within a file that is named after the {@link #key(LexicalTable, byte[]) key} of the source
+ * file, which means an unchanged source file never has to be lexed or parsed again by the same compiler.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class SyntaxTreeCache {
+
+    /**
+     * The cache file extension.
+     */
+    private static final String CACHE_EXTENSION = ".ast";
+
+    /**
+     * The hexadecimal digits that are used when encoding the hash.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The directory which the cache files are stored in.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * Computes the cache key of the specified source file data. The key covers everything which the parsed trees depend
+     * on besides the source itself, the {@link AstArena#FORMAT_VERSION arena format}, the {@link
+     * ScriptParser#GRAMMAR_VERSION grammar} and the {@link LexicalTable#getSignature() lexical table} symbols, so the
+     * entries of a different compiler build are never read.
+     *
+     * @param lexicalTable
+     *         the lexical table the source file is tokenized with.
+     * @param data
+     *         the source file data in bytes.
+     *
+     * @return the hexadecimal cache key.
+     */
+    public static String key(LexicalTable lexicalTable, byte[] data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available", e);
+        }
+        update(digest, AstArena.FORMAT_VERSION);
+        update(digest, ScriptParser.GRAMMAR_VERSION);
+        var signature = lexicalTable.getSignature().getBytes(StandardCharsets.UTF_8);
+        update(digest, signature.length);
+        digest.update(signature);
+        var bytes = digest.digest(data);
+        var builder = new StringBuilder(bytes.length * 2);
+        for (var value : bytes) {
+            builder.append(HEX_DIGITS[(value >> 4) & 0xf]).append(HEX_DIGITS[value & 0xf]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Looks-up the cached syntax trees with the specified cache key.
+     *
+     * @param key
+     *         the {@link #key(LexicalTable, byte[]) key} of the source file.
+     *
+     * @return the cached {@link AstScript} objects or {@code null} if there was no valid cache entry for the key.
+     */
+    public List<AstScript> lookup(String key) {
+        var arena = lookupArena(key);
+        if (arena == null) {
+            return null;
+        }
+        try {
+            return new AstArenaReader(arena).readAll();
+        } catch (RuntimeException e) {
+            // the entry was a valid arena but its nodes are not laid out as we expect.
+            return null;
+        }
+    }
+
+    /**
+     * Looks-up the cached syntax trees with the specified cache key in their {@link AstArena} form, without turning
+     * them into {@link AstScript} objects.
+     *
+     * @param key
+     *         the {@link #key(LexicalTable, byte[]) key} of the source file.
+     *
+     * @return the cached {@link AstArena} or {@code null} if there was no valid cache entry for the key.
+     */
+    public AstArena lookupArena(String key) {
+        var path = resolve(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (var stream = new BufferedInputStream(Files.newInputStream(path))) {
+            return AstArena.read(stream);
+        } catch (IOException | RuntimeException e) {
+            // a stale or a corrupted entry is treated as a cache miss, it will be overwritten
+            // once the source file is parsed again.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the specified syntax trees in the cache as the trees of the specified cache key. Storing is done on
+     * a best-effort basis, a failure to write the entry, such as a read-only or a full cache directory, only means the
+     * source file will be parsed again next time.
+     *
+     * @param key
+     *         the {@link #key(LexicalTable, byte[]) key} of the source file.
+     * @param scripts
+     *         the parsed syntax trees of the source file.
+     *
+     * @return <code>true</code> if the entry was stored otherwise <code>false</code>.
+     */
+    public boolean store(String key, List<AstScript> scripts) {
+        var arena = new AstArena();
+        var writer = new AstArenaWriter(arena);
+        for (var script : scripts) {
+            writer.write(script);
+        }
+        return store(key, arena);
+    }
+
+    /**
+     * Stores the specified {@link AstArena arena} in the cache as the syntax trees of the specified cache key, the
+     * same way as {@link #store(String, List)} does.
+     *
+     * @param key
+     *         the {@link #key(LexicalTable, byte[]) key} of the source file.
+     * @param arena
+     *         the arena which holds the parsed syntax trees of the source file.
+     *
+     * @return <code>true</code> if the entry was stored otherwise <code>false</code>.
+     */
+    public boolean store(String key, AstArena arena) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            var path = resolve(key);
+            // write into a temporary file first so a concurrent look-up never sees a partially written entry.
+            temporary = Files.createTempFile(directory, null, CACHE_EXTENSION);
+            try (var stream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                arena.write(stream);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    // NOOP
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the path of the cache entry file with the specified cache key.
+     *
+     * @param key
+     *         the cache key of the entry.
+     *
+     * @return the {@link Path} of the cache entry file.
+     */
+    private Path resolve(String key) {
+        return directory.resolve(key + CACHE_EXTENSION);
+    }
+
+    /**
+     * Updates the specified digest with the big-endian bytes of the specified value.
+     *
+     * @param digest
+     *         the digest to update.
+     * @param value
+     *         the value to update the digest with.
+     */
+    private static void update(MessageDigest digest, int value) {
+        digest.update(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+    }
+}
@@ -7,7 +7,6 @@
  */
 package me.waliedyassen.runescript.compiler.codegen;
 
-import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.compiler.ast.AstParameter;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
 import me.waliedyassen.runescript.compiler.ast.expr.*;
@@ -21,24 +20,28 @@ import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatemen
 import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
 import me.waliedyassen.runescript.compiler.codegen.block.Block;
 import me.waliedyassen.runescript.compiler.codegen.block.BlockMap;
+import me.waliedyassen.runescript.compiler.codegen.block.ControlFlowGraph;
 import me.waliedyassen.runescript.compiler.codegen.block.Label;
 import me.waliedyassen.runescript.compiler.codegen.context.Context;
 import me.waliedyassen.runescript.compiler.codegen.context.ContextType;
 import me.waliedyassen.runescript.compiler.codegen.local.Local;
 import me.waliedyassen.runescript.compiler.codegen.local.LocalMap;
 import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
-import me.waliedyassen.runescript.compiler.codegen.opcode.Opcode;
+import me.waliedyassen.runescript.compiler.codegen.script.ConstantPool;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 import me.waliedyassen.runescript.compiler.codegen.sw.SwitchCase;
 import me.waliedyassen.runescript.compiler.codegen.sw.SwitchMap;
+import me.waliedyassen.runescript.compiler.codegen.sw.SwitchStrategy;
 import me.waliedyassen.runescript.compiler.codegen.sw.SwitchTable;
 import me.waliedyassen.runescript.compiler.stack.StackType;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
 import me.waliedyassen.runescript.compiler.symbol.impl.CommandInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableDomain;
+import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableInfo;
 import me.waliedyassen.runescript.compiler.type.Type;
 import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
 import me.waliedyassen.runescript.compiler.type.tuple.TupleType;
+import me.waliedyassen.runescript.compiler.util.Operator;
 import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 
 import java.util.*;
@@ -50,8 +53,7 @@ import static me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode.*;
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
-public final class CodeGenerator implements AstVisitor<Instruction, Object> {
+public final class CodeGenerator implements AstVisitor<Void, Object> {
 
     /**
      * The label generator used to generate any label for this code generator.
@@ -78,15 +80,31 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      */
     private final Stack<Context> contexts = new Stack<>();
 
+    /**
+     * The constant pool of the current script.
+     */
+    private ConstantPool constants = new ConstantPool();
+
     /**
      * The symbol table which has all the information for the current generation.
      */
     private final SymbolTable symbolTable;
 
     /**
-     * The instructions map which contains the primary instruction opcodes.
+     * The compile-time constant folder.
+     */
+    private final ConstantFolder constantFolder;
+
+    /**
+     * Constructs a new {@link CodeGenerator} type object instance.
+     *
+     * @param symbolTable
+     *         the symbol table which has all the information for the generation.
      */
-    private final InstructionMap instructionMap;
+    public CodeGenerator(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        constantFolder = new ConstantFolder(symbolTable);
+    }
 
     /**
      * Initialises the code generator and reset its state.
@@ -97,6 +115,7 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         localMap.reset();
         switchMap.reset();
         contexts.clear();
+        constants = new ConstantPool();
     }
 
     /**
@@ -115,11 +134,6 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         popContext();
         // format the script name to be in the formal format.
         var name = "[" + script.getTrigger().getText() + "," + script.getName().getText() + "]";
-        // put all of the blocks into a sorted map.
-        var blocks = new LinkedHashMap<Label, Block>();
-        for (var block : blockMap.getBlocks()) {
-            blocks.put(block.getLabel(), block);
-        }
         // clone the local variables and parameter maps.
         var parameters = new HashMap<>(localMap.getParameters());
         var variables = new HashMap<>(localMap.getVariables());
@@ -128,10 +142,19 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         for (int id = 0; id < switchMap.getTables().size(); id++) {
             tables.add(switchMap.getTables().get(id));
         }
+        // build the control-flow graph of the blocks in their generation order.
+        var graph = new ControlFlowGraph(tables);
+        for (var block : blockMap.getBlocks()) {
+            graph.add(block);
+        }
+        graph.build();
+        // copy the labels list and grab the constant pool of the script.
+        var labels = new ArrayList<>(labelGenerator.getLabels());
+        var pool = constants;
         // clean-up the junk after code generation is done.
         initialise();
         // return the generated script object.
-        return new Script(name, blocks, parameters, variables, tables);
+        return new Script(name, graph, parameters, variables, tables, pool, labels);
     }
 
     /**
@@ -146,10 +169,10 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         } else if (returnType instanceof TupleType) {
             var flattened = ((TupleType) returnType).getFlattened();
             for (var type : flattened) {
-                instruction(getConstantOpcode(type), type.getDefaultValue());
+                pushConstant(type, type.getDefaultValue());
             }
         } else {
-            instruction(getConstantOpcode(returnType), returnType.getDefaultValue());
+            pushConstant(returnType, returnType.getDefaultValue());
         }
         instruction(RETURN, 0);
     }
@@ -159,132 +182,129 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      */
     @Override
     public Local visit(AstParameter parameter) {
-        return localMap.registerParameter(parameter.getName().getText(), parameter.getType());
+        return localMap.registerParameter(parameter.getVariable());
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstLiteralBool bool) {
-        return instruction(CoreOpcode.PUSH_INT_CONSTANT, bool.getValue() ? 1 : 0);
+    public Void visit(AstLiteralBool bool) {
+        instruction(CoreOpcode.PUSH_INT_CONSTANT, bool.getValue() ? 1 : 0);
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstLiteralInteger integer) {
-        return instruction(CoreOpcode.PUSH_INT_CONSTANT, integer.getValue());
+    public Void visit(AstLiteralInteger integer) {
+        instruction(CoreOpcode.PUSH_INT_CONSTANT, integer.getValue());
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstLiteralLong longInteger) {
-        return instruction(CoreOpcode.PUSH_LONG_CONSTANT, longInteger.getValue());
+    public Void visit(AstLiteralLong longInteger) {
+        instruction(CoreOpcode.PUSH_LONG_CONSTANT, constants.addLong(longInteger.getValue()));
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstLiteralString string) {
-        return instruction(CoreOpcode.PUSH_STRING_CONSTANT, string.getValue());
+    public Void visit(AstLiteralString string) {
+        instruction(CoreOpcode.PUSH_STRING_CONSTANT, constants.addString(string.getValue()));
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstConcatenation concatenation) {
+    public Void visit(AstConcatenation concatenation) {
+        var folded = constantFolder.fold(concatenation);
+        if (folded != null) {
+            instruction(CoreOpcode.PUSH_STRING_CONSTANT, constants.addString((String) folded));
+            return null;
+        }
         for (var expression : concatenation.getExpressions()) {
             expression.accept(this);
         }
-        return instruction(CoreOpcode.JOIN_STRING, concatenation.getExpressions().length);
+        instruction(CoreOpcode.JOIN_STRING, concatenation.getExpressions().length);
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstVariableExpression variableExpression) {
+    public Void visit(AstVariableExpression variableExpression) {
         var variable = variableExpression.getVariable();
-        if (variable.getDomain() == VariableDomain.LOCAL) {
-            var local = localMap.lookup(variable.getName());
-            return instruction(getPushVariableOpcode(variable.getDomain(), variable.getType()), local);
-        } else {
-            return instruction(getPushVariableOpcode(variable.getDomain(), variable.getType()), variable);
-        }
+        instruction(getPushVariableOpcode(variable.getDomain(), variable.getType()), encodeVariable(variable));
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstArrayExpression arrayExpression) {
+    public Void visit(AstArrayExpression arrayExpression) {
         arrayExpression.getIndex().accept(this);
-        return instruction(PUSH_ARRAY_INT, arrayExpression.getArray().getIndex());
+        instruction(PUSH_ARRAY_INT, arrayExpression.getArray().getIndex());
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstGosub gosub) {
+    public Void visit(AstGosub gosub) {
         for (var argument : gosub.getArguments()) {
             argument.accept(this);
         }
         var script = symbolTable.lookupScript(TriggerType.PROC, gosub.getName().getText());
-        return instruction(CoreOpcode.GOSUB_WITH_PARAMS, script);
+        instruction(CoreOpcode.GOSUB_WITH_PARAMS, constants.addReference(script));
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstDynamic dynamic) {
+    public Void visit(AstDynamic dynamic) {
         var name = dynamic.getName().getText();
         var commandInfo = symbolTable.lookupCommand(name);
         if (commandInfo != null) {
-            return generateCommand(commandInfo);
+            generateCommand(commandInfo);
         } else {
             var configInfo = symbolTable.lookupConfig(name);
-            return instruction(PUSH_INT_CONSTANT, configInfo.getId());
+            instruction(PUSH_INT_CONSTANT, configInfo.getId());
         }
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
-    public Instruction visit(AstConstant constant) {
+    public Void visit(AstConstant constant) {
         var symbol = symbolTable.lookupConstant(constant.getName().getText());
-        CoreOpcode opcode;
-        switch (symbol.getType().getStackType()) {
-            case INT:
-                opcode = CoreOpcode.PUSH_INT_CONSTANT;
-                break;
-            case STRING:
-                opcode = CoreOpcode.PUSH_STRING_CONSTANT;
-                break;
-            case LONG:
-                opcode = CoreOpcode.PUSH_LONG_CONSTANT;
-                break;
-            default:
-                throw new UnsupportedOperationException("Unsupported constant base stack type: " + symbol.getType().getStackType());
-        }
-        return instruction(opcode, symbol.getValue());
+        pushConstant(symbol.getType(), symbol.getValue());
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
-    public Instruction visit(AstCommand command) {
+    public Void visit(AstCommand command) {
         for (var argument : command.getArguments()) {
             argument.accept(this);
         }
-        return generateCommand(symbolTable.lookupCommand(command.getName().getText()));
+        generateCommand(symbolTable.lookupCommand(command.getName().getText()));
+        return null;
     }
 
     /**
@@ -292,18 +312,17 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      *
      * @param info
      *         the command info to generate the instruction(s) set for.
-     *
-     * @return the last generated {@link Instruction} object.
      */
-    private Instruction generateCommand(CommandInfo info) {
-        return instruction(info.getOpcode(), info.isAlternative() ? 1 : 0);
+    private void generateCommand(CommandInfo info) {
+        var opcode = InstructionUtil.encodeCommand(constants.addOpcode(info.getOpcode()));
+        context().getBlock().add(opcode, info.isAlternative() ? 1 : 0);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstBinaryOperation binaryOperation) {
+    public Void visit(AstBinaryOperation binaryOperation) {
         throw new UnsupportedOperationException("You should not be doing this.");
     }
 
@@ -311,37 +330,38 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstVariableDeclaration variableDeclaration) {
+    public Void visit(AstVariableDeclaration variableDeclaration) {
         if (variableDeclaration.getExpression() != null) {
             variableDeclaration.getExpression().accept(this);
         } else {
-            var opcode = getConstantOpcode(variableDeclaration.getType());
-            instruction(opcode, variableDeclaration.getType().getDefaultValue());
+            pushConstant(variableDeclaration.getType(), variableDeclaration.getType().getDefaultValue());
         }
         var variable = variableDeclaration.getVariable();
-        var local = localMap.registerVariable(variable.getName(), variable.getType());
-        return instruction(getPopVariableOpcode(variable.getDomain(), variable.getType()), local);
+        var local = localMap.registerVariable(variable);
+        instruction(getPopVariableOpcode(variable.getDomain(), variable.getType()), local.getIndex());
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstArrayDeclaration arrayDeclaration) {
+    public Void visit(AstArrayDeclaration arrayDeclaration) {
         arrayDeclaration.getSize().accept(this);
         var array = arrayDeclaration.getArray();
-        return instruction(DEFINE_ARRAY, (array.getIndex() << 16) | array.getType().getCode());
+        instruction(DEFINE_ARRAY, (array.getIndex() << 16) | array.getType().getCode());
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Instruction visit(AstVariableInitializer variableInitializer) {
+    public Void visit(AstVariableInitializer variableInitializer) {
         variableInitializer.getExpression().accept(this);
         var variable = variableInitializer.getVariable();
-        var local = variable.getDomain() == VariableDomain.LOCAL ? localMap.lookup(variable.getName()) : variable;
-        return instruction(getPopVariableOpcode(variable.getDomain(), variable.getType()), local);
+        instruction(getPopVariableOpcode(variable.getDomain(), variable.getType()), encodeVariable(variable));
+        return null;
     }
 
     /**
@@ -351,7 +371,8 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
     public Object visit(AstArrayInitializer arrayInitializer) {
         arrayInitializer.getValue().accept(this);
         arrayInitializer.getIndex().accept(this);
-        return instruction(POP_ARRAY_INT, arrayInitializer.getArray().getIndex());
+        instruction(POP_ARRAY_INT, arrayInitializer.getArray().getIndex());
+        return null;
     }
 
     /**
@@ -363,14 +384,35 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         var case_nodes = switchStatement.getCases();
         // create the switch cases.
         var cases = new SwitchCase[case_nodes.length];
-        // generate a new switch table from the switch map.
-        var switch_table = switchMap.generateTable(cases);
-        // generate the switch condition code.
-        switchStatement.getCondition().accept(this);
+        for (var index = 0; index < case_nodes.length; index++) {
+            cases[index] = new SwitchCase(case_nodes[index].getResolvedKeys(), null);
+        }
+        // generate the switch dispatch code and grab the name prefix of the labels.
+        String prefix;
+        if (SwitchStrategy.select(cases) == SwitchStrategy.COMPARE_CHAIN && isLocalVariable(switchStatement.getCondition())) {
+            prefix = "switch_chain";
+            for (var switch_case : cases) {
+                switch_case.setLabel(generateLabel(prefix + "_case"));
+                for (var key : switch_case.getKeys()) {
+                    switchStatement.getCondition().accept(this);
+                    instruction(PUSH_INT_CONSTANT, key);
+                    instruction(BRANCH_EQUALS, switch_case.getLabel());
+                }
+            }
+        } else {
+            // generate a new switch table from the switch map.
+            var switch_table = switchMap.generateTable(cases);
+            prefix = "switch_" + switch_table.getId();
+            for (var switch_case : cases) {
+                switch_case.setLabel(generateLabel(prefix + "_case"));
+            }
+            // generate the switch condition code.
+            switchStatement.getCondition().accept(this);
+            // generate the switch table instruction.
+            instruction(SWITCH, switch_table.getId());
+        }
         // create the exit block label.
-        var exit_label = generateLabel("switch_" + switch_table.getId() + "_exit");
-        // generate the switch table instruction.
-        instruction(SWITCH, switch_table);
+        var exit_label = generateLabel(prefix + "_exit");
         // generate the switch default case if it was present.
         if (switchStatement.getDefaultCase() != null) {
             switchStatement.getDefaultCase().getCode().accept(this);
@@ -379,11 +421,9 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         instruction(BRANCH, exit_label);
         // loop through each switch case and perform code generation on it.
         for (var index = 0; index < case_nodes.length; index++) {
-            var case_node = case_nodes[index];
-            var case_entry = cases[index] = new SwitchCase(case_node.getResolvedKeys(), generateLabel("switch_" + switch_table.getId() + "_case"));
             // perform the code generation on the case.
-            bind(generateBlock(case_entry.getLabel()));
-            case_node.getCode().accept(this);
+            bind(generateBlock(cases[index].getLabel()));
+            case_nodes[index].getCode().accept(this);
             // add a branch to the exit label.
             instruction(BRANCH, exit_label);
         }
@@ -403,10 +443,8 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         var if_end_label = labelGenerator.generate("if_end");
         // store whether we have an else statement or not.
         var has_else = ifStatement.getFalseStatement() != null;
-        // grab the parent block of the if statement.
-        var source_block = context().getBlock();
         // generate the condition of the if statement.
-        generateCondition(ifStatement.getCondition(), source_block, if_true_label, has_else ? if_else_label : if_end_label);
+        generateCondition(ifStatement.getCondition(), if_true_label, has_else ? if_else_label : if_end_label);
         // generate the if-true block of the statement
         bind(generateBlock(if_true_label));
         ifStatement.getTrueStatement().accept(this);
@@ -430,86 +468,76 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
     @Override
     public Void visit(AstWhileStatement whileStatement) {
         // preserve the labels of this while statement for the number order.
-        var while_start_label = labelGenerator.generate("while_start");
         var while_true_label = labelGenerator.generate("while_true");
+        var while_condition_label = labelGenerator.generate("while_condition");
         var while_end_label = labelGenerator.generate("while_end");
-        // add a branch to the start block of the while.
-        instruction(BRANCH, while_start_label);
-        // generate the start block of the while statement.
-        var start_block = bind(generateBlock(while_start_label));
-        // generate the while statement condition.
-        generateCondition(whileStatement.getCondition(), start_block, while_true_label, while_end_label);
+        // the loop is rotated so the condition is tested at the bottom of the loop, which leaves
+        // a single conditional back-edge per iteration, the guard makes sure the first iteration
+        // only runs if the condition is met.
+        generateCondition(whileStatement.getCondition(), while_true_label, while_end_label);
         // generate the while statement code.
         bind(generateBlock(while_true_label));
         whileStatement.getCode().accept(this);
-        // generate the while statement jump to start instruction.
-        instruction(BRANCH, while_start_label);
+        // generate the bottom condition which the code falls through into.
+        bind(generateBlock(while_condition_label));
+        generateCondition(whileStatement.getCondition(), while_true_label, null);
         // generate the while end label.
         bind(generateBlock(while_end_label));
         return null;
     }
 
     /**
-     * Performs code generation on the specified {@code condition} expression and returns it's associated {@link
-     * CoreOpcode opcode}.
+     * Performs code generation on the specified {@code condition} expression within the current block. The generated
+     * code jumps to the if-true label when the condition is met, otherwise it jumps to the if-false label or continues
+     * into the code that is generated after the condition if there was no if-false label.
      *
      * @param condition
      *         the condition expression to perform the code generation on.
-     * @param source_block
-     *         the source block of the condition.
      * @param branch_true
      *         the if-true block label.
      * @param branch_false
-     *         the if-false block label.
-     *
-     * @return the {@link CoreOpcode} of the generated condition code.
-     */
-    private void generateCondition(AstExpression condition, Block source_block, Label branch_true, Label branch_false) {
+     *         the if-false block label, or {@code null} to fall through when the condition is not met.
+     */
+    private void generateCondition(AstExpression condition, Label branch_true, Label branch_false) {
+        var folded = constantFolder.foldCondition(condition);
+        if (folded != null) {
+            // the condition is known at compile-time, jump straight to the taken branch and leave
+            // the other branch without any references so it can be removed by the optimizer.
+            if (folded) {
+                instruction(BRANCH, branch_true);
+            } else if (branch_false != null) {
+                instruction(BRANCH, branch_false);
+            }
+            return;
+        }
         if (condition instanceof AstBinaryOperation) {
             var binaryOperation = (AstBinaryOperation) condition;
             var operator = binaryOperation.getOperator();
             if (operator.isEquality() || operator.isRelational()) {
-                CoreOpcode opcode;
-                switch (operator) {
-                    case EQUAL:
-                        opcode = CoreOpcode.BRANCH_EQUALS;
-                        break;
-                    case LESS_THAN:
-                        opcode = CoreOpcode.BRANCH_LESS_THAN;
-                        break;
-                    case GREATER_THAN:
-                        opcode = CoreOpcode.BRANCH_GREATER_THAN;
-                        break;
-                    case LESS_THAN_OR_EQUALS:
-                        opcode = CoreOpcode.BRANCH_LESS_THAN_OR_EQUALS;
-                        break;
-                    case GREATER_THAN_OR_EQUALS:
-                        opcode = CoreOpcode.BRANCH_GREATER_THAN_OR_EQUALS;
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("Unexpected operator: " + operator);
-                }
+                var opcode = getBranchOpcode(operator, binaryOperation.getLeft().getType().getStackType());
                 binaryOperation.getLeft().accept(this);
                 binaryOperation.getRight().accept(this);
-                instruction(source_block, opcode, branch_true);
+                instruction(opcode, branch_true);
                 if (branch_false != null) {
-                    instruction(source_block, BRANCH, branch_false);
+                    instruction(BRANCH, branch_false);
                 }
             } else if (operator.isLogical()) {
                 switch (operator) {
                     case LOGICAL_OR:
-                        generateCondition(binaryOperation.getLeft(), source_block, branch_true, null);
-                        bind(source_block);
-                        generateCondition(binaryOperation.getRight(), source_block, branch_true, null);
-                        if (branch_false != null) {
-                            instruction(source_block, BRANCH, branch_false);
-                        }
+                        generateCondition(binaryOperation.getLeft(), branch_true, null);
+                        generateCondition(binaryOperation.getRight(), branch_true, branch_false);
                         break;
                     case LOGICAL_AND:
                         var if_and_label = labelGenerator.generate("if_and");
-                        generateCondition(binaryOperation.getLeft(), source_block, if_and_label, branch_false);
-                        var if_and_block = bind(generateBlock(if_and_label));
-                        generateCondition(binaryOperation.getRight(), if_and_block, branch_true, branch_false);
+                        // the left side must jump over the right side when it is not met, so we need
+                        // a label to jump to if the whole condition falls through.
+                        var if_and_false_label = branch_false == null ? labelGenerator.generate("if_and_false") : branch_false;
+                        generateCondition(binaryOperation.getLeft(), if_and_label, if_and_false_label);
+                        bind(generateBlock(if_and_label));
+                        generateCondition(binaryOperation.getRight(), branch_true, branch_false);
+                        if (branch_false == null) {
+                            bind(generateBlock(if_and_false_label));
+                        }
                         break;
                     default:
                         throw new UnsupportedOperationException("Unexpected operator: " + operator);
@@ -519,9 +547,9 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
             }
         } else {
             condition.accept(this);
-            instruction(source_block, BRANCH_IF_TRUE, branch_true);
+            instruction(BRANCH_IF_TRUE, branch_true);
             if (branch_false != null) {
-                instruction(source_block, BRANCH, branch_false);
+                instruction(BRANCH, branch_false);
             }
         }
     }
@@ -627,87 +655,113 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
     }
 
     /**
-     * Creates a new {@link Instruction instruction} with the specified {@link CoreOpcode opcode} and the specified
-     * {@code operand}. The {@link CoreOpcode opcode} will be remapped to a suitable regular {@link Opcode} instance
-     * then passed to {@link #makeInstruction(Opcode, Object)} and then it gets added to the current active block in the
-     * {@link #blockMap block map}.
+     * Adds a new instruction with the specified {@link CoreOpcode opcode} and the specified {@code operand} to the
+     * current active block.
      *
      * @param opcode
      *         the opcode of the instruction.
      * @param operand
-     *         the operand of the instruction.
-     *
-     * @return the created {@link Instruction} object.
+     *         the encoded operand of the instruction.
      */
-    private Instruction instruction(CoreOpcode opcode, Object operand) {
-        return instruction(context().getBlock(), opcode, operand);
+    private void instruction(CoreOpcode opcode, int operand) {
+        instruction(context().getBlock(), opcode, operand);
     }
 
     /**
-     * Creates a new {@link Instruction instruction} with the specified {@link CoreOpcode opcode} and the specified
-     * {@code operand}. The {@link CoreOpcode opcode} will be remapped to a suitable regular {@link Opcode} instance
-     * then passed to {@link #makeInstruction(Opcode, Object)} and then it gets added to the current active block in the
-     * {@link #blockMap block map}.
+     * Adds a new instruction with the specified {@link CoreOpcode opcode} and the specified {@code operand} to the
+     * specified {@link Block block}.
      *
      * @param block
      *         the block to add the instruction to.
      * @param opcode
      *         the opcode of the instruction.
      * @param operand
-     *         the operand of the instruction.
-     *
-     * @return the created {@link Instruction} object.
+     *         the encoded operand of the instruction.
      */
-    private Instruction instruction(Block block, CoreOpcode opcode, Object operand) {
-        return instruction(block, instructionMap.lookup(opcode), operand);
+    private void instruction(Block block, CoreOpcode opcode, int operand) {
+        block.add(InstructionUtil.encode(opcode), operand);
     }
 
     /**
-     * Creates a new {@link Instruction instruction} using {@link #makeInstruction(Opcode, Object)} and then adds it as
-     * a child instruction to the current active block in the {@link #blockMap block map}.
+     * Adds a new branch instruction with the specified {@link CoreOpcode opcode} and the specified target {@link Label
+     * label} to the current active block.
      *
      * @param opcode
      *         the opcode of the instruction.
-     * @param operand
-     *         the operand of the instruction.
-     *
-     * @return the created {@link Instruction} object.
+     * @param label
+     *         the target label of the branch.
      */
-    private Instruction instruction(Opcode opcode, Object operand) {
-        return instruction(context().getBlock(), opcode, operand);
+    private void instruction(CoreOpcode opcode, Label label) {
+        instruction(context().getBlock(), opcode, label);
     }
 
     /**
-     * Creates a new {@link Instruction instruction} using {@link #makeInstruction(Opcode, Object)} and then adds it as
-     * a child instruction to the current active block in the {@link #blockMap block map}.
+     * Adds a new branch instruction with the specified {@link CoreOpcode opcode} and the specified target {@link Label
+     * label} to the specified {@link Block block}.
      *
      * @param block
      *         the block to add the instruction to.
      * @param opcode
      *         the opcode of the instruction.
-     * @param operand
-     *         the operand of the instruction.
+     * @param label
+     *         the target label of the branch.
+     */
+    private void instruction(Block block, CoreOpcode opcode, Label label) {
+        instruction(block, opcode, label.getId());
+    }
+
+    /**
+     * Adds a new push constant instruction for the specified {@code value} of the specified {@link Type type} to the
+     * current active block.
      *
-     * @return the created {@link Instruction} object.
+     * @param type
+     *         the type of the constant value.
+     * @param value
+     *         the constant value to push.
      */
-    private Instruction instruction(Block block, Opcode opcode, Object operand) {
-        var instruction = makeInstruction(opcode, operand);
-        block.add(instruction);
-        return instruction;
+    private void pushConstant(Type type, Object value) {
+        switch (type.getStackType()) {
+            case INT:
+                instruction(PUSH_INT_CONSTANT, value instanceof Boolean ? (Boolean) value ? 1 : 0 : (Integer) value);
+                break;
+            case STRING:
+                instruction(PUSH_STRING_CONSTANT, constants.addString((String) value));
+                break;
+            case LONG:
+                instruction(PUSH_LONG_CONSTANT, constants.addLong((Long) value));
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported stack type: " + type.getStackType());
+        }
     }
 
     /**
-     * Creates a new {@link Instruction} object without linking it to any block.
+     * Encodes the operand of the specified {@link VariableInfo variable}, local variables are encoded as their slot
+     * index while any other variable is stored in the constant pool of the script.
      *
-     * @param opcode
-     *         the opcode of the instruction.
-     * @param operand
-     *         the operand of the instruction.
+     * @param variable
+     *         the variable to encode.
      *
-     * @return the created {@link Instruction} object.
+     * @return the encoded operand of the variable.
      */
-    private Instruction makeInstruction(Opcode opcode, Object operand) {
-        return new Instruction(opcode, operand);
+    private int encodeVariable(VariableInfo variable) {
+        if (variable.getDomain() == VariableDomain.LOCAL) {
+            return localMap.lookup(variable).getIndex();
+        }
+        return constants.addReference(variable);
+    }
+
+    /**
+     * Checks whether or not the specified {@link AstExpression expression} is a local variable expression, which can
+     * be evaluated more than once without any side effects.
+     *
+     * @param expression
+     *         the expression to check.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    private static boolean isLocalVariable(AstExpression expression) {
+        return expression instanceof AstVariableExpression && ((AstVariableExpression) expression).getVariable().getDomain() == VariableDomain.LOCAL;
     }
 
     /**
@@ -794,6 +848,37 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         return contexts.pop();
     }
 
+    /**
+     * Gets the conditional branch instruction {@link CoreOpcode opcode} of the specified comparison {@link Operator
+     * operator}.
+     *
+     * @param operator
+     *         the equality or relational operator.
+     * @param stackType
+     *         the stack type of the compared operands.
+     *
+     * @return the instruction {@link CoreOpcode opcode} of that operator.
+     */
+    private static CoreOpcode getBranchOpcode(Operator operator, StackType stackType) {
+        var isLong = stackType == StackType.LONG;
+        switch (operator) {
+            case EQUAL:
+                return isLong ? CoreOpcode.LONG_BRANCH_EQUALS : CoreOpcode.BRANCH_EQUALS;
+            case NOT_EQUAL:
+                return isLong ? CoreOpcode.LONG_BRANCH_NOT : CoreOpcode.BRANCH_NOT;
+            case LESS_THAN:
+                return isLong ? CoreOpcode.LONG_BRANCH_LESS_THAN : CoreOpcode.BRANCH_LESS_THAN;
+            case GREATER_THAN:
+                return isLong ? CoreOpcode.LONG_BRANCH_GREATER_THAN : CoreOpcode.BRANCH_GREATER_THAN;
+            case LESS_THAN_OR_EQUALS:
+                return isLong ? CoreOpcode.LONG_BRANCH_LESS_THAN_OR_EQUALS : CoreOpcode.BRANCH_LESS_THAN_OR_EQUALS;
+            case GREATER_THAN_OR_EQUALS:
+                return isLong ? CoreOpcode.LONG_BRANCH_GREATER_THAN_OR_EQUALS : CoreOpcode.BRANCH_GREATER_THAN_OR_EQUALS;
+            default:
+                throw new UnsupportedOperationException("Unexpected operator: " + operator);
+        }
+    }
+
     /**
      * Gets the push variable instruction {@link CoreOpcode opcode} of the specified {@link VariableDomain} and the
      * specified {@link Type}.
@@ -868,25 +953,4 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
                 throw new UnsupportedOperationException("Unsupported variable domain: " + domain);
         }
     }
-
-    /**
-     * Gets the instruction {@link CoreOpcode} of the specified constant {@link Type}.
-     *
-     * @param type
-     *         the type of the constant.
-     *
-     * @return the instruction {@link CoreOpcode opcode} of that constant type.
-     */
-    private static CoreOpcode getConstantOpcode(Type type) {
-        switch (type.getStackType()) {
-            case INT:
-                return CoreOpcode.PUSH_INT_CONSTANT;
-            case STRING:
-                return CoreOpcode.PUSH_STRING_CONSTANT;
-            case LONG:
-                return CoreOpcode.PUSH_LONG_CONSTANT;
-            default:
-                throw new UnsupportedOperationException("Unsupported stack type: " + type.getStackType());
-        }
-    }
 }
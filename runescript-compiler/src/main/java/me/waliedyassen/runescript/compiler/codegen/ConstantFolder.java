@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.ast.expr.AstBinaryOperation;
+import me.waliedyassen.runescript.compiler.ast.expr.AstConcatenation;
+import me.waliedyassen.runescript.compiler.ast.expr.AstConstant;
+import me.waliedyassen.runescript.compiler.ast.expr.AstExpression;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+
+/**
+ * Represents the compile-time constant folder of the code generator. It evaluates the expressions which only depend on
+ * literals and constants, so the code generator can emit their value directly instead of the code which computes it.
+ * <p>
+ * The folded values use the same representation as the instruction operands, which means boolean values are folded
+ * into an {@link Integer} of either {@code 1} or {@code 0}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class ConstantFolder {
+
+    /**
+     * The symbol table which we resolve the constants from.
+     */
+    private final SymbolTable symbolTable;
+
+    /**
+     * Attempts to fold the specified {@link AstExpression expression} into a compile-time constant value.
+     *
+     * @param expression
+     *         the expression to fold.
+     *
+     * @return the folded value or {@code null} if the expression is not a compile-time constant.
+     */
+    public Object fold(AstExpression expression) {
+        if (expression instanceof AstLiteralBool) {
+            return ((AstLiteralBool) expression).getValue() ? 1 : 0;
+        } else if (expression instanceof AstLiteralInteger) {
+            return ((AstLiteralInteger) expression).getValue();
+        } else if (expression instanceof AstLiteralLong) {
+            return ((AstLiteralLong) expression).getValue();
+        } else if (expression instanceof AstLiteralString) {
+            return ((AstLiteralString) expression).getValue();
+        } else if (expression instanceof AstConstant) {
+            var symbol = symbolTable.lookupConstant(((AstConstant) expression).getName().getText());
+            return symbol == null ? null : symbol.getValue();
+        } else if (expression instanceof AstConcatenation) {
+            return foldConcatenation((AstConcatenation) expression);
+        } else if (expression instanceof AstBinaryOperation) {
+            return foldBinaryOperation((AstBinaryOperation) expression);
+        }
+        return null;
+    }
+
+    /**
+     * Attempts to fold the specified {@link AstExpression condition} into a compile-time constant boolean value.
+     *
+     * @param condition
+     *         the condition expression to fold.
+     *
+     * @return the folded boolean value or {@code null} if the condition is not a compile-time constant.
+     */
+    public Boolean foldCondition(AstExpression condition) {
+        var value = fold(condition);
+        if (value instanceof Integer) {
+            return (Integer) value != 0;
+        }
+        return null;
+    }
+
+    /**
+     * Attempts to fold the specified {@link AstConcatenation concatenation} into a single string.
+     *
+     * @param concatenation
+     *         the concatenation to fold.
+     *
+     * @return the folded string or {@code null} if any of the parts is not a compile-time constant.
+     */
+    private String foldConcatenation(AstConcatenation concatenation) {
+        var builder = new StringBuilder();
+        for (var expression : concatenation.getExpressions()) {
+            var value = fold(expression);
+            if (!(value instanceof String)) {
+                return null;
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Attempts to fold the specified {@link AstBinaryOperation binary operation} into a boolean value.
+     *
+     * @param binaryOperation
+     *         the binary operation to fold.
+     *
+     * @return the folded boolean value as an {@link Integer} or {@code null} if the operation could not be folded.
+     */
+    private Integer foldBinaryOperation(AstBinaryOperation binaryOperation) {
+        var operator = binaryOperation.getOperator();
+        if (operator.isLogical()) {
+            // the right hand side is never evaluated if the left hand side decides the
+            // result, so the result is constant even if the right hand side is not.
+            var left = foldCondition(binaryOperation.getLeft());
+            if (left == null) {
+                return null;
+            }
+            switch (operator) {
+                case LOGICAL_OR:
+                    if (left) {
+                        return 1;
+                    }
+                    break;
+                case LOGICAL_AND:
+                    if (!left) {
+                        return 0;
+                    }
+                    break;
+                default:
+                    return null;
+            }
+            var right = foldCondition(binaryOperation.getRight());
+            return right == null ? null : right ? 1 : 0;
+        }
+        var left = fold(binaryOperation.getLeft());
+        var right = fold(binaryOperation.getRight());
+        if (left == null || right == null || left.getClass() != right.getClass()) {
+            return null;
+        }
+        boolean result;
+        switch (operator) {
+            case EQUAL:
+                result = left.equals(right);
+                break;
+            case NOT_EQUAL:
+                result = !left.equals(right);
+                break;
+            case LESS_THAN:
+            case GREATER_THAN:
+            case LESS_THAN_OR_EQUALS:
+            case GREATER_THAN_OR_EQUALS:
+                if (!(left instanceof Integer || left instanceof Long)) {
+                    return null;
+                }
+                var compare = Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+                switch (operator) {
+                    case LESS_THAN:
+                        result = compare < 0;
+                        break;
+                    case GREATER_THAN:
+                        result = compare > 0;
+                        break;
+                    case LESS_THAN_OR_EQUALS:
+                        result = compare <= 0;
+                        break;
+                    default:
+                        result = compare >= 0;
+                        break;
+                }
+                break;
+            default:
+                return null;
+        }
+        return result ? 1 : 0;
+    }
+}
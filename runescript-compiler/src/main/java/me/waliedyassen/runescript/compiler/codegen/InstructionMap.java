@@ -31,14 +31,14 @@ public final class InstructionMap {
     private final EnumMap<CoreOpcode, MappedOpcode> coreMap = new EnumMap<>(CoreOpcode.class);
 
     /**
-     * Checks whether or not this instruction map is ready. A ready state means all of the core opcodes are registered
-     * and ready to be used.
+     * Checks whether or not this instruction map is ready. A ready state means all of the core opcodes which are not
+     * {@link CoreOpcode#isOptional() optional} are registered and ready to be used.
      *
      * @return <code>true</code> if the map is ready otherwise <code>false</code>.
      */
     public boolean isReady() {
         for (var opcode : CoreOpcode.values()) {
-            if (!coreMap.containsKey(opcode)) {
+            if (!opcode.isOptional() && !coreMap.containsKey(opcode)) {
                 return false;
             }
         }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.opcode.OperandType;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+
+/**
+ * Contains various utilities for the integer encoded instructions.
+ * <p>
+ * Each instruction is encoded as two integers, an opcode and an operand. A non-negative opcode is the ordinal of a
+ * {@link CoreOpcode}, while a negative opcode is the complement of an index in the opcodes table of the script {@link
+ * me.waliedyassen.runescript.compiler.codegen.script.ConstantPool constant pool}. The operand is decoded according to
+ * the {@link OperandType} of the opcode.
+ *
+ * @author Walied K. Yassen
+ */
+public final class InstructionUtil {
+
+    /**
+     * The cached values of the core opcodes.
+     */
+    private static final CoreOpcode[] CORE_OPCODES = CoreOpcode.values();
+
+    /**
+     * Encodes the specified {@link CoreOpcode} into an instruction opcode.
+     *
+     * @param opcode
+     *         the core opcode to encode.
+     *
+     * @return the encoded instruction opcode.
+     */
+    public static int encode(CoreOpcode opcode) {
+        return opcode.ordinal();
+    }
+
+    /**
+     * Encodes the specified non-core opcode index into an instruction opcode.
+     *
+     * @param index
+     *         the index of the opcode within the constant pool.
+     *
+     * @return the encoded instruction opcode.
+     */
+    public static int encodeCommand(int index) {
+        return ~index;
+    }
+
+    /**
+     * Decodes the constant pool index of the specified non-core instruction opcode.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return the index of the opcode within the constant pool.
+     */
+    public static int decodeCommand(int opcode) {
+        return ~opcode;
+    }
+
+    /**
+     * Checks whether or not the specified instruction opcode is a core opcode.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public static boolean isCore(int opcode) {
+        return opcode >= 0;
+    }
+
+    /**
+     * Decodes the {@link CoreOpcode} of the specified instruction opcode.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return the decoded {@link CoreOpcode} or {@code null} if the opcode is not a core opcode.
+     */
+    public static CoreOpcode getCoreOpcode(int opcode) {
+        return opcode >= 0 ? CORE_OPCODES[opcode] : null;
+    }
+
+    /**
+     * Checks whether or not the specified instruction opcode is the specified {@link CoreOpcode}.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     * @param core
+     *         the core opcode to check against.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public static boolean is(int opcode, CoreOpcode core) {
+        return opcode == core.ordinal();
+    }
+
+    /**
+     * Gets the {@link OperandType} of the specified instruction opcode.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return the {@link OperandType} of the opcode.
+     */
+    public static OperandType getOperandType(int opcode) {
+        return opcode >= 0 ? CORE_OPCODES[opcode].getOperandType() : OperandType.INT;
+    }
+
+    /**
+     * Checks whether or not the specified instruction opcode unconditionally transfers the control out of its block.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    public static boolean isTerminator(int opcode) {
+        return opcode == CoreOpcode.BRANCH.ordinal() || opcode == CoreOpcode.RETURN.ordinal();
+    }
+
+    /**
+     * Gets the {@link StackType} of the local variable which the specified instruction opcode loads or stores.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return the {@link StackType} of the local variable or {@code null} if the opcode is not a local opcode.
+     */
+    public static StackType getLocalStackType(int opcode) {
+        if (opcode < 0) {
+            return null;
+        }
+        switch (CORE_OPCODES[opcode]) {
+            case PUSH_INT_LOCAL:
+            case POP_INT_LOCAL:
+                return StackType.INT;
+            case PUSH_STRING_LOCAL:
+            case POP_STRING_LOCAL:
+                return StackType.STRING;
+            case PUSH_LONG_LOCAL:
+            case POP_LONG_LOCAL:
+                return StackType.LONG;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Checks whether or not the specified instruction opcode stores into a local variable.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    public static boolean isLocalStore(int opcode) {
+        if (opcode < 0) {
+            return false;
+        }
+        switch (CORE_OPCODES[opcode]) {
+            case POP_INT_LOCAL:
+            case POP_STRING_LOCAL:
+            case POP_LONG_LOCAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether or not the specified instruction opcode loads from a local variable.
+     *
+     * @param opcode
+     *         the encoded instruction opcode.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    public static boolean isLocalLoad(int opcode) {
+        if (opcode < 0) {
+            return false;
+        }
+        switch (CORE_OPCODES[opcode]) {
+            case PUSH_INT_LOCAL:
+            case PUSH_STRING_LOCAL:
+            case PUSH_LONG_LOCAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Creates a textual representation of the specified instruction.
+     *
+     * @param script
+     *         the script which the instruction is located in.
+     * @param opcode
+     *         the encoded instruction opcode.
+     * @param operand
+     *         the encoded instruction operand.
+     *
+     * @return the textual representation of the instruction.
+     */
+    public static String toString(Script script, int opcode, int operand) {
+        var name = isCore(opcode) ? getCoreOpcode(opcode).name() : script.getConstants().getOpcode(decodeCommand(opcode)).toString();
+        switch (getOperandType(opcode)) {
+            case STRING:
+                return name + "\t\"" + script.getConstants().getString(operand) + "\"";
+            case LONG:
+                return name + "\t" + script.getConstants().getLong(operand);
+            case LABEL:
+                return name + "\t" + script.getLabel(operand);
+            case LOCAL:
+                return name + "\t$" + operand;
+            case SWITCH:
+                return name + "\tswitch_" + operand;
+            case REFERENCE:
+                return name + "\t" + script.getConstants().getReference(operand);
+            default:
+                return name + "\t" + operand;
+        }
+    }
+
+    private InstructionUtil() {
+        // NOOP
+    }
+}
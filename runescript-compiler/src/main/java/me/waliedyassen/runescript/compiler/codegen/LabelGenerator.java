@@ -7,9 +7,12 @@
  */
 package me.waliedyassen.runescript.compiler.codegen;
 
+import lombok.Getter;
 import me.waliedyassen.runescript.compiler.codegen.block.Label;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,9 +29,10 @@ public final class LabelGenerator {
     private final Map<String, AtomicInteger> counters = new HashMap<>();
 
     /**
-     * The unique shared counter.
+     * The generated labels ordered by their id.
      */
-    private final AtomicInteger shared = new AtomicInteger();
+    @Getter
+    private final List<Label> labels = new ArrayList<>();
 
     /**
      * Generates a new unique {@link Label} object.
@@ -43,7 +47,9 @@ public final class LabelGenerator {
         if (counter == null) {
             counters.put(name, counter = new AtomicInteger());
         }
-        return new Label(shared.getAndIncrement(), name + "_" + counter.getAndIncrement());
+        var label = new Label(labels.size(), name + "_" + counter.getAndIncrement());
+        labels.add(label);
+        return label;
     }
 
     /**
@@ -51,6 +57,6 @@ public final class LabelGenerator {
      */
     public void reset() {
         counters.clear();
-        shared.set(0);
+        labels.clear();
     }
 }
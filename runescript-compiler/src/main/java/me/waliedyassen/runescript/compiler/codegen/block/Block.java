@@ -9,19 +9,26 @@ package me.waliedyassen.runescript.compiler.codegen.block;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import me.waliedyassen.runescript.compiler.codegen.Instruction;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
- * Represents a block of instructions.
+ * Represents a block of instructions, the instructions are stored as two parallel arrays of encoded opcodes and
+ * operands, see {@link InstructionUtil} for the encoding.
  *
  * @author Walied K. Yassen
  */
 @RequiredArgsConstructor
 public final class Block {
 
+    /**
+     * The default capacity of the instruction arrays.
+     */
+    private static final int DEFAULT_CAPACITY = 8;
+
     /**
      * The label of the block.
      */
@@ -29,10 +36,44 @@ public final class Block {
     private final Label label;
 
     /**
-     * The instructions of the block.
+     * The encoded opcodes of the instructions.
+     */
+    private int[] opcodes = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The encoded operands of the instructions.
+     */
+    private int[] operands = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The amount of instructions within the block.
+     */
+    @Getter
+    private int size;
+
+    /**
+     * The block which is placed before this block in the {@link ControlFlowGraph} layout.
+     */
+    @Getter
+    Block previous;
+
+    /**
+     * The block which is placed after this block in the {@link ControlFlowGraph} layout.
+     */
+    @Getter
+    Block next;
+
+    /**
+     * The blocks which the execution can continue into after this block, maintained by the {@link ControlFlowGraph}.
      */
     @Getter
-    private final List<Instruction> instructions = new ArrayList<>();
+    final Set<Block> successors = new LinkedHashSet<>();
+
+    /**
+     * The blocks which the execution can come to this block from, maintained by the {@link ControlFlowGraph}.
+     */
+    @Getter
+    final Set<Block> predecessors = new LinkedHashSet<>();
 
     /**
      * {@inheritDoc}
@@ -43,53 +84,166 @@ public final class Block {
     }
 
     /**
-     * Adds the specified {@link Instruction instruction} to this block.
+     * Adds the specified instruction to the end of this block.
      *
-     * @param instruction
-     *         the instruction to add to this block.
+     * @param opcode
+     *         the encoded opcode of the instruction.
+     * @param operand
+     *         the encoded operand of the instruction.
+     */
+    public void add(int opcode, int operand) {
+        if (size == opcodes.length) {
+            opcodes = Arrays.copyOf(opcodes, size << 1);
+            operands = Arrays.copyOf(operands, size << 1);
+        }
+        opcodes[size] = opcode;
+        operands[size] = operand;
+        size++;
+    }
+
+    /**
+     * Inserts the specified instruction at the specified index within this block.
      *
-     * @throws IllegalArgumentException
-     *         if the instruction is a a child of another block.
+     * @param index
+     *         the index to insert the instruction at.
+     * @param opcode
+     *         the encoded opcode of the instruction.
+     * @param operand
+     *         the encoded operand of the instruction.
      */
-    public void add(Instruction instruction) {
-        if (instruction.getOwner() != null) {
-            throw new IllegalArgumentException("The specified Instruction is already a child of another block..");
+    public void insert(int index, int opcode, int operand) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        instructions.add(instruction);
-        instruction.setOwner(this);
+        add(opcode, operand);
+        var moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(opcodes, index, opcodes, index + 1, moved);
+            System.arraycopy(operands, index, operands, index + 1, moved);
+            opcodes[index] = opcode;
+            operands[index] = operand;
+        }
+    }
+
+    /**
+     * Replaces the instruction at the specified index within this block.
+     *
+     * @param index
+     *         the index of the instruction.
+     * @param opcode
+     *         the new encoded opcode of the instruction.
+     * @param operand
+     *         the new encoded operand of the instruction.
+     */
+    public void set(int index, int opcode, int operand) {
+        checkIndex(index);
+        opcodes[index] = opcode;
+        operands[index] = operand;
     }
 
     /**
-     * Removes the specified {@link Instruction} from the block.
+     * Removes the instruction at the specified index from this block.
      *
-     * @param instruction
-     *         the instruction to remove.
+     * @param index
+     *         the index of the instruction to remove.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        var moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(opcodes, index + 1, opcodes, index, moved);
+            System.arraycopy(operands, index + 1, operands, index, moved);
+        }
+        size--;
+    }
+
+    /**
+     * Removes all of the instructions starting from the specified index until the end of this block.
      *
-     * @throws IllegalArgumentException
-     *         if the instruction is not a child of this block.
+     * @param index
+     *         the index of the first instruction to remove.
      */
-    public void remove(Instruction instruction) {
-        if (instruction.getOwner() != this) {
-            throw new IllegalArgumentException("The specified Instruction is not a child of this block..");
+    public void truncate(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        instructions.remove(instruction);
-        instruction.setOwner(null);
+        size = index;
+    }
+
+    /**
+     * Gets the encoded opcode of the instruction at the specified index.
+     *
+     * @param index
+     *         the index of the instruction.
+     *
+     * @return the encoded opcode.
+     */
+    public int getOpcode(int index) {
+        checkIndex(index);
+        return opcodes[index];
+    }
+
+    /**
+     * Gets the encoded operand of the instruction at the specified index.
+     *
+     * @param index
+     *         the index of the instruction.
+     *
+     * @return the encoded operand.
+     */
+    public int getOperand(int index) {
+        checkIndex(index);
+        return operands[index];
+    }
+
+    /**
+     * Gets the encoded opcode of the last instruction within this block.
+     *
+     * @return the encoded opcode.
+     */
+    public int lastOpcode() {
+        return getOpcode(size - 1);
+    }
+
+    /**
+     * Gets the encoded operand of the last instruction within this block.
+     *
+     * @return the encoded operand.
+     */
+    public int lastOperand() {
+        return getOperand(size - 1);
     }
 
     /**
-     * Gets the last {@link Instruction} within this block.
+     * Checks whether or not this block has no instructions.
      *
-     * @return the last {@link Instruction} object.
+     * @return <code>true</code> if it has no instructions otherwise <code>false</code>.
      */
-    public Instruction last() {
-        return instructions.get(instructions.size() - 1);
+    public boolean isEmpty() {
+        return size == 0;
     }
 
-    public Instruction previous(Instruction instruction) {
-        var index = instructions.indexOf(instruction);
-        if (index > 0) {
-            return instructions.get(index - 1);
+    /**
+     * Checks whether or not the execution of this block can continue into the block that is placed after it.
+     *
+     * @return <code>true</code> if it can otherwise <code>false</code>.
+     */
+    public boolean isFallingThrough() {
+        return size == 0 || !InstructionUtil.isTerminator(opcodes[size - 1]);
+    }
+
+    /**
+     * Checks whether or not the specified index is a valid instruction index.
+     *
+     * @param index
+     *         the index to check.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the index is not a valid instruction index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        return null;
     }
 }
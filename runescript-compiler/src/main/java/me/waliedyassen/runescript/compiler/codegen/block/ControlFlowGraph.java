@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.block;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.sw.SwitchTable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents the control-flow graph of a script. The graph keeps the blocks in their layout order as a doubly linked
+ * list, which is the order they are written in, and keeps the successor and the predecessor edges of each block.
+ * <p>
+ * The edges of a block are computed from the label and the switch operands of its instructions, and from the block
+ * that is placed after it if the execution can fall through into it. Any change to the instructions of a block must be
+ * followed by a call to {@link #update(Block)}, while any change to the layout updates the edges automatically.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class ControlFlowGraph implements Iterable<Block> {
+
+    /**
+     * The blocks of the graph indexed by their label id.
+     */
+    private final List<Block> index = new ArrayList<>();
+
+    /**
+     * The switch tables of the script, used to resolve the switch edges.
+     */
+    private final List<SwitchTable> switchTables;
+
+    /**
+     * The first block in the layout, which is always the entry block.
+     */
+    @Getter
+    private Block first;
+
+    /**
+     * The last block in the layout.
+     */
+    @Getter
+    private Block last;
+
+    /**
+     * The amount of blocks within the graph.
+     */
+    @Getter
+    private int size;
+
+    /**
+     * Adds the specified {@link Block block} to the end of the layout. The edges of the block are not computed until
+     * {@link #build()} or {@link #update(Block)} is called.
+     *
+     * @param block
+     *         the block to add.
+     */
+    public void add(Block block) {
+        register(block);
+        block.previous = last;
+        if (last == null) {
+            first = block;
+        } else {
+            last.next = block;
+        }
+        last = block;
+    }
+
+    /**
+     * Inserts the specified {@link Block block} after the specified anchor {@link Block block} in the layout and
+     * computes its edges.
+     *
+     * @param anchor
+     *         the block to insert after.
+     * @param block
+     *         the block to insert.
+     */
+    public void insertAfter(Block anchor, Block block) {
+        register(block);
+        link(anchor, block);
+        update(block);
+        update(anchor);
+    }
+
+    /**
+     * Moves the specified {@link Block block} to be placed after the specified anchor {@link Block block} in the
+     * layout and updates the fall-through edges of the affected blocks.
+     *
+     * @param anchor
+     *         the block to place after.
+     * @param block
+     *         the block to move.
+     */
+    public void moveAfter(Block anchor, Block block) {
+        if (anchor == block || anchor.next == block) {
+            return;
+        }
+        var previous = block.previous;
+        unlink(block);
+        link(anchor, block);
+        if (previous != null) {
+            update(previous);
+        }
+        update(anchor);
+        update(block);
+    }
+
+    /**
+     * Removes the specified {@link Block block} from the graph along with all of its edges.
+     *
+     * @param block
+     *         the block to remove.
+     */
+    public void remove(Block block) {
+        var previous = block.previous;
+        unlink(block);
+        for (var successor : block.successors) {
+            successor.predecessors.remove(block);
+        }
+        block.successors.clear();
+        for (var predecessor : block.predecessors) {
+            predecessor.successors.remove(block);
+        }
+        block.predecessors.clear();
+        index.set(block.getLabel().getId(), null);
+        size--;
+        // the block before the removed one may now fall through into a different block.
+        if (previous != null) {
+            update(previous);
+        }
+    }
+
+    /**
+     * Computes the edges of all the blocks within the graph.
+     */
+    public void build() {
+        for (var block = first; block != null; block = block.next) {
+            block.predecessors.clear();
+        }
+        for (var block = first; block != null; block = block.next) {
+            update(block);
+        }
+    }
+
+    /**
+     * Recomputes the outgoing edges of the specified {@link Block block}.
+     *
+     * @param block
+     *         the block to recompute the edges for.
+     */
+    public void update(Block block) {
+        for (var successor : block.successors) {
+            successor.predecessors.remove(block);
+        }
+        block.successors.clear();
+        for (var index = 0; index < block.getSize(); index++) {
+            var opcode = block.getOpcode(index);
+            switch (InstructionUtil.getOperandType(opcode)) {
+                case LABEL:
+                    connect(block, resolve(block.getOperand(index)));
+                    break;
+                case SWITCH:
+                    for (var switchCase : switchTables.get(block.getOperand(index)).getCases()) {
+                        connect(block, resolve(switchCase.getLabel().getId()));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (block.next != null && block.isFallingThrough()) {
+            connect(block, block.next);
+        }
+    }
+
+    /**
+     * Gets the {@link Block} of the label with the specified id.
+     *
+     * @param id
+     *         the id of the block label.
+     *
+     * @return the {@link Block} object or {@code null} if there is no such block in the graph.
+     */
+    public Block get(int id) {
+        return id < index.size() ? index.get(id) : null;
+    }
+
+    /**
+     * Gets the {@link Block} of the specified {@link Label label}.
+     *
+     * @param label
+     *         the label of the block.
+     *
+     * @return the {@link Block} object or {@code null} if there is no such block in the graph.
+     */
+    public Block get(Label label) {
+        return get(label.getId());
+    }
+
+    /**
+     * Checks whether or not the specified {@link Block block} is within the graph.
+     *
+     * @param block
+     *         the block to check.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public boolean contains(Block block) {
+        return get(block.getLabel().getId()) == block;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned iterator walks the blocks in their layout order, the block that was last returned by the iterator
+     * may be removed from the graph during the iteration.
+     */
+    @Override
+    public Iterator<Block> iterator() {
+        return new Iterator<>() {
+            private Block next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Block next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                var current = next;
+                next = current.next;
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Registers the specified {@link Block block} in the label id index.
+     *
+     * @param block
+     *         the block to register.
+     */
+    private void register(Block block) {
+        var id = block.getLabel().getId();
+        while (index.size() <= id) {
+            index.add(null);
+        }
+        if (index.get(id) != null) {
+            throw new IllegalArgumentException("The specified Block is already within the graph: " + block);
+        }
+        index.set(id, block);
+        size++;
+    }
+
+    /**
+     * Resolves the {@link Block} of the specified label id.
+     *
+     * @param id
+     *         the id of the block label.
+     *
+     * @return the resolved {@link Block} object.
+     * @throws IllegalStateException
+     *         if there is no block for the specified label id in the graph.
+     */
+    private Block resolve(int id) {
+        var block = get(id);
+        if (block == null) {
+            throw new IllegalStateException("There is no block for the label with the id: " + id);
+        }
+        return block;
+    }
+
+    /**
+     * Adds an edge from the specified source {@link Block block} to the specified target {@link Block block}.
+     *
+     * @param source
+     *         the source block of the edge.
+     * @param target
+     *         the target block of the edge.
+     */
+    private static void connect(Block source, Block target) {
+        source.successors.add(target);
+        target.predecessors.add(source);
+    }
+
+    /**
+     * Links the specified {@link Block block} after the specified anchor {@link Block block} in the layout.
+     *
+     * @param anchor
+     *         the block to link after.
+     * @param block
+     *         the block to link.
+     */
+    private void link(Block anchor, Block block) {
+        block.previous = anchor;
+        block.next = anchor.next;
+        if (anchor.next == null) {
+            last = block;
+        } else {
+            anchor.next.previous = block;
+        }
+        anchor.next = block;
+    }
+
+    /**
+     * Unlinks the specified {@link Block block} from the layout.
+     *
+     * @param block
+     *         the block to unlink.
+     */
+    private void unlink(Block block) {
+        if (block.previous == null) {
+            first = block.next;
+        } else {
+            block.previous.next = block.next;
+        }
+        if (block.next == null) {
+            last = block.previous;
+        } else {
+            block.next.previous = block.previous;
+        }
+        block.previous = null;
+        block.next = null;
+    }
+}
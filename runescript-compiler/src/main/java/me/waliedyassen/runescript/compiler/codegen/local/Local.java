@@ -33,6 +33,12 @@ public final class Local {
     @Getter
     private final Type type;
 
+    /**
+     * The slot index of the local variable within the locals of the same stack type.
+     */
+    @Getter
+    private final int index;
+
     /**
      * {@inheritDoc}
      */
@@ -9,7 +9,7 @@ package me.waliedyassen.runescript.compiler.codegen.local;
 
 import lombok.Getter;
 import me.waliedyassen.runescript.compiler.stack.StackType;
-import me.waliedyassen.runescript.compiler.type.Type;
+import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableInfo;
 
 import java.util.*;
 
@@ -33,25 +33,22 @@ public final class LocalMap {
     private final Map<StackType, List<Local>> variables = new HashMap<>();
 
     /**
-     * The look-up map for both of the parameters and the variables.
+     * The look-up table for both of the parameters and the variables, indexed by the stack type ordinal then by the
+     * slot index of the local.
      */
-    private final Map<String, Local> lookupMap = new HashMap<>();
+    private final Local[][] slots = new Local[StackType.values().length][];
 
     /**
      * Creates a new {@link Local} object and registers it in the parameters map.
      *
-     * @param name
-     *         the parameter name.
-     * @param type
-     *         the parameter type.
+     * @param variable
+     *         the resolved parameter variable information.
      *
      * @return the created {@link Local} object.
      */
-    public Local registerParameter(String name, Type type) {
-        var local = new Local(name, type);
-        var list = getParametersList(type.getStackType());
-        list.add(local);
-        lookupMap.put(name, local);
+    public Local registerParameter(VariableInfo variable) {
+        var local = createLocal(variable);
+        getParametersList(variable.getType().getStackType()).add(local);
         return local;
     }
 
@@ -59,31 +56,49 @@ public final class LocalMap {
     /**
      * Creates a new {@link Local} object and registers it in the variables map.
      *
-     * @param name
-     *         the variable name.
-     * @param type
-     *         the variable type.
+     * @param variable
+     *         the resolved local variable information.
      *
      * @return the created {@link Local} object.
      */
-    public Local registerVariable(String name, Type type) {
-        var local = new Local(name, type);
-        var list = getVariablesList(type.getStackType());
-        list.add(local);
-        lookupMap.put(name, local);
+    public Local registerVariable(VariableInfo variable) {
+        var local = createLocal(variable);
+        getVariablesList(variable.getType().getStackType()).add(local);
         return local;
     }
 
     /**
-     * Looks-up for the {@link Local} object that is for the specified variable @code name}.
+     * Looks-up for the {@link Local} object that is for the specified resolved local variable using the slot index
+     * that was assigned to it during the semantic analysis.
      *
-     * @param name
-     *         the name of the variable or the parameter.
+     * @param variable
+     *         the resolved local variable information.
      *
      * @return the {@link Local} object if it was present otherwise {@code null}.
      */
-    public Local lookup(String name) {
-        return lookupMap.get(name);
+    public Local lookup(VariableInfo variable) {
+        var table = slots[variable.getType().getStackType().ordinal()];
+        var index = variable.getIndex();
+        return table == null || index >= table.length ? null : table[index];
+    }
+
+    /**
+     * Creates a new {@link Local} object for the specified resolved variable and stores it in its slot.
+     *
+     * @param variable
+     *         the resolved variable information.
+     *
+     * @return the created {@link Local} object.
+     */
+    private Local createLocal(VariableInfo variable) {
+        var local = new Local(variable.getName(), variable.getType(), variable.getIndex());
+        var ordinal = variable.getType().getStackType().ordinal();
+        var table = slots[ordinal];
+        if (table == null || local.getIndex() >= table.length) {
+            table = slots[ordinal] = Arrays.copyOf(table == null ? new Local[0] : table, Math.max(8, local.getIndex() + 1) << 1);
+        }
+        table[local.getIndex()] = local;
+        return local;
     }
 
     /**
@@ -126,6 +141,6 @@ public final class LocalMap {
     public void reset() {
         parameters.clear();
         variables.clear();
-        lookupMap.clear();
+        Arrays.fill(slots, null);
     }
 }
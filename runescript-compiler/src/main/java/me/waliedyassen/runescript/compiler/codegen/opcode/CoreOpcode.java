@@ -7,222 +7,256 @@
  */
 package me.waliedyassen.runescript.compiler.codegen.opcode;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
 /**
  * Represents the core opcodes RuneScript language.
  *
  * @author Walied K. Yassen
  */
+@RequiredArgsConstructor
 public enum CoreOpcode {
 
     /**
      * The push integer constant core instruction opcode.
      */
-    PUSH_INT_CONSTANT,
+    PUSH_INT_CONSTANT(OperandType.INT),
 
     /**
      * The push string constant core instruction opcode.
      */
-    PUSH_STRING_CONSTANT,
+    PUSH_STRING_CONSTANT(OperandType.STRING),
 
     /**
      * The push long constant core instruction opcode.
      */
-    PUSH_LONG_CONSTANT,
+    PUSH_LONG_CONSTANT(OperandType.LONG),
 
     /**
      * The pop int discard core instruction opcode.
      */
-    POP_INT_DISCARD,
+    POP_INT_DISCARD(OperandType.INT),
 
     /**
      * The pop string discard core instruction opcode.
      */
-    POP_STRING_DISCARD,
+    POP_STRING_DISCARD(OperandType.INT),
 
     /**
      * The pop long discard core instruction opcode.
      */
-    POP_LONG_DISCARD,
+    POP_LONG_DISCARD(OperandType.INT),
 
     /**
      * The push int local core instruction opcode.
      */
-    PUSH_INT_LOCAL,
+    PUSH_INT_LOCAL(OperandType.LOCAL),
 
     /**
      * The push string local core instruction opcode.
      */
-    PUSH_STRING_LOCAL,
+    PUSH_STRING_LOCAL(OperandType.LOCAL),
 
     /**
      * The push long local core instruction opcode.
      */
-    PUSH_LONG_LOCAL,
+    PUSH_LONG_LOCAL(OperandType.LOCAL),
 
     /**
      * The pop int local core instruction opcode.
      */
-    POP_INT_LOCAL,
+    POP_INT_LOCAL(OperandType.LOCAL),
 
     /**
      * The pop string local core instruction opcode.
      */
-    POP_STRING_LOCAL,
+    POP_STRING_LOCAL(OperandType.LOCAL),
 
     /**
      * The pop long local core instruction opcode.
      */
-    POP_LONG_LOCAL,
+    POP_LONG_LOCAL(OperandType.LOCAL),
 
     /**
      * The push player variable core instruction opcode.
      */
-    PUSH_VARP,
+    PUSH_VARP(OperandType.REFERENCE),
 
     /**
      * The push player variable bit core instruction opcode.
      */
-    PUSH_VARP_BIT,
+    PUSH_VARP_BIT(OperandType.REFERENCE),
 
     /**
      * The push client variable integer core instruction opcode.
      */
-    PUSH_VARC_INT,
+    PUSH_VARC_INT(OperandType.REFERENCE),
 
     /**
      * The push client variable string core instruction opcode.
      */
-    PUSH_VARC_STRING,
+    PUSH_VARC_STRING(OperandType.REFERENCE),
 
     /**
      * The pop player variable core instruction opcode.
      */
-    POP_VARP,
+    POP_VARP(OperandType.REFERENCE),
 
     /**
      * The pop player variable core instruction opcode.
      */
-    POP_VARP_BIT,
+    POP_VARP_BIT(OperandType.REFERENCE),
 
     /**
      * The pop client variable integer core instruction opcode.
      */
-    POP_VARC_INT,
+    POP_VARC_INT(OperandType.REFERENCE),
 
     /**
      * The pop client variable string core instruction opcode.
      */
-    POP_VARC_STRING,
+    POP_VARC_STRING(OperandType.REFERENCE),
 
     /**
      * The define array core instruction opcode.
      */
-    DEFINE_ARRAY,
+    DEFINE_ARRAY(OperandType.INT),
 
     /**
      * The push array integer core instruction opcode.
      */
-    PUSH_ARRAY_INT,
+    PUSH_ARRAY_INT(OperandType.INT),
 
     /**
      * The pop array integer core instruction opcode.
      */
-    POP_ARRAY_INT,
+    POP_ARRAY_INT(OperandType.INT),
 
     /**
      * The unconditional branch core core instruction opcode.
      */
-    BRANCH,
+    BRANCH(OperandType.LABEL),
 
     /**
      * The conditional integer "if equals" branch core instruction opcode.
      */
-    BRANCH_EQUALS,
+    BRANCH_EQUALS(OperandType.LABEL),
 
     /**
      * The conditional integer "if not equals" branch core instruction opcode.
      */
-    BRANCH_NOT,
+    BRANCH_NOT(OperandType.LABEL),
 
     /**
      * The conditional integer "if less than" branch core instruction opcode.
      */
-    BRANCH_LESS_THAN,
+    BRANCH_LESS_THAN(OperandType.LABEL),
 
     /**
      * The conditional integer "if greater than branch" core instruction opcode.
      */
-    BRANCH_GREATER_THAN,
+    BRANCH_GREATER_THAN(OperandType.LABEL),
 
     /**
      * The conditional integer "if less than or equals" branch core instruction opcode.
      */
-    BRANCH_LESS_THAN_OR_EQUALS,
+    BRANCH_LESS_THAN_OR_EQUALS(OperandType.LABEL),
 
     /**
      * The conditional integer "if greater than or equals" branch core instruction opcode.
      */
-    BRANCH_GREATER_THAN_OR_EQUALS,
+    BRANCH_GREATER_THAN_OR_EQUALS(OperandType.LABEL),
 
     /**
      * The conditional integer "if equals true" branch core instruction opcode.
      */
-    BRANCH_IF_TRUE,
+    BRANCH_IF_TRUE(OperandType.LABEL),
 
     /**
      * The conditional integer "if equals false" branch core instruction opcode.
      */
-    BRANCH_IF_FALSE,
+    BRANCH_IF_FALSE(OperandType.LABEL),
 
     /**
      * The conditional long "if equals" branch core instruction opcode.
      */
-    LONG_BRANCH_EQUALS,
+    LONG_BRANCH_EQUALS(OperandType.LABEL),
 
     /**
      * The conditional long "if not equals" branch core instruction opcode.
      */
-    LONG_BRANCH_NOT,
+    LONG_BRANCH_NOT(OperandType.LABEL),
 
     /**
      * The conditional long "if less than" branch core instruction opcode.
      */
-    LONG_BRANCH_LESS_THAN,
+    LONG_BRANCH_LESS_THAN(OperandType.LABEL),
 
     /**
      * The conditional long "if greater than" branch core instruction opcode.
      */
-    LONG_BRANCH_GREATER_THAN,
+    LONG_BRANCH_GREATER_THAN(OperandType.LABEL),
 
     /**
      * The conditional integer "if less than or equals" branch core instruction opcode.
      */
-    LONG_BRANCH_LESS_THAN_OR_EQUALS,
+    LONG_BRANCH_LESS_THAN_OR_EQUALS(OperandType.LABEL),
 
     /**
      * The conditional integer "if greater than or equals" branch core instruction opcode.
      */
-    LONG_BRANCH_GREATER_THAN_OR_EQUALS,
+    LONG_BRANCH_GREATER_THAN_OR_EQUALS(OperandType.LABEL),
 
     /**
      * The switch branch core instruction opcode.
      */
-    SWITCH,
+    SWITCH(OperandType.SWITCH),
+
+    /**
+     * The dense switch branch core instruction opcode, its table holds every key from the lowest to the highest key in
+     * ascending order, so the runtime can index it by the offset of the value from the first key. The missing keys
+     * jump to the next instruction, which is where the default case starts. This opcode is optional, and is only used
+     * if it is registered in the instruction map.
+     */
+    SWITCH_DENSE(OperandType.SWITCH, true),
 
     /**
      * The return core instruction opcode.
      */
-    RETURN,
+    RETURN(OperandType.INT),
 
     /**
      * The string concatenation (or joining) core instruction opcode.
      */
-    JOIN_STRING,
+    JOIN_STRING(OperandType.INT),
 
     /**
      * The gosub with parameters core instruction opcode.
      */
-    GOSUB_WITH_PARAMS;
+    GOSUB_WITH_PARAMS(OperandType.REFERENCE);
+
+    /**
+     * The type of the operand of this opcode.
+     */
+    @Getter
+    private final OperandType operandType;
+
+    /**
+     * Whether or not this opcode is optional, an optional opcode is only used if the runtime supports it.
+     */
+    @Getter
+    private final boolean optional;
+
+    /**
+     * Constructs a new required {@link CoreOpcode} enum constant.
+     *
+     * @param operandType
+     *         the type of the operand of the opcode.
+     */
+    CoreOpcode(OperandType operandType) {
+        this(operandType, false);
+    }
 
     /**
      * Checks whether or not this opcode requires a large operand (32-bit) and not a small operand (8-bit).
@@ -239,4 +273,44 @@ public enum CoreOpcode {
                 return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the conditional branch opcode which jumps when this conditional branch opcode does not.
+     *
+     * @return the inverse {@link CoreOpcode} or {@code null} if this opcode is not a conditional branch.
+     */
+    public CoreOpcode getInverse() {
+        switch (this) {
+            case BRANCH_EQUALS:
+                return BRANCH_NOT;
+            case BRANCH_NOT:
+                return BRANCH_EQUALS;
+            case BRANCH_LESS_THAN:
+                return BRANCH_GREATER_THAN_OR_EQUALS;
+            case BRANCH_GREATER_THAN_OR_EQUALS:
+                return BRANCH_LESS_THAN;
+            case BRANCH_GREATER_THAN:
+                return BRANCH_LESS_THAN_OR_EQUALS;
+            case BRANCH_LESS_THAN_OR_EQUALS:
+                return BRANCH_GREATER_THAN;
+            case BRANCH_IF_TRUE:
+                return BRANCH_IF_FALSE;
+            case BRANCH_IF_FALSE:
+                return BRANCH_IF_TRUE;
+            case LONG_BRANCH_EQUALS:
+                return LONG_BRANCH_NOT;
+            case LONG_BRANCH_NOT:
+                return LONG_BRANCH_EQUALS;
+            case LONG_BRANCH_LESS_THAN:
+                return LONG_BRANCH_GREATER_THAN_OR_EQUALS;
+            case LONG_BRANCH_GREATER_THAN_OR_EQUALS:
+                return LONG_BRANCH_LESS_THAN;
+            case LONG_BRANCH_GREATER_THAN:
+                return LONG_BRANCH_LESS_THAN_OR_EQUALS;
+            case LONG_BRANCH_LESS_THAN_OR_EQUALS:
+                return LONG_BRANCH_GREATER_THAN;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.opcode;
+
+/**
+ * Represents the type of the integer operand of an instruction, which tells how the operand should be decoded.
+ *
+ * @author Walied K. Yassen
+ */
+public enum OperandType {
+
+    /**
+     * The operand is the integer value itself.
+     */
+    INT,
+
+    /**
+     * The operand is an index in the strings table of the script constant pool.
+     */
+    STRING,
+
+    /**
+     * The operand is an index in the longs table of the script constant pool.
+     */
+    LONG,
+
+    /**
+     * The operand is the id of a label within the script.
+     */
+    LABEL,
+
+    /**
+     * The operand is the slot index of a local variable or parameter.
+     */
+    LOCAL,
+
+    /**
+     * The operand is the id of a switch table within the script.
+     */
+    SWITCH,
+
+    /**
+     * The operand is an index in the references table of the script constant pool.
+     */
+    REFERENCE
+}
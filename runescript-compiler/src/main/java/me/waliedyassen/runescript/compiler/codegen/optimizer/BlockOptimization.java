@@ -23,16 +23,16 @@ public abstract class BlockOptimization extends Optimization {
     @Override
     public int run(Optimizer optimizer, Script script) {
         var units = 0;
-        // TODO: We might run into concurrent modification issues if we try to modify
-        // the script whilst we are still running a block optimisation.
-        for (var label : script.getBlocks().keySet()) {
-            units += run(optimizer, script, script.getBlocks().get(label));
+        // the graph iterator allows the current block to be removed by the optimisation.
+        for (var block : script.getGraph()) {
+            units += run(optimizer, script, block);
         }
         return units;
     }
 
     /**
-     * Runs the optimization on the specified {@link Block}.
+     * Runs the optimization on the specified {@link Block}. Any change to the block or to the graph must be reported
+     * to the {@link Optimizer#changed(Block)} method before it is made, so the affected blocks are visited again.
      *
      * @param optimizer
      *         the optimizer which is running this optimization.
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.NonNull;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.opcode.OperandType;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the whole-program dead procedure eliminator, it removes the procedures which can not be reached from any
+ * of the entry points of the program. The entry points are all of the scripts which are not procedures, since they are
+ * invoked by the runtime, along with the procedures which are registered as {@link #addRoot(String) roots}.
+ * <p>
+ * The call graph is built from the script references within the constant pool of each script, which includes the
+ * {@link me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode#GOSUB_WITH_PARAMS} operands. The eliminator
+ * must only be used when all of the scripts of the program are compiled together, otherwise a procedure which is only
+ * called by a script that is compiled separately would be removed.
+ *
+ * @author Walied K. Yassen
+ */
+public final class DeadProcEliminator {
+
+    /**
+     * The names of the procedures which are always kept.
+     */
+    private final Set<String> roots = new HashSet<>();
+
+    /**
+     * Registers the procedure with the specified name as a root, which keeps it and all of the procedures it calls.
+     *
+     * @param name
+     *         the name of the procedure, without the trigger.
+     */
+    public void addRoot(@NonNull String name) {
+        roots.add(name);
+    }
+
+    /**
+     * Unregisters the procedure with the specified name from the roots.
+     *
+     * @param name
+     *         the name of the procedure, without the trigger.
+     *
+     * @return <code>true</code> if the procedure was a root otherwise <code>false</code>.
+     */
+    public boolean removeRoot(String name) {
+        return roots.remove(name);
+    }
+
+    /**
+     * Gets the names of the procedures which are registered as roots.
+     *
+     * @return an unmodifiable {@link Set} of the procedure names.
+     */
+    public Set<String> getRoots() {
+        return Collections.unmodifiableSet(roots);
+    }
+
+    /**
+     * Removes the procedures which can not be reached from any of the entry points from the specified scripts.
+     *
+     * @param scripts
+     *         the generated scripts of the whole program keyed by their symbol information, the unreachable procedures
+     *         are removed from it.
+     *
+     * @return a {@link List list} of the symbol information of the removed procedures in their original order.
+     */
+    public List<ScriptInfo> eliminate(@NonNull Map<ScriptInfo, Script> scripts) {
+        var reachable = new HashSet<ScriptInfo>();
+        var worklist = new ArrayDeque<ScriptInfo>();
+        for (var info : scripts.keySet()) {
+            if (isRoot(info) && reachable.add(info)) {
+                worklist.add(info);
+            }
+        }
+        while (!worklist.isEmpty()) {
+            var script = scripts.get(worklist.poll());
+            if (script == null) {
+                continue;
+            }
+            for (var callee : getReferencedScripts(script)) {
+                if (reachable.add(callee)) {
+                    worklist.add(callee);
+                }
+            }
+        }
+        var eliminated = new ArrayList<ScriptInfo>();
+        for (Iterator<ScriptInfo> iterator = scripts.keySet().iterator(); iterator.hasNext(); ) {
+            var info = iterator.next();
+            if (!reachable.contains(info)) {
+                eliminated.add(info);
+                iterator.remove();
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * Checks whether or not the specified {@link ScriptInfo script} is an entry point of the program.
+     *
+     * @param info
+     *         the script to check.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    private boolean isRoot(ScriptInfo info) {
+        return info.getTrigger() != TriggerType.PROC || roots.contains(info.getName());
+    }
+
+    /**
+     * Collects the scripts which are referenced by the instructions of the specified {@link Script script}.
+     *
+     * @param script
+     *         the script to collect the references of.
+     *
+     * @return the {@link Set} of the referenced scripts symbol information.
+     */
+    private static Set<ScriptInfo> getReferencedScripts(Script script) {
+        var referenced = new HashSet<ScriptInfo>();
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                if (InstructionUtil.getOperandType(block.getOpcode(index)) != OperandType.REFERENCE) {
+                    continue;
+                }
+                var reference = script.getConstants().getReference(block.getOperand(index));
+                if (reference instanceof ScriptInfo) {
+                    referenced.add((ScriptInfo) reference);
+                }
+            }
+        }
+        return referenced;
+    }
+}
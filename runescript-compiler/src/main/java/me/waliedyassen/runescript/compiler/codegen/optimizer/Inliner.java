@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.block.Label;
+import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.analysis.LocalLiveness;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.codegen.sw.SwitchCase;
+import me.waliedyassen.runescript.compiler.codegen.sw.SwitchTable;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
+/**
+ * Represents the whole-program procedure inliner, it replaces the {@link CoreOpcode#GOSUB_WITH_PARAMS} instructions
+ * which call small procedures with a copy of the called procedure code, which saves the runtime a script frame push
+ * for each call.
+ * <p>
+ * The scripts are inlined bottom-up, so the callees already have their own calls inlined before they are copied into
+ * their callers. A callee is only inlined if it was {@link #register(ScriptInfo, Script) registered}, is not
+ * recursive, does not have more instructions than the {@link #threshold}, does not use any array and never loads a
+ * local variable before it is stored into. At each call site the arguments are stored into fresh locals of the caller,
+ * and each return of the callee becomes a branch to the instructions which followed the call, the returned values are
+ * left on the stack just as they would have been left by the call.
+ * <p>
+ * The {@link OptimizationHint optimization hints} of the scripts are honoured as well, a script which is declared
+ * {@link OptimizationHint#INLINE inline} is inlined regardless of its size, while a script which is declared {@link
+ * OptimizationHint#NO_INLINE noinline} or is compiled at {@link OptimizationLevel#O0} is never inlined. Calls are
+ * inlined into the scripts which are compiled at {@link OptimizationLevel#O2}, the scripts which are compiled at {@link
+ * OptimizationLevel#O1} only have the callees which are declared {@link OptimizationHint#INLINE inline} inlined into
+ * them, and a {@link OptimizationHint#HOT hot} script has larger callees inlined into it, up to {@link
+ * #HOT_THRESHOLD_SCALE} times the {@link #threshold}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class Inliner {
+
+    /**
+     * The default maximum amount of instructions a procedure can have to be inlined.
+     */
+    public static final int DEFAULT_THRESHOLD = 24;
+
+    /**
+     * The scale of the threshold for the callees of a {@link OptimizationHint#HOT hot} script.
+     */
+    public static final int HOT_THRESHOLD_SCALE = 4;
+
+    /**
+     * The stack types of the local slots.
+     */
+    private static final StackType[] LOCAL_STACK_TYPES = {StackType.INT, StackType.STRING, StackType.LONG};
+
+    /**
+     * The maximum amount of instructions a procedure can have to be inlined.
+     */
+    @Getter
+    private final int threshold;
+
+    /**
+     * The optimization level of the scripts which do not declare their own level.
+     */
+    @Getter
+    private final OptimizationLevel level;
+
+    /**
+     * The registered scripts keyed by their symbol information.
+     */
+    private final Map<ScriptInfo, Script> scripts = new LinkedHashMap<>();
+
+    /**
+     * The cached recursion state of each script.
+     */
+    private final Map<ScriptInfo, Boolean> recursive = new HashMap<>();
+
+    /**
+     * The amount of call sites which were inlined so far, used to give the inlined labels unique names.
+     */
+    private int sites;
+
+    /**
+     * Constructs a new {@link Inliner} type object instance with the {@link #DEFAULT_THRESHOLD default threshold} and
+     * the {@link OptimizationLevel#O2} level.
+     */
+    public Inliner() {
+        this(DEFAULT_THRESHOLD, OptimizationLevel.O2);
+    }
+
+    /**
+     * Registers the specified {@link Script script} as the code of the script with the specified {@link ScriptInfo}.
+     *
+     * @param info
+     *         the symbol information of the script.
+     * @param script
+     *         the generated script.
+     */
+    public void register(@NonNull ScriptInfo info, @NonNull Script script) {
+        scripts.put(info, script);
+    }
+
+    /**
+     * Inlines the calls within all of the registered scripts, the scripts are visited bottom-up so each callee is done
+     * and optimized again before it is inlined into any of its callers.
+     *
+     * @param optimizers
+     *         the provider of the optimizer to run on each script which had any call inlined.
+     *
+     * @return the amount of calls that were inlined.
+     */
+    public int run(@NonNull Function<ScriptInfo, Optimizer> optimizers) {
+        var units = 0;
+        var visited = new HashSet<ScriptInfo>();
+        for (var info : scripts.keySet()) {
+            units += visit(optimizers, info, visited);
+        }
+        return units;
+    }
+
+    /**
+     * Visits the specified script after all of its callees in the call graph and inlines its calls.
+     *
+     * @param optimizers
+     *         the provider of the optimizer to run on each script which had any call inlined.
+     * @param info
+     *         the symbol information of the script to visit.
+     * @param visited
+     *         the scripts which were visited already.
+     *
+     * @return the amount of calls that were inlined.
+     */
+    private int visit(Function<ScriptInfo, Optimizer> optimizers, ScriptInfo info, Set<ScriptInfo> visited) {
+        if (!visited.add(info)) {
+            return 0;
+        }
+        var units = 0;
+        var script = scripts.get(info);
+        for (var callee : getCallees(script)) {
+            if (scripts.containsKey(callee)) {
+                units += visit(optimizers, callee, visited);
+            }
+        }
+        var inlined = inline(info, script);
+        if (inlined > 0) {
+            optimizers.apply(info).run(script);
+        }
+        return units + inlined;
+    }
+
+    /**
+     * Inlines all of the inlinable calls within the specified {@link Script script}.
+     *
+     * @param caller
+     *         the symbol information of the script.
+     * @param script
+     *         the script to inline the calls within.
+     *
+     * @return the amount of calls that were inlined.
+     */
+    private int inline(ScriptInfo caller, Script script) {
+        var callerLevel = OptimizationLevel.forScript(caller, level);
+        if (callerLevel == OptimizationLevel.O0) {
+            return 0;
+        }
+        // below the highest level only the calls the user explicitly asked for are inlined.
+        var explicitOnly = !callerLevel.includes(OptimizationLevel.O2);
+        var threshold = OptimizationHint.HOT.isEnabled(caller) ? this.threshold * HOT_THRESHOLD_SCALE : this.threshold;
+        var units = 0;
+        var block = script.getGraph().getFirst();
+        while (block != null) {
+            var next = block.getNext();
+            for (var index = 0; index < block.getSize(); index++) {
+                if (!is(block.getOpcode(index), CoreOpcode.GOSUB_WITH_PARAMS)) {
+                    continue;
+                }
+                var info = (ScriptInfo) script.getConstants().getReference(block.getOperand(index));
+                var callee = scripts.get(info);
+                if (callee == null || callee == script || !isInlinable(info, callee, threshold, explicitOnly)) {
+                    continue;
+                }
+                // the rest of the block is moved into the continuation block, which is scanned next.
+                next = inline(script, block, index, callee);
+                units++;
+                break;
+            }
+            block = next;
+        }
+        return units;
+    }
+
+    /**
+     * Inlines the specified callee {@link Script script} at the call instruction with the specified index.
+     *
+     * @param script
+     *         the caller script.
+     * @param block
+     *         the block which contains the call instruction.
+     * @param index
+     *         the index of the call instruction.
+     * @param callee
+     *         the called script.
+     *
+     * @return the continuation block which contains the instructions that followed the call.
+     */
+    private Block inline(Script script, Block block, int index, Script callee) {
+        var graph = script.getGraph();
+        var prefix = "inline_" + sites++ + "_";
+        // split the instructions after the call into their own block.
+        var continuation = new Block(createLabel(script, prefix + "exit"));
+        for (var position = index + 1; position < block.getSize(); position++) {
+            continuation.add(block.getOpcode(position), block.getOperand(position));
+        }
+        block.truncate(index);
+        graph.insertAfter(block, continuation);
+        // allocate fresh locals for the callee and store the arguments into its parameters.
+        var bases = new int[LOCAL_STACK_TYPES.length];
+        for (var type = 0; type < LOCAL_STACK_TYPES.length; type++) {
+            var stackType = LOCAL_STACK_TYPES[type];
+            bases[type] = script.getLocalCount(stackType);
+            var parameters = new ArrayList<>(callee.getParameters().getOrDefault(stackType, Collections.emptyList()));
+            parameters.sort(Comparator.comparingInt(Local::getIndex).reversed());
+            for (var parameter : parameters) {
+                block.add(InstructionUtil.encode(getStoreOpcode(stackType)), bases[type] + parameter.getIndex());
+            }
+            var locals = new ArrayList<>(script.getVariables().getOrDefault(stackType, Collections.emptyList()));
+            for (var local : parameters) {
+                locals.add(new Local(local.getName(), local.getType(), bases[type] + local.getIndex()));
+            }
+            for (var local : callee.getVariables().getOrDefault(stackType, Collections.emptyList())) {
+                locals.add(new Local(local.getName(), local.getType(), bases[type] + local.getIndex()));
+            }
+            script.getVariables().put(stackType, locals);
+        }
+        // create a copy of each of the callee blocks in their layout order between the call and the continuation.
+        var labels = new HashMap<Integer, Label>();
+        var copies = new ArrayList<Block>(callee.getGraph().getSize());
+        var anchor = block;
+        for (var original : callee.getGraph()) {
+            var label = original.getLabel();
+            var copy = new Block(createLabel(script, prefix + label.getName()));
+            labels.put(label.getId(), copy.getLabel());
+            graph.insertAfter(anchor, copy);
+            copies.add(copy);
+            anchor = copy;
+        }
+        var tables = new HashMap<Integer, Integer>();
+        for (var original : callee.getGraph()) {
+            var copy = graph.get(labels.get(original.getLabel().getId()));
+            for (var position = 0; position < original.getSize(); position++) {
+                var opcode = original.getOpcode(position);
+                var operand = original.getOperand(position);
+                if (is(opcode, CoreOpcode.RETURN)) {
+                    copy.add(InstructionUtil.encode(CoreOpcode.BRANCH), continuation.getLabel().getId());
+                    continue;
+                }
+                if (!InstructionUtil.isCore(opcode)) {
+                    var command = callee.getConstants().getOpcode(InstructionUtil.decodeCommand(opcode));
+                    copy.add(InstructionUtil.encodeCommand(script.getConstants().addOpcode(command)), operand);
+                    continue;
+                }
+                switch (InstructionUtil.getOperandType(opcode)) {
+                    case STRING:
+                        operand = script.getConstants().addString(callee.getConstants().getString(operand));
+                        break;
+                    case LONG:
+                        operand = script.getConstants().addLong(callee.getConstants().getLong(operand));
+                        break;
+                    case REFERENCE:
+                        operand = script.getConstants().addReference(callee.getConstants().getReference(operand));
+                        break;
+                    case LABEL:
+                        operand = labels.get(operand).getId();
+                        break;
+                    case LOCAL:
+                        operand += bases[indexOf(InstructionUtil.getLocalStackType(opcode))];
+                        break;
+                    case SWITCH:
+                        operand = tables.computeIfAbsent(operand, id -> copySwitchTable(script, callee.getSwitchTables().get(id), labels));
+                        break;
+                    default:
+                        break;
+                }
+                copy.add(opcode, operand);
+            }
+        }
+        for (var copy : copies) {
+            graph.update(copy);
+        }
+        graph.update(block);
+        return continuation;
+    }
+
+    /**
+     * Copies the specified {@link SwitchTable switch table} of a callee into the specified caller {@link Script
+     * script}.
+     *
+     * @param script
+     *         the caller script.
+     * @param table
+     *         the switch table of the callee.
+     * @param labels
+     *         the labels of the copied blocks keyed by the label id of their original block.
+     *
+     * @return the id of the copied switch table.
+     */
+    private static int copySwitchTable(Script script, SwitchTable table, Map<Integer, Label> labels) {
+        var cases = new SwitchCase[table.getCases().length];
+        for (var index = 0; index < cases.length; index++) {
+            var original = table.getCases()[index];
+            cases[index] = new SwitchCase(original.getKeys(), labels.get(original.getLabel().getId()));
+        }
+        var id = script.getSwitchTables().size();
+        script.getSwitchTables().add(new SwitchTable(id, cases));
+        return id;
+    }
+
+    /**
+     * Creates a new {@link Label label} within the specified {@link Script script}.
+     *
+     * @param script
+     *         the script to create the label in.
+     * @param name
+     *         the name of the label.
+     *
+     * @return the created {@link Label} object.
+     */
+    private static Label createLabel(Script script, String name) {
+        var label = new Label(script.getLabels().size(), name);
+        script.getLabels().add(label);
+        return label;
+    }
+
+    /**
+     * Checks whether or not the specified callee {@link Script script} can be inlined.
+     *
+     * @param info
+     *         the symbol information of the callee.
+     * @param callee
+     *         the callee script.
+     * @param threshold
+     *         the maximum amount of instructions the callee can have.
+     * @param explicitOnly
+     *         whether or not the callee must be declared {@link OptimizationHint#INLINE inline}.
+     *
+     * @return <code>true</code> if it can otherwise <code>false</code>.
+     */
+    private boolean isInlinable(ScriptInfo info, Script callee, int threshold, boolean explicitOnly) {
+        if (OptimizationHint.NO_INLINE.isEnabled(info) || OptimizationLevel.forScript(info, level) == OptimizationLevel.O0) {
+            return false;
+        }
+        if (explicitOnly && !OptimizationHint.INLINE.isEnabled(info)) {
+            return false;
+        }
+        if (!OptimizationHint.INLINE.isEnabled(info)) {
+            var size = 0;
+            for (var block : callee.getGraph()) {
+                size += block.getSize();
+            }
+            if (size > threshold) {
+                return false;
+            }
+        }
+        if (isRecursive(info) || usesArrays(callee)) {
+            return false;
+        }
+        // a variable that is loaded before it is stored into relies on the default value of a fresh frame.
+        for (var stackType : LOCAL_STACK_TYPES) {
+            var parameters = callee.getParameters().getOrDefault(stackType, Collections.emptyList()).size();
+            var live = LocalLiveness.compute(callee, stackType).getLiveIn(callee.getGraph().getFirst());
+            if (live.nextSetBit(parameters) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether or not the specified {@link Script script} uses any array, the array operands are the ids of the
+     * arrays within the script frame, so they would collide with the arrays of the caller if they were inlined.
+     *
+     * @param script
+     *         the script to check.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    private static boolean usesArrays(Script script) {
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                var opcode = block.getOpcode(index);
+                if (is(opcode, CoreOpcode.DEFINE_ARRAY) || is(opcode, CoreOpcode.PUSH_ARRAY_INT) || is(opcode, CoreOpcode.POP_ARRAY_INT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether or not the script with the specified {@link ScriptInfo} can call itself either directly or through
+     * other scripts.
+     *
+     * @param info
+     *         the symbol information of the script.
+     *
+     * @return <code>true</code> if it can otherwise <code>false</code>.
+     */
+    private boolean isRecursive(ScriptInfo info) {
+        var cached = recursive.get(info);
+        if (cached != null) {
+            return cached;
+        }
+        var visited = new HashSet<ScriptInfo>();
+        var pending = new ArrayList<>(getCallees(scripts.get(info)));
+        var result = false;
+        while (!pending.isEmpty()) {
+            var current = pending.remove(pending.size() - 1);
+            if (current == info) {
+                result = true;
+                break;
+            }
+            if (visited.add(current) && scripts.containsKey(current)) {
+                pending.addAll(getCallees(scripts.get(current)));
+            }
+        }
+        recursive.put(info, result);
+        return result;
+    }
+
+    /**
+     * Collects the scripts which are called by the specified {@link Script script}.
+     *
+     * @param script
+     *         the script to collect the callees of.
+     *
+     * @return the {@link Set} of the called scripts symbol information.
+     */
+    private static Set<ScriptInfo> getCallees(Script script) {
+        var callees = new HashSet<ScriptInfo>();
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                if (is(block.getOpcode(index), CoreOpcode.GOSUB_WITH_PARAMS)) {
+                    callees.add((ScriptInfo) script.getConstants().getReference(block.getOperand(index)));
+                }
+            }
+        }
+        return callees;
+    }
+
+    /**
+     * Gets the index of the specified {@link StackType} within the {@link #LOCAL_STACK_TYPES} array.
+     *
+     * @param stackType
+     *         the stack type of the local slots.
+     *
+     * @return the index of the stack type.
+     */
+    private static int indexOf(StackType stackType) {
+        for (var index = 0; index < LOCAL_STACK_TYPES.length; index++) {
+            if (LOCAL_STACK_TYPES[index] == stackType) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported local stack type: " + stackType);
+    }
+
+    /**
+     * Gets the local store {@link CoreOpcode opcode} of the specified {@link StackType}.
+     *
+     * @param stackType
+     *         the stack type of the local slot.
+     *
+     * @return the local store {@link CoreOpcode opcode}.
+     */
+    private static CoreOpcode getStoreOpcode(StackType stackType) {
+        switch (stackType) {
+            case INT:
+                return CoreOpcode.POP_INT_LOCAL;
+            case STRING:
+                return CoreOpcode.POP_STRING_LOCAL;
+            case LONG:
+                return CoreOpcode.POP_LONG_LOCAL;
+            default:
+                throw new UnsupportedOperationException("Unsupported stack type: " + stackType);
+        }
+    }
+
+    /**
+     * Clears all of the registered scripts and the cached state of the inliner.
+     */
+    public void clear() {
+        scripts.clear();
+        recursive.clear();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+
+/**
+ * Represents the optimization hints a script can declare through its annotations, such as {@code #[noinline:1]}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public enum OptimizationHint {
+
+    /**
+     * Forces the script to be inlined into its callers regardless of its size.
+     */
+    INLINE("inline"),
+
+    /**
+     * Prevents the script from being inlined into any of its callers.
+     */
+    NO_INLINE("noinline"),
+
+    /**
+     * The {@link OptimizationLevel optimization level} of the script, which overrides the level of the compiler.
+     */
+    OPT_LEVEL("optlevel"),
+
+    /**
+     * Marks the script as frequently executed, which compiles it at {@link OptimizationLevel#O2} unless it declares its
+     * own level, and lets the inliner inline larger scripts into it.
+     */
+    HOT("hot");
+
+    /**
+     * The name of the annotation which declares the hint.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Gets the value of the hint for the specified {@link ScriptInfo script}.
+     *
+     * @param info
+     *         the script to get the value of the hint for.
+     * @param defaultValue
+     *         the value to return if the script does not declare the hint.
+     *
+     * @return the declared value of the hint or the default value if it was not declared.
+     */
+    public int getValue(ScriptInfo info, int defaultValue) {
+        var annotation = info.getAnnotations().get(name);
+        return annotation == null ? defaultValue : annotation.getValue();
+    }
+
+    /**
+     * Checks whether or not the specified {@link ScriptInfo script} declares the hint.
+     *
+     * @param info
+     *         the script to check the hint for.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    public boolean isDeclared(ScriptInfo info) {
+        return info.getAnnotations().containsKey(name);
+    }
+
+    /**
+     * Checks whether or not the hint is enabled for the specified {@link ScriptInfo script}.
+     *
+     * @param info
+     *         the script to check the hint for.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public boolean isEnabled(ScriptInfo info) {
+        return getValue(info, 0) != 0;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the optimization levels of the compiler, each level runs all of the passes of the levels below it.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public enum OptimizationLevel {
+
+    /**
+     * No optimization passes are ran, which gives the fastest compile times.
+     */
+    O0("-O0"),
+
+    /**
+     * Only the cheap clean-up passes are ran.
+     */
+    O1("-O1"),
+
+    /**
+     * All of the passes are ran, including the expensive whole-script and whole-program passes.
+     */
+    O2("-O2");
+
+    /**
+     * The textual representation of the optimization level.
+     */
+    @Getter
+    private final String representation;
+
+    /**
+     * The look-up by representation map of the optimization levels.
+     */
+    private static final Map<String, OptimizationLevel> lookupMap = Arrays.stream(values()).collect(Collectors.toMap(OptimizationLevel::getRepresentation, level -> level));
+
+    /**
+     * Gets the {@link OptimizationLevel} with the specified {@code representation}.
+     *
+     * @param representation
+     *         the representation of the optimization level, such as {@code -O2}.
+     *
+     * @return the {@link OptimizationLevel} if it was present otherwise {@code null}.
+     */
+    public static OptimizationLevel forRepresentation(String representation) {
+        return lookupMap.get(representation);
+    }
+
+    /**
+     * Gets the {@link OptimizationLevel} the specified {@link ScriptInfo script} should be compiled at, which is the
+     * level declared by its {@link OptimizationHint#OPT_LEVEL} hint or the specified default level if it did not
+     * declare any. A {@link OptimizationHint#HOT hot} script which does not declare its own level is compiled at least
+     * at {@link #O2}. The declared levels are validated by the pre type checking, a level out of range is treated as
+     * the closest level.
+     *
+     * @param info
+     *         the script to get the optimization level for.
+     * @param defaultLevel
+     *         the level to use if the script does not declare its own level.
+     *
+     * @return the {@link OptimizationLevel} of the script.
+     */
+    public static OptimizationLevel forScript(ScriptInfo info, OptimizationLevel defaultLevel) {
+        var levels = values();
+        if (!OptimizationHint.OPT_LEVEL.isDeclared(info)) {
+            return OptimizationHint.HOT.isEnabled(info) && !defaultLevel.includes(O2) ? O2 : defaultLevel;
+        }
+        var value = OptimizationHint.OPT_LEVEL.getValue(info, 0);
+        return levels[Math.max(0, Math.min(value, levels.length - 1))];
+    }
+
+    /**
+     * Checks whether or not this level includes the passes of the specified {@link OptimizationLevel level}.
+     *
+     * @param level
+     *         the level to check.
+     *
+     * @return <code>true</code> if it does otherwise <code>false</code>.
+     */
+    public boolean includes(OptimizationLevel level) {
+        return ordinal() >= level.ordinal();
+    }
+}
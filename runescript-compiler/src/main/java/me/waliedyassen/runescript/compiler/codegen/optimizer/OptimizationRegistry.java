@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.BlockLayoutOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.BranchInversionOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.ConstantPropagationOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBranchOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadStoreOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.JumpThreadingOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.LocalCoalescingOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.NaturalFlowOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.PeepholeOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.TailMergingOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.UnreachableCodeOptimization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Represents the registry of the optimization passes, each pass is registered under a unique name along with the
+ * lowest {@link OptimizationLevel} it is ran at. The passes are ran in the order they were registered in.
+ *
+ * @author Walied K. Yassen
+ */
+public final class OptimizationRegistry {
+
+    /**
+     * The registered passes keyed by their name.
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Creates a new {@link OptimizationRegistry} with all of the built-in passes registered.
+     *
+     * @return the created {@link OptimizationRegistry} object.
+     */
+    public static OptimizationRegistry createDefault() {
+        var registry = new OptimizationRegistry();
+        registry.register("jump-threading", OptimizationLevel.O1, JumpThreadingOptimization::new);
+        registry.register("natural-flow", OptimizationLevel.O1, NaturalFlowOptimization::new);
+        registry.register("branch-inversion", OptimizationLevel.O1, BranchInversionOptimization::new);
+        registry.register("peephole", OptimizationLevel.O1, PeepholeOptimization::new);
+        registry.register("unreachable-code", OptimizationLevel.O1, UnreachableCodeOptimization::new);
+        registry.register("dead-branch", OptimizationLevel.O1, DeadBranchOptimization::new);
+        registry.register("dead-block", OptimizationLevel.O1, DeadBlockOptimization::new);
+        registry.register("tail-merging", OptimizationLevel.O1, TailMergingOptimization::new);
+        registry.register("block-layout", OptimizationLevel.O2, BlockLayoutOptimization::new);
+        registry.register("constant-propagation", OptimizationLevel.O2, ConstantPropagationOptimization::new);
+        registry.register("dead-store", OptimizationLevel.O2, DeadStoreOptimization::new);
+        registry.register("local-coalescing", OptimizationLevel.O2, LocalCoalescingOptimization::new);
+        return registry;
+    }
+
+    /**
+     * Registers a new optimization pass into the registry.
+     *
+     * @param name
+     *         the unique name of the pass.
+     * @param level
+     *         the lowest optimization level the pass is ran at.
+     * @param factory
+     *         the factory which creates the pass for each optimizer.
+     *
+     * @throws IllegalArgumentException
+     *         if there is a pass with the same name already registered.
+     */
+    public void register(@NonNull String name, @NonNull OptimizationLevel level, @NonNull Supplier<? extends Optimization> factory) {
+        if (entries.containsKey(name)) {
+            throw new IllegalArgumentException("The specified optimization pass name is already registered: " + name);
+        }
+        entries.put(name, new Entry(level, factory));
+    }
+
+    /**
+     * Unregisters the optimization pass with the specified name from the registry.
+     *
+     * @param name
+     *         the name of the pass.
+     *
+     * @return <code>true</code> if the pass was registered otherwise <code>false</code>.
+     */
+    public boolean unregister(String name) {
+        return entries.remove(name) != null;
+    }
+
+    /**
+     * Creates a new {@link Optimizer} which runs all of the registered passes that are included in the specified
+     * {@link OptimizationLevel level}.
+     *
+     * @param level
+     *         the optimization level of the optimizer.
+     *
+     * @return the created {@link Optimizer} object.
+     */
+    public Optimizer createOptimizer(@NonNull OptimizationLevel level) {
+        var optimizer = new Optimizer();
+        for (var entry : entries.entrySet()) {
+            if (level.includes(entry.getValue().level)) {
+                optimizer.register(entry.getKey(), entry.getValue().factory.get());
+            }
+        }
+        return optimizer;
+    }
+
+    /**
+     * Represents a single registered optimization pass.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        /**
+         * The lowest optimization level the pass is ran at.
+         */
+        private final OptimizationLevel level;
+
+        /**
+         * The factory which creates the pass.
+         */
+        private final Supplier<? extends Optimization> factory;
+    }
+}
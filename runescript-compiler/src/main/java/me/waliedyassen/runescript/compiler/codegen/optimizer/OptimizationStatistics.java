@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Represents the accumulated statistics of a single {@link Optimization} pass. The instruction and block counts are
+ * summed over the code each run of the pass was given, which is a single block for a {@link BlockOptimization} and
+ * the whole script for any other pass.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class OptimizationStatistics {
+
+    /**
+     * The name of the pass.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * The amount of times the pass was ran.
+     */
+    @Getter
+    private int runs;
+
+    /**
+     * The amount of units the pass has optimized.
+     */
+    @Getter
+    private int units;
+
+    /**
+     * The total time the pass took in nanoseconds.
+     */
+    @Getter
+    private long time;
+
+    /**
+     * The amount of instructions before the pass was ran.
+     */
+    @Getter
+    private int instructionsBefore;
+
+    /**
+     * The amount of instructions after the pass was ran.
+     */
+    @Getter
+    private int instructionsAfter;
+
+    /**
+     * The amount of blocks before the pass was ran.
+     */
+    @Getter
+    private int blocksBefore;
+
+    /**
+     * The amount of blocks after the pass was ran.
+     */
+    @Getter
+    private int blocksAfter;
+
+    /**
+     * Records a single run of the pass.
+     *
+     * @param units
+     *         the amount of units the run has optimized.
+     * @param time
+     *         the time the run took in nanoseconds.
+     * @param instructionsBefore
+     *         the amount of instructions before the run.
+     * @param instructionsAfter
+     *         the amount of instructions after the run.
+     * @param blocksBefore
+     *         the amount of blocks before the run.
+     * @param blocksAfter
+     *         the amount of blocks after the run.
+     */
+    void record(int units, long time, int instructionsBefore, int instructionsAfter, int blocksBefore, int blocksAfter) {
+        runs++;
+        this.units += units;
+        this.time += time;
+        this.instructionsBefore += instructionsBefore;
+        this.instructionsAfter += instructionsAfter;
+        this.blocksBefore += blocksBefore;
+        this.blocksAfter += blocksAfter;
+    }
+
+    /**
+     * Resets all of the recorded statistics.
+     */
+    void reset() {
+        runs = 0;
+        units = 0;
+        time = 0;
+        instructionsBefore = 0;
+        instructionsAfter = 0;
+        blocksBefore = 0;
+        blocksAfter = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: runs=%d, units=%d, time=%.3fms, instructions=%d->%d, blocks=%d->%d", name, runs, units, time / 1_000_000.0, instructionsBefore, instructionsAfter, blocksBefore, blocksAfter);
+    }
+}
@@ -8,14 +8,16 @@
 package me.waliedyassen.runescript.compiler.codegen.optimizer;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
-import me.waliedyassen.runescript.compiler.codegen.Instruction;
-import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
-import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the optimization phase main class, it contains the registered optimizations and is responsible for running
@@ -23,61 +25,178 @@ import java.util.List;
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
 public final class Optimizer {
 
+    /**
+     * The maximum amount of rounds the optimizations are ran for on a single script, which stops an optimization that
+     * keeps reporting changes from hanging the compilation.
+     */
+    public static final int MAX_ROUNDS = 32;
+
     /**
      * A list {@Link Optimization} object that this optimizer will run.
      */
     private final List<Optimization> optimizations = new ArrayList<>();
 
     /**
-     * The instruction map which this optimizer will use to compare instructions.
+     * The statistics of each of the registered optimizations, in the same order as {@link #optimizations}.
+     */
+    private final List<OptimizationStatistics> statistics = new ArrayList<>();
+
+    /**
+     * The blocks which are waiting to be visited by the block optimizations.
      */
-    private final InstructionMap instructionMap;
+    private final Deque<Block> worklist = new ArrayDeque<>();
 
     /**
-     * Runs all of the registered optimizations on thje specified {@link Script script}. This will keep running the
-     * optimizations until there is nothing left to to optimize, the amount of times it will re-run is not known or
-     * predictable.
+     * The blocks which are currently in the {@link #worklist}.
+     */
+    private final Set<Block> queued = new HashSet<>();
+
+    /**
+     * Runs all of the registered optimizations on the specified {@link Script script}.
+     * <p>
+     * The {@link BlockOptimization block optimizations} are driven by a worklist, every block is visited once and is
+     * only visited again if it or one of its neighbours were {@link #changed(Block) changed} by an optimization. The
+     * script level optimizations are ran after the worklist is drained, and only cause another round if they changed
+     * anything, the next round then only visits the blocks they have reported as changed. No more than {@link
+     * #MAX_ROUNDS} rounds are ran.
      *
      * @param script
      *         the script to run the optimizations on.
      */
     public void run(Script script) {
+        var graph = script.getGraph();
         var count = 0;
+        var rounds = 0;
+        for (var block : graph) {
+            enqueue(block);
+        }
         do {
+            while (!worklist.isEmpty()) {
+                var block = worklist.poll();
+                queued.remove(block);
+                for (var index = 0; index < optimizations.size(); index++) {
+                    if (!graph.contains(block)) {
+                        break;
+                    }
+                    var optimization = optimizations.get(index);
+                    if (optimization instanceof BlockOptimization) {
+                        var instructions = block.getSize();
+                        var blocks = graph.getSize();
+                        var start = System.nanoTime();
+                        var units = ((BlockOptimization) optimization).run(this, script, block);
+                        var time = System.nanoTime() - start;
+                        var removed = !graph.contains(block);
+                        statistics.get(index).record(units, time, instructions, removed ? 0 : block.getSize(), 1, 1 + graph.getSize() - blocks);
+                    }
+                }
+            }
             count = 0;
+            for (var index = 0; index < optimizations.size(); index++) {
+                var optimization = optimizations.get(index);
+                if (!(optimization instanceof BlockOptimization)) {
+                    var instructions = countInstructions(script);
+                    var blocks = graph.getSize();
+                    var start = System.nanoTime();
+                    var units = optimization.run(this, script);
+                    var time = System.nanoTime() - start;
+                    statistics.get(index).record(units, time, instructions, countInstructions(script), blocks, graph.getSize());
+                    count += units;
+                }
+            }
             for (var optimization : optimizations) {
-                count += optimization.run(this, script);
                 optimization.clean(this, script);
             }
-        } while (count > 0);
+        } while (count > 0 && ++rounds < MAX_ROUNDS);
+        worklist.clear();
+        queued.clear();
+    }
+
+    /**
+     * Reports that the specified {@link Block block} is about to be changed by an optimization, which queues the block
+     * and all of its neighbours to be visited again. This must be called before the block is changed, so the blocks
+     * that are about to lose an edge are queued as well.
+     *
+     * @param block
+     *         the block which is about to be changed.
+     */
+    public void changed(@NonNull Block block) {
+        enqueue(block);
+        block.getPredecessors().forEach(this::enqueue);
+        block.getSuccessors().forEach(this::enqueue);
+        if (block.getPrevious() != null) {
+            enqueue(block.getPrevious());
+        }
+        if (block.getNext() != null) {
+            enqueue(block.getNext());
+        }
+    }
+
+    /**
+     * Queues the specified {@link Block block} to be visited by the block optimizations if it was not queued already.
+     *
+     * @param block
+     *         the block to queue.
+     */
+    private void enqueue(Block block) {
+        if (queued.add(block)) {
+            worklist.add(block);
+        }
+    }
+
+    /**
+     * Counts the instructions of all the blocks within the specified {@link Script script}.
+     *
+     * @param script
+     *         the script to count the instructions of.
+     *
+     * @return the amount of instructions.
+     */
+    private static int countInstructions(Script script) {
+        var count = 0;
+        for (var block : script.getGraph()) {
+            count += block.getSize();
+        }
+        return count;
     }
 
     /**
-     * Registers the specified {@link Optimization optimization} into this optimizer.
+     * Registers the specified {@link Optimization optimization} into this optimizer under its class name.
      *
      * @param optimization
      *         the optimization to register.
      */
     public void register(@NonNull Optimization optimization) {
-        optimizations.add(optimization);
+        register(optimization.getClass().getSimpleName(), optimization);
     }
 
     /**
-     * Checks whether or not if the given {@link Instruction instruction } has the specified {@link CoreOpcode opcode}.
+     * Registers the specified {@link Optimization optimization} into this optimizer under the specified name.
      *
-     * @param instruction
-     *         the instruction to check if it has the opcode.
-     * @param opcode
-     *         the opcode to check against the instruction.
+     * @param name
+     *         the name of the optimization which is used in its statistics.
+     * @param optimization
+     *         the optimization to register.
+     */
+    public void register(@NonNull String name, @NonNull Optimization optimization) {
+        optimizations.add(optimization);
+        statistics.add(new OptimizationStatistics(name));
+    }
+
+    /**
+     * Gets the statistics of all of the registered optimizations in their registration order.
      *
-     * @return <code>true</code> if the instruction's opcode and the given opcode matches otherwise <code>false</code>.
+     * @return the unmodifiable {@link List list} of the {@link OptimizationStatistics} objects.
      */
-    public boolean is(@NonNull Instruction instruction, @NonNull CoreOpcode opcode) {
-        @NonNull var mapped = instructionMap.lookup(opcode);
-        return instruction.getOpcode() == mapped;
+    public List<OptimizationStatistics> getStatistics() {
+        return Collections.unmodifiableList(statistics);
+    }
 
+    /**
+     * Resets the statistics of all of the registered optimizations.
+     */
+    public void resetStatistics() {
+        statistics.forEach(OptimizationStatistics::reset);
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.analysis;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Represents the liveness analysis of the local slots of a single {@link StackType} within a script. A local slot is
+ * live at a point of the script if its current value may be loaded by any instruction that can be executed after that
+ * point without the slot being stored into first.
+ * <p>
+ * The analysis is a backward data-flow analysis over the {@link me.waliedyassen.runescript.compiler.codegen.block.ControlFlowGraph
+ * control-flow graph}, it is driven by a worklist so each block is only visited again when the live slots at the start
+ * of one of its successors changed.
+ *
+ * @author Walied K. Yassen
+ */
+public final class LocalLiveness {
+
+    /**
+     * The stack type of the local slots which are analysed.
+     */
+    @Getter
+    private final StackType stackType;
+
+    /**
+     * The live slots at the start of each block.
+     */
+    private final Map<Block, BitSet> liveIn = new HashMap<>();
+
+    /**
+     * The live slots at the end of each block.
+     */
+    private final Map<Block, BitSet> liveOut = new HashMap<>();
+
+    /**
+     * Constructs a new {@link LocalLiveness} type object instance.
+     *
+     * @param stackType
+     *         the stack type of the local slots which are analysed.
+     */
+    private LocalLiveness(StackType stackType) {
+        this.stackType = stackType;
+    }
+
+    /**
+     * Computes the liveness of the local slots of the specified {@link StackType} within the specified {@link Script
+     * script}.
+     *
+     * @param script
+     *         the script to analyse.
+     * @param stackType
+     *         the stack type of the local slots to analyse.
+     *
+     * @return the computed {@link LocalLiveness} object.
+     */
+    public static LocalLiveness compute(Script script, StackType stackType) {
+        var liveness = new LocalLiveness(stackType);
+        var uses = new HashMap<Block, BitSet>();
+        var defs = new HashMap<Block, BitSet>();
+        var worklist = new ArrayDeque<Block>();
+        var queued = new HashSet<Block>();
+        for (var block : script.getGraph()) {
+            var use = new BitSet();
+            var def = new BitSet();
+            for (var index = 0; index < block.getSize(); index++) {
+                var opcode = block.getOpcode(index);
+                if (InstructionUtil.getLocalStackType(opcode) != stackType) {
+                    continue;
+                }
+                var slot = block.getOperand(index);
+                if (InstructionUtil.isLocalStore(opcode)) {
+                    def.set(slot);
+                } else if (!def.get(slot)) {
+                    use.set(slot);
+                }
+            }
+            uses.put(block, use);
+            defs.put(block, def);
+            liveness.liveIn.put(block, (BitSet) use.clone());
+            liveness.liveOut.put(block, new BitSet());
+            // the blocks are visited in reverse layout order first, which is close to the order
+            // a backward analysis converges fastest in.
+            worklist.addFirst(block);
+            queued.add(block);
+        }
+        while (!worklist.isEmpty()) {
+            var block = worklist.poll();
+            queued.remove(block);
+            var out = liveness.liveOut.get(block);
+            for (var successor : block.getSuccessors()) {
+                out.or(liveness.liveIn.get(successor));
+            }
+            var in = (BitSet) out.clone();
+            in.andNot(defs.get(block));
+            in.or(uses.get(block));
+            if (!in.equals(liveness.liveIn.get(block))) {
+                liveness.liveIn.put(block, in);
+                for (var predecessor : block.getPredecessors()) {
+                    if (queued.add(predecessor)) {
+                        worklist.add(predecessor);
+                    }
+                }
+            }
+        }
+        return liveness;
+    }
+
+    /**
+     * Gets the live slots at the start of the specified {@link Block block}.
+     *
+     * @param block
+     *         the block to get the live slots for.
+     *
+     * @return the live slots {@link BitSet}, which must not be modified.
+     */
+    public BitSet getLiveIn(Block block) {
+        return liveIn.get(block);
+    }
+
+    /**
+     * Gets the live slots at the end of the specified {@link Block block}.
+     *
+     * @param block
+     *         the block to get the live slots for.
+     *
+     * @return the live slots {@link BitSet}, which must not be modified.
+     */
+    public BitSet getLiveOut(Block block) {
+        return liveOut.get(block);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
+/**
+ * Represents the block layout optimization, it reorders the blocks of the script so the unconditional branches target
+ * the block that is placed right after them, which lets the {@link NaturalFlowOptimization} remove them.
+ * <p>
+ * The blocks are first split into chains, each chain is a run of blocks which fall through into each other and must
+ * stay together. The chains are then placed greedily starting from the chain of the entry block, after each chain the
+ * chain that its last block branches to is placed if it was not placed yet, otherwise the next chain in the current
+ * layout order is placed. A chain whose last block falls through at the end of the script is always kept last.
+ *
+ * @author Walied K. Yassen
+ */
+public final class BlockLayoutOptimization extends Optimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script) {
+        var graph = script.getGraph();
+        var chains = new ArrayList<List<Block>>();
+        var heads = new HashMap<Block, Integer>();
+        for (var block : graph) {
+            if (block.getPrevious() == null || !block.getPrevious().isFallingThrough()) {
+                heads.put(block, chains.size());
+                chains.add(new ArrayList<>());
+            }
+            chains.get(chains.size() - 1).add(block);
+        }
+        if (chains.size() < 3) {
+            return 0;
+        }
+        var last = chains.size() - 1;
+        var pinned = graph.getLast().isFallingThrough() ? last : -1;
+        var order = new ArrayList<List<Block>>(chains.size());
+        var placed = new boolean[chains.size()];
+        var units = 0;
+        var cursor = 0;
+        // the entry block is always the head of the first chain, so it stays at the start of the script.
+        var current = 0;
+        while (current != -1) {
+            var chain = chains.get(current);
+            order.add(chain);
+            placed[current] = true;
+            var target = findBranchTarget(script, chain, heads);
+            if (target != -1 && !placed[target] && (target != pinned || order.size() == last)) {
+                if (!isPlacedAfter(chain, chains.get(target))) {
+                    units++;
+                }
+                current = target;
+                continue;
+            }
+            current = -1;
+            while (cursor < chains.size()) {
+                var candidate = cursor++;
+                if (!placed[candidate] && candidate != pinned) {
+                    current = candidate;
+                    break;
+                }
+            }
+            if (current == -1 && pinned != -1 && !placed[pinned]) {
+                current = pinned;
+            }
+        }
+        var anchor = graph.getFirst();
+        for (var chain : order) {
+            for (var block : chain) {
+                if (block != anchor) {
+                    if (anchor.getNext() != block) {
+                        optimizer.changed(anchor);
+                        optimizer.changed(block);
+                    }
+                    graph.moveAfter(anchor, block);
+                    anchor = block;
+                }
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Finds the chain which the last block of the specified chain unconditionally branches to.
+     *
+     * @param script
+     *         the script which contains the chain.
+     * @param chain
+     *         the chain to find the branch target of.
+     * @param heads
+     *         the index of the chains of the script keyed by their first block.
+     *
+     * @return the index of the target chain or {@code -1} if the chain does not end with a branch to the start of a
+     * chain.
+     */
+    private static int findBranchTarget(Script script, List<Block> chain, Map<Block, Integer> heads) {
+        var last = chain.get(chain.size() - 1);
+        if (last.isEmpty() || !is(last.lastOpcode(), CoreOpcode.BRANCH)) {
+            return -1;
+        }
+        return heads.getOrDefault(script.getBlock(last.lastOperand()), -1);
+    }
+
+    /**
+     * Checks whether or not the specified target chain is already placed right after the specified chain.
+     *
+     * @param chain
+     *         the chain which is placed first.
+     * @param target
+     *         the chain which should be placed after it.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    private static boolean isPlacedAfter(List<Block> chain, List<Block> target) {
+        return chain.get(chain.size() - 1).getNext() == target.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
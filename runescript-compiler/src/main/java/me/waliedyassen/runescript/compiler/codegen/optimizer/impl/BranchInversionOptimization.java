@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
+/**
+ * Represents the conditional branch inversion optimization. A block that ends with a conditional branch to the next
+ * block followed by an unconditional branch to another block has the condition inverted to jump to the other block,
+ * which lets the execution fall through into the next block without the unconditional branch.
+ *
+ * @author Walied K. Yassen
+ */
+public final class BranchInversionOptimization extends BlockOptimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script, Block block) {
+        var size = block.getSize();
+        if (size < 2 || !is(block.getOpcode(size - 1), CoreOpcode.BRANCH)) {
+            return 0;
+        }
+        var condition = InstructionUtil.getCoreOpcode(block.getOpcode(size - 2));
+        var inverse = condition == null ? null : condition.getInverse();
+        if (inverse == null || script.getBlock(block.getOperand(size - 2)) != block.getNext()) {
+            return 0;
+        }
+        optimizer.changed(block);
+        block.set(size - 2, InstructionUtil.encode(inverse), block.getOperand(size - 1));
+        block.remove(size - 1);
+        script.getGraph().update(block);
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
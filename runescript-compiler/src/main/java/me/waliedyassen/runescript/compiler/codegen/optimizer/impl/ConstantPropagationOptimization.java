@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.ConstantBranchRule;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the constant propagation optimization, it replaces the loads of the local slots which hold the same
+ * constant on every path that reaches them with a push of that constant. The conditional branches with constant
+ * operands are then folded by the {@link PeepholeOptimization}, and the stores which are no longer loaded are removed
+ * by the {@link DeadStoreOptimization}.
+ * <p>
+ * The values of the slots are propagated forward through the blocks that can be reached from the entry block, a
+ * conditional branch whose operands are known constants only propagates into the block it is known to continue into,
+ * so a slot which is only assigned a different value on a path that is never taken is still a constant. A slot is only
+ * known to hold a constant after it is stored with a constant push or a load of another constant slot right before
+ * the store, the parameters and any slot which is not stored yet hold an unknown value.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ConstantPropagationOptimization extends Optimization {
+
+    /**
+     * The value of a slot which is not known to hold a single constant.
+     */
+    private static final Constant OVERDEFINED = new Constant(null, 0);
+
+    /**
+     * The values of the slots at the start of each block that was reached so far.
+     */
+    private final Map<Block, Constant[]> states = new HashMap<>();
+
+    /**
+     * The blocks which are waiting to be visited.
+     */
+    private final Deque<Block> worklist = new ArrayDeque<>();
+
+    /**
+     * The index of the first slot of each stack type within the states.
+     */
+    private final int[] offsets = new int[StackType.values().length];
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script) {
+        var count = 0;
+        for (var stackType : StackType.values()) {
+            offsets[stackType.ordinal()] = count;
+            count += script.getLocalCount(stackType);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        var entry = new Constant[count];
+        Arrays.fill(entry, OVERDEFINED);
+        flow(script.getGraph().getFirst(), entry);
+        while (!worklist.isEmpty()) {
+            var block = worklist.poll();
+            propagate(script, block, states.get(block).clone());
+        }
+        var units = 0;
+        for (var block : script.getGraph()) {
+            var state = states.get(block);
+            if (state != null) {
+                units += replaceLoads(optimizer, script, block, state.clone());
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Propagates the values of the slots through the specified {@link Block block} and into all of the blocks it can
+     * continue into.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block to propagate through.
+     * @param state
+     *         the values of the slots at the start of the block, modified in place.
+     */
+    private void propagate(Script script, Block block, Constant[] state) {
+        for (var index = 0; index < block.getSize(); index++) {
+            var opcode = block.getOpcode(index);
+            if (InstructionUtil.isLocalStore(opcode)) {
+                store(block, index, state);
+                continue;
+            }
+            switch (InstructionUtil.getOperandType(opcode)) {
+                case LABEL:
+                    var target = script.getBlock(block.getOperand(index));
+                    var taken = InstructionUtil.is(opcode, CoreOpcode.BRANCH) ? Boolean.TRUE : evaluate(script, block, index, state);
+                    if (taken == null || taken) {
+                        flow(target, state);
+                    }
+                    if (taken != null && taken) {
+                        return;
+                    }
+                    break;
+                case SWITCH:
+                    for (var switchCase : script.getSwitchTables().get(block.getOperand(index)).getCases()) {
+                        flow(script.getBlock(switchCase.getLabel().getId()), state);
+                    }
+                    break;
+                default:
+                    if (InstructionUtil.isTerminator(opcode)) {
+                        return;
+                    }
+                    break;
+            }
+        }
+        if (block.getNext() != null) {
+            flow(block.getNext(), state);
+        }
+    }
+
+    /**
+     * Replaces the loads of the constant slots within the specified {@link Block block} with a push of the constant.
+     *
+     * @param optimizer
+     *         the optimizer which is running this optimization.
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block to replace the loads within.
+     * @param state
+     *         the values of the slots at the start of the block, modified in place.
+     *
+     * @return the amount of loads that were replaced.
+     */
+    private int replaceLoads(Optimizer optimizer, Script script, Block block, Constant[] state) {
+        var units = 0;
+        for (var index = 0; index < block.getSize(); index++) {
+            var opcode = block.getOpcode(index);
+            if (InstructionUtil.isLocalStore(opcode)) {
+                store(block, index, state);
+            } else if (InstructionUtil.isLocalLoad(opcode)) {
+                var value = state[getSlot(block, index)];
+                if (value != OVERDEFINED) {
+                    if (units++ == 0) {
+                        optimizer.changed(block);
+                    }
+                    block.set(index, InstructionUtil.encode(value.opcode), value.operand);
+                }
+            }
+        }
+        if (units > 0) {
+            script.getGraph().update(block);
+        }
+        return units;
+    }
+
+    /**
+     * Updates the value of the slot which the store instruction at the specified index stores into.
+     *
+     * @param block
+     *         the block which the store instruction is located in.
+     * @param index
+     *         the index of the store instruction.
+     * @param state
+     *         the current values of the slots.
+     */
+    private void store(Block block, int index, Constant[] state) {
+        var stackType = InstructionUtil.getLocalStackType(block.getOpcode(index));
+        var value = OVERDEFINED;
+        if (index > 0) {
+            var previous = block.getOpcode(index - 1);
+            if (InstructionUtil.is(previous, getConstantOpcode(stackType))) {
+                value = new Constant(getConstantOpcode(stackType), block.getOperand(index - 1));
+            } else if (InstructionUtil.isLocalLoad(previous) && InstructionUtil.getLocalStackType(previous) == stackType) {
+                value = state[getSlot(block, index - 1)];
+            }
+        }
+        state[getSlot(block, index)] = value;
+    }
+
+    /**
+     * Evaluates the conditional branch at the specified index using the current values of the slots.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block which the branch is located in.
+     * @param index
+     *         the index of the branch instruction.
+     * @param state
+     *         the current values of the slots.
+     *
+     * @return whether or not the branch is taken, or {@code null} if it is not known.
+     */
+    private Boolean evaluate(Script script, Block block, int index, Constant[] state) {
+        var opcode = InstructionUtil.getCoreOpcode(block.getOpcode(index));
+        if (opcode == null) {
+            return null;
+        }
+        var operands = opcode == CoreOpcode.BRANCH_IF_TRUE || opcode == CoreOpcode.BRANCH_IF_FALSE ? 1 : 2;
+        if (index < operands) {
+            return null;
+        }
+        var left = getValue(block, index - operands, state);
+        var right = operands > 1 ? getValue(block, index - 1, state) : OVERDEFINED;
+        if (left == OVERDEFINED || operands > 1 && right == OVERDEFINED || left.opcode == CoreOpcode.PUSH_STRING_CONSTANT) {
+            return null;
+        }
+        return ConstantBranchRule.evaluate(opcode, operands, toLong(script, left), operands > 1 ? toLong(script, right) : 0);
+    }
+
+    /**
+     * Gets the constant which is pushed by the instruction at the specified index.
+     *
+     * @param block
+     *         the block which the instruction is located in.
+     * @param index
+     *         the index of the instruction.
+     * @param state
+     *         the current values of the slots.
+     *
+     * @return the pushed {@link Constant} or {@link #OVERDEFINED} if the instruction does not push a known constant.
+     */
+    private Constant getValue(Block block, int index, Constant[] state) {
+        var opcode = block.getOpcode(index);
+        if (InstructionUtil.isLocalLoad(opcode)) {
+            return state[getSlot(block, index)];
+        }
+        var core = InstructionUtil.getCoreOpcode(opcode);
+        if (core == CoreOpcode.PUSH_INT_CONSTANT || core == CoreOpcode.PUSH_STRING_CONSTANT || core == CoreOpcode.PUSH_LONG_CONSTANT) {
+            return new Constant(core, block.getOperand(index));
+        }
+        return OVERDEFINED;
+    }
+
+    /**
+     * Merges the specified values of the slots into the state of the specified {@link Block block}, and queues the
+     * block to be visited if its state has changed.
+     *
+     * @param block
+     *         the block which the execution continues into.
+     * @param state
+     *         the values of the slots at the jump into the block.
+     */
+    private void flow(Block block, Constant[] state) {
+        var current = states.get(block);
+        if (current == null) {
+            states.put(block, state.clone());
+            worklist.add(block);
+            return;
+        }
+        var changed = false;
+        for (var slot = 0; slot < current.length; slot++) {
+            if (current[slot] != OVERDEFINED && !current[slot].equals(state[slot])) {
+                current[slot] = OVERDEFINED;
+                changed = true;
+            }
+        }
+        if (changed && !worklist.contains(block)) {
+            worklist.add(block);
+        }
+    }
+
+    /**
+     * Gets the index of the slot within the states which the local instruction at the specified index uses.
+     *
+     * @param block
+     *         the block which the instruction is located in.
+     * @param index
+     *         the index of the instruction.
+     *
+     * @return the index of the slot.
+     */
+    private int getSlot(Block block, int index) {
+        var stackType = InstructionUtil.getLocalStackType(block.getOpcode(index));
+        return offsets[stackType.ordinal()] + block.getOperand(index);
+    }
+
+    /**
+     * Converts the specified numeric {@link Constant constant} to its value.
+     *
+     * @param script
+     *         the script which the constant is located in.
+     * @param constant
+     *         the constant to convert.
+     *
+     * @return the value of the constant.
+     */
+    private static long toLong(Script script, Constant constant) {
+        return constant.opcode == CoreOpcode.PUSH_LONG_CONSTANT ? script.getConstants().getLong(constant.operand) : constant.operand;
+    }
+
+    /**
+     * Gets the push constant {@link CoreOpcode opcode} of the specified {@link StackType}.
+     *
+     * @param stackType
+     *         the stack type of the constant.
+     *
+     * @return the push constant {@link CoreOpcode opcode}.
+     */
+    private static CoreOpcode getConstantOpcode(StackType stackType) {
+        switch (stackType) {
+            case INT:
+                return CoreOpcode.PUSH_INT_CONSTANT;
+            case STRING:
+                return CoreOpcode.PUSH_STRING_CONSTANT;
+            case LONG:
+                return CoreOpcode.PUSH_LONG_CONSTANT;
+            default:
+                throw new UnsupportedOperationException("Unsupported stack type: " + stackType);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        states.clear();
+        worklist.clear();
+    }
+
+    /**
+     * Represents a constant value which is pushed by a push constant instruction.
+     *
+     * @author Walied K. Yassen
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Constant {
+
+        /**
+         * The push constant opcode of the constant.
+         */
+        private final CoreOpcode opcode;
+
+        /**
+         * The operand of the push constant instruction.
+         */
+        private final int operand;
+    }
+}
@@ -8,16 +8,10 @@
 package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
 
 import me.waliedyassen.runescript.compiler.codegen.block.Block;
-import me.waliedyassen.runescript.compiler.codegen.block.Label;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * Represents a dead (unused) block removal optimizations.
  *
@@ -25,50 +19,31 @@ import java.util.Map;
  */
 public final class DeadBlockOptimization extends BlockOptimization {
 
-    /**
-     * A list of labels that refer to the blocks we are goign to remove later on.
-     */
-    private final Map<Label, Integer> jumps = new HashMap<>();
-
-    /**
-     * The blocks that are goign to be removed in the current round to avoid copying.
-     */
-    private final List<Label> removing = new ArrayList<>();
-
     /**
      * {@inheritDoc}
      */
     @Override
-    public int run(Optimizer optimizer, Script script) {
-        for (var switchTable : script.getSwitchTables()) {
-            for (var switchCase : switchTable.getCases()) {
-                jumps.put(switchCase.getLabel(), jumps.getOrDefault(switchCase.getLabel(), 0) + 1);
-            }
-        }
-        super.run(optimizer, script);
-        for (var label : script.getBlocks().keySet()) {
-            var count = jumps.getOrDefault(label, 0);
-            if (count < 1 && !label.isEntryLabel()) {
-                removing.add(label);
-            }
+    public int run(Optimizer optimizer, Script script, Block block) {
+        if (block.getLabel().isEntryLabel() || !isUnreachable(block)) {
+            return 0;
         }
-        removing.forEach(script.getBlocks()::remove);
-        return removing.size();
+        optimizer.changed(block);
+        script.getGraph().remove(block);
+        return 1;
     }
 
     /**
-     * {@inheritDoc}
+     * Checks whether or not the specified {@link Block block} can never be reached, which is when it has no
+     * predecessors other than itself.
+     *
+     * @param block
+     *         the block to check.
+     *
+     * @return <code>true</code> if it can never be reached otherwise <code>false</code>.
      */
-    @Override
-    public int run(Optimizer optimizer, Script script, Block block) {
-        for (var instruction : block.getInstructions()) {
-            var operand = instruction.getOperand();
-            if (operand instanceof Label) {
-                var label = (Label) operand;
-                jumps.put(label, jumps.getOrDefault(label, 0) + 1);
-            }
-        }
-        return 0;
+    private static boolean isUnreachable(Block block) {
+        var predecessors = block.getPredecessors();
+        return predecessors.isEmpty() || predecessors.size() == 1 && predecessors.contains(block);
     }
 
     /**
@@ -76,7 +51,6 @@ public final class DeadBlockOptimization extends BlockOptimization {
      */
     @Override
     public void clean(Optimizer optimizer, Script script) {
-        removing.clear();
-        jumps.clear();
+        // NOOP
     }
 }
@@ -13,6 +13,8 @@ import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
 /**
  * Represents a dead branch optimization.
  *
@@ -25,18 +27,17 @@ public final class DeadBranchOptimization extends BlockOptimization {
      */
     @Override
     public int run(Optimizer optimizer, Script script, Block block) {
-        var instruction = block.last();
-        if (optimizer.is(instruction, CoreOpcode.BRANCH)) {
-            // We currently define dead branch if it's after a return
-            // in the distant future, we may want to change that.
-            var previous = block.previous(instruction);
-            if (previous == null) {
-                return 0;
-            }
-            if (optimizer.is(previous, CoreOpcode.RETURN)) {
-                block.remove(instruction);
-                return 1;
-            }
+        var size = block.getSize();
+        if (size < 2) {
+            return 0;
+        }
+        // We currently define dead branch if it's after a return
+        // in the distant future, we may want to change that.
+        if (is(block.getOpcode(size - 1), CoreOpcode.BRANCH) && is(block.getOpcode(size - 2), CoreOpcode.RETURN)) {
+            optimizer.changed(block);
+            block.remove(size - 1);
+            script.getGraph().update(block);
+            return 1;
         }
         return 0;
     }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.analysis.LocalLiveness;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+
+/**
+ * Represents the dead store optimization, it removes the stores into local slots which are never loaded afterwards
+ * and then removes the local variables which are no longer referenced by any instruction.
+ * <p>
+ * A dead store is replaced with a discard of the same stack type, the value is still computed so any side effect it
+ * has is kept, while a side-effect free push followed by the discard is removed by the {@link PeepholeOptimization} in
+ * the next round. A store which is immediately followed by a load of the same slot that is dead afterwards is removed
+ * along with the load, since the value is left on the stack for the instruction after the load.
+ *
+ * @author Walied K. Yassen
+ */
+public final class DeadStoreOptimization extends Optimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script) {
+        var units = 0;
+        for (var stackType : new StackType[]{StackType.INT, StackType.STRING, StackType.LONG}) {
+            var liveness = LocalLiveness.compute(script, stackType);
+            for (var block : script.getGraph()) {
+                units += removeDeadStores(optimizer, script, block, liveness);
+            }
+            units += removeUnusedVariables(script, stackType);
+        }
+        return units;
+    }
+
+    /**
+     * Removes the dead stores within the specified {@link Block block}.
+     *
+     * @param optimizer
+     *         the optimizer which is running this optimization.
+     * @param script
+     *         the script which contains the block.
+     * @param block
+     *         the block to remove the dead stores from.
+     * @param liveness
+     *         the liveness of the local slots of the script.
+     *
+     * @return the amount of stores that were removed.
+     */
+    private static int removeDeadStores(Optimizer optimizer, Script script, Block block, LocalLiveness liveness) {
+        var stackType = liveness.getStackType();
+        var live = (BitSet) liveness.getLiveOut(block).clone();
+        var units = 0;
+        // whether or not the slot of the load after the current instruction was live after the load.
+        var loadedSlot = -1;
+        var liveAfterLoad = false;
+        for (var index = block.getSize() - 1; index >= 0; index--) {
+            var opcode = block.getOpcode(index);
+            if (InstructionUtil.getLocalStackType(opcode) != stackType) {
+                loadedSlot = -1;
+                continue;
+            }
+            var slot = block.getOperand(index);
+            if (!InstructionUtil.isLocalStore(opcode)) {
+                loadedSlot = slot;
+                liveAfterLoad = live.get(slot);
+                live.set(slot);
+                continue;
+            }
+            if (loadedSlot == slot && !liveAfterLoad) {
+                if (units == 0) {
+                    optimizer.changed(block);
+                }
+                block.remove(index + 1);
+                block.remove(index);
+                units++;
+            } else if (!live.get(slot)) {
+                if (units == 0) {
+                    optimizer.changed(block);
+                }
+                block.set(index, InstructionUtil.encode(getDiscardOpcode(stackType)), 0);
+                units++;
+            }
+            live.clear(slot);
+            loadedSlot = -1;
+        }
+        if (units > 0) {
+            script.getGraph().update(block);
+        }
+        return units;
+    }
+
+    /**
+     * Removes the local variables of the specified {@link StackType} which are not referenced by any instruction and
+     * renumbers the remaining variables to fill in the freed slots. The parameters are always kept as they are, since
+     * they are filled in by the caller.
+     *
+     * @param script
+     *         the script to remove the unused variables from.
+     * @param stackType
+     *         the stack type of the variables.
+     *
+     * @return the amount of variables that were removed.
+     */
+    private static int removeUnusedVariables(Script script, StackType stackType) {
+        var variables = script.getVariables().get(stackType);
+        if (variables == null || variables.isEmpty()) {
+            return 0;
+        }
+        var referenced = new BitSet();
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                if (InstructionUtil.getLocalStackType(block.getOpcode(index)) == stackType) {
+                    referenced.set(block.getOperand(index));
+                }
+            }
+        }
+        var parameters = script.getParameters().getOrDefault(stackType, Collections.emptyList()).size();
+        var count = script.getLocalCount(stackType);
+        var mapping = new int[count];
+        var next = parameters;
+        for (var slot = 0; slot < count; slot++) {
+            mapping[slot] = slot < parameters ? slot : referenced.get(slot) ? next++ : -1;
+        }
+        var remapped = new ArrayList<Local>(variables.size());
+        for (var local : variables) {
+            var index = mapping[local.getIndex()];
+            if (index != -1) {
+                remapped.add(new Local(local.getName(), local.getType(), index));
+            }
+        }
+        var removed = variables.size() - remapped.size();
+        if (removed == 0) {
+            return 0;
+        }
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                var opcode = block.getOpcode(index);
+                if (InstructionUtil.getLocalStackType(opcode) == stackType) {
+                    block.set(index, opcode, mapping[block.getOperand(index)]);
+                }
+            }
+        }
+        script.getVariables().put(stackType, remapped);
+        return removed;
+    }
+
+    /**
+     * Gets the discard {@link CoreOpcode opcode} of the specified {@link StackType}.
+     *
+     * @param stackType
+     *         the stack type of the value to discard.
+     *
+     * @return the discard {@link CoreOpcode opcode}.
+     */
+    private static CoreOpcode getDiscardOpcode(StackType stackType) {
+        switch (stackType) {
+            case INT:
+                return CoreOpcode.POP_INT_DISCARD;
+            case STRING:
+                return CoreOpcode.POP_STRING_DISCARD;
+            case LONG:
+                return CoreOpcode.POP_LONG_DISCARD;
+            default:
+                throw new UnsupportedOperationException("Unsupported stack type: " + stackType);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
+/**
+ * Represents the jump threading optimization, it retargets the branches and the switch cases which jump to a block that
+ * does nothing but pass the execution to another block, so they jump straight to the final destination instead.
+ *
+ * @author Walied K. Yassen
+ */
+public final class JumpThreadingOptimization extends BlockOptimization {
+
+    /**
+     * The blocks that were visited while resolving the current destination, used to stop on cycles.
+     */
+    private final Set<Block> visited = new HashSet<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script, Block block) {
+        var units = 0;
+        for (var index = 0; index < block.getSize(); index++) {
+            var opcode = block.getOpcode(index);
+            switch (InstructionUtil.getOperandType(opcode)) {
+                case LABEL:
+                    var target = script.getBlock(block.getOperand(index));
+                    var destination = resolveDestination(script, target);
+                    if (destination != target) {
+                        if (units++ == 0) {
+                            optimizer.changed(block);
+                        }
+                        block.set(index, opcode, destination.getLabel().getId());
+                    }
+                    break;
+                case SWITCH:
+                    for (var switchCase : script.getSwitchTables().get(block.getOperand(index)).getCases()) {
+                        target = script.getBlock(switchCase.getLabel().getId());
+                        destination = resolveDestination(script, target);
+                        if (destination != target) {
+                            if (units++ == 0) {
+                                optimizer.changed(block);
+                            }
+                            switchCase.setLabel(destination.getLabel());
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (units > 0) {
+            script.getGraph().update(block);
+        }
+        return units;
+    }
+
+    /**
+     * Resolves the final destination of a jump to the specified target {@link Block block}, by skipping all of the
+     * blocks which are either empty or start with an unconditional branch.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param target
+     *         the original target block of the jump.
+     *
+     * @return the final destination {@link Block block}.
+     */
+    private Block resolveDestination(Script script, Block target) {
+        visited.clear();
+        var destination = target;
+        while (visited.add(destination)) {
+            Block next;
+            if (destination.isEmpty()) {
+                next = destination.getNext();
+            } else if (is(destination.getOpcode(0), CoreOpcode.BRANCH)) {
+                next = script.getBlock(destination.getOperand(0));
+            } else {
+                break;
+            }
+            // every block in a chain that loops back on itself is equivalent, so we stop at the
+            // first block which was already visited.
+            if (next == null || visited.contains(next)) {
+                break;
+            }
+            destination = next;
+        }
+        return destination;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        visited.clear();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.analysis.LocalLiveness;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+/**
+ * Represents the local slot coalescing optimization, it lets the local variables whose lifetimes never overlap share
+ * the same local slot, which shrinks the amount of locals the interpreter has to allocate for each execution.
+ * <p>
+ * The lifetimes are computed by the {@link LocalLiveness} analysis, two slots interfere if one of them is stored into
+ * while the other is live. The slots are then greedily assigned the lowest slot which none of the interfering slots
+ * were assigned, the parameters always keep their own slot since they are filled in by the caller.
+ *
+ * @author Walied K. Yassen
+ */
+public final class LocalCoalescingOptimization extends Optimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script) {
+        var units = 0;
+        for (var stackType : new StackType[]{StackType.INT, StackType.STRING, StackType.LONG}) {
+            units += coalesce(optimizer, script, stackType);
+        }
+        return units;
+    }
+
+    /**
+     * Coalesces the local slots of the specified {@link StackType} within the specified {@link Script script}.
+     *
+     * @param optimizer
+     *         the optimizer which is running this optimization.
+     * @param script
+     *         the script to coalesce the local slots in.
+     * @param stackType
+     *         the stack type of the local slots.
+     *
+     * @return the amount of local slots that were saved.
+     */
+    private int coalesce(Optimizer optimizer, Script script, StackType stackType) {
+        var count = script.getLocalCount(stackType);
+        var parameters = script.getParameters().getOrDefault(stackType, Collections.emptyList()).size();
+        if (count - parameters < 1) {
+            return 0;
+        }
+        var interference = buildInterference(script, stackType, count, parameters);
+        // assign the new slots, the parameters are pre-assigned their own slot.
+        var mapping = new int[count];
+        var assigned = new BitSet(count);
+        var newCount = parameters;
+        for (var slot = 0; slot < count; slot++) {
+            if (slot < parameters) {
+                mapping[slot] = slot;
+            } else {
+                var taken = new BitSet();
+                for (var other = interference[slot].nextSetBit(0); other >= 0; other = interference[slot].nextSetBit(other + 1)) {
+                    if (assigned.get(other)) {
+                        taken.set(mapping[other]);
+                    }
+                }
+                mapping[slot] = taken.nextClearBit(0);
+                newCount = Math.max(newCount, mapping[slot] + 1);
+            }
+            assigned.set(slot);
+        }
+        if (newCount == count) {
+            return 0;
+        }
+        // rewrite the local operands of the instructions and the local variables of the script.
+        for (var block : script.getGraph()) {
+            var changed = false;
+            for (var index = 0; index < block.getSize(); index++) {
+                var opcode = block.getOpcode(index);
+                if (InstructionUtil.getLocalStackType(opcode) == stackType && mapping[block.getOperand(index)] != block.getOperand(index)) {
+                    // the renamed slots may form new matches for the block optimizations, such as self stores.
+                    if (!changed) {
+                        optimizer.changed(block);
+                        changed = true;
+                    }
+                    block.set(index, opcode, mapping[block.getOperand(index)]);
+                }
+            }
+        }
+        var variables = script.getVariables().get(stackType);
+        var remapped = new ArrayList<Local>(variables.size());
+        for (var local : variables) {
+            remapped.add(new Local(local.getName(), local.getType(), mapping[local.getIndex()]));
+        }
+        script.getVariables().put(stackType, remapped);
+        return count - newCount;
+    }
+
+    /**
+     * Builds the interference graph of the local slots of the specified {@link StackType}.
+     *
+     * @param script
+     *         the script to build the interference graph for.
+     * @param stackType
+     *         the stack type of the local slots.
+     * @param count
+     *         the amount of local slots.
+     * @param parameters
+     *         the amount of parameter slots.
+     *
+     * @return the interfering slots of each slot.
+     */
+    private static BitSet[] buildInterference(Script script, StackType stackType, int count, int parameters) {
+        var interference = new BitSet[count];
+        Arrays.setAll(interference, slot -> new BitSet(count));
+        var liveness = LocalLiveness.compute(script, stackType);
+        for (var block : script.getGraph()) {
+            var live = (BitSet) liveness.getLiveOut(block).clone();
+            for (var index = block.getSize() - 1; index >= 0; index--) {
+                var opcode = block.getOpcode(index);
+                if (InstructionUtil.getLocalStackType(opcode) != stackType) {
+                    continue;
+                }
+                var slot = block.getOperand(index);
+                if (InstructionUtil.isLocalStore(opcode)) {
+                    live.clear(slot);
+                    interfere(interference, slot, live);
+                } else {
+                    live.set(slot);
+                }
+            }
+        }
+        // the parameters are all stored into at the start of the script.
+        var live = (BitSet) liveness.getLiveIn(script.getGraph().getFirst()).clone();
+        live.set(0, parameters);
+        for (var slot = 0; slot < parameters; slot++) {
+            interfere(interference, slot, live);
+        }
+        return interference;
+    }
+
+    /**
+     * Marks the specified slot as interfering with all of the specified live slots.
+     *
+     * @param interference
+     *         the interference graph.
+     * @param slot
+     *         the slot which is stored into.
+     * @param live
+     *         the slots which are live at the store.
+     */
+    private static void interfere(BitSet[] interference, int slot, BitSet live) {
+        for (var other = live.nextSetBit(0); other >= 0; other = live.nextSetBit(other + 1)) {
+            if (other != slot) {
+                interference[slot].set(other);
+                interference[other].set(slot);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
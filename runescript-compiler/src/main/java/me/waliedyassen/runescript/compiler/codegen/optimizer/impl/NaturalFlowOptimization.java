@@ -8,12 +8,13 @@
 package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
 
 import me.waliedyassen.runescript.compiler.codegen.block.Block;
-import me.waliedyassen.runescript.compiler.codegen.block.Label;
 import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
 /**
  * Represents the natural flow redudant jumps removal optimizations.
  *
@@ -26,13 +27,14 @@ public final class NaturalFlowOptimization extends BlockOptimization {
      */
     @Override
     public int run(Optimizer optimizer, Script script, Block block) {
-        var instruction = block.last();
-        if (optimizer.is(instruction, CoreOpcode.BRANCH)) {
-            var label = (Label) instruction.getOperand();
-            if (script.isNextTo(block.getLabel(), label)) {
-                block.remove(instruction);
-                return 1;
-            }
+        if (block.isEmpty()) {
+            return 0;
+        }
+        if (is(block.lastOpcode(), CoreOpcode.BRANCH) && script.getBlock(block.lastOperand()) == block.getNext()) {
+            optimizer.changed(block);
+            block.remove(block.getSize() - 1);
+            script.getGraph().update(block);
+            return 1;
         }
         return 0;
     }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import lombok.NonNull;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.ConstantBranchRule;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.DiscardedPushRule;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.FallThroughBranchRule;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.PeepholeRule;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.SelfStoreRule;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the peephole optimization, it runs a table of {@link PeepholeRule rules} over the instructions of each
+ * block, the rules are keyed by the {@link CoreOpcode} of the first instruction they match so each instruction is only
+ * checked against the rules which can possibly match it.
+ *
+ * @author Walied K. Yassen
+ */
+public final class PeepholeOptimization extends BlockOptimization {
+
+    /**
+     * The registered rules keyed by the opcode of the first instruction they match.
+     */
+    private final Map<CoreOpcode, List<PeepholeRule>> rules = new EnumMap<>(CoreOpcode.class);
+
+    /**
+     * Constructs a new {@link PeepholeOptimization} type object instance with the built-in rules registered.
+     */
+    public PeepholeOptimization() {
+        // side-effect free pushes which are discarded straight away.
+        register(CoreOpcode.PUSH_INT_CONSTANT, new DiscardedPushRule(CoreOpcode.POP_INT_DISCARD));
+        register(CoreOpcode.PUSH_INT_LOCAL, new DiscardedPushRule(CoreOpcode.POP_INT_DISCARD));
+        register(CoreOpcode.PUSH_STRING_CONSTANT, new DiscardedPushRule(CoreOpcode.POP_STRING_DISCARD));
+        register(CoreOpcode.PUSH_STRING_LOCAL, new DiscardedPushRule(CoreOpcode.POP_STRING_DISCARD));
+        register(CoreOpcode.PUSH_LONG_CONSTANT, new DiscardedPushRule(CoreOpcode.POP_LONG_DISCARD));
+        register(CoreOpcode.PUSH_LONG_LOCAL, new DiscardedPushRule(CoreOpcode.POP_LONG_DISCARD));
+        // locals which are loaded and stored back into themselves.
+        register(CoreOpcode.PUSH_INT_LOCAL, new SelfStoreRule(CoreOpcode.POP_INT_LOCAL));
+        register(CoreOpcode.PUSH_STRING_LOCAL, new SelfStoreRule(CoreOpcode.POP_STRING_LOCAL));
+        register(CoreOpcode.PUSH_LONG_LOCAL, new SelfStoreRule(CoreOpcode.POP_LONG_LOCAL));
+        // conditional branches to the block which is placed right after them, the unconditional
+        // branches are already handled by the natural flow optimization.
+        register(CoreOpcode.BRANCH_IF_TRUE, new FallThroughBranchRule(CoreOpcode.POP_INT_DISCARD, 1));
+        register(CoreOpcode.BRANCH_IF_FALSE, new FallThroughBranchRule(CoreOpcode.POP_INT_DISCARD, 1));
+        for (var opcode : new CoreOpcode[]{CoreOpcode.BRANCH_EQUALS, CoreOpcode.BRANCH_NOT, CoreOpcode.BRANCH_LESS_THAN, CoreOpcode.BRANCH_GREATER_THAN, CoreOpcode.BRANCH_LESS_THAN_OR_EQUALS, CoreOpcode.BRANCH_GREATER_THAN_OR_EQUALS}) {
+            register(opcode, new FallThroughBranchRule(CoreOpcode.POP_INT_DISCARD, 2));
+        }
+        for (var opcode : new CoreOpcode[]{CoreOpcode.LONG_BRANCH_EQUALS, CoreOpcode.LONG_BRANCH_NOT, CoreOpcode.LONG_BRANCH_LESS_THAN, CoreOpcode.LONG_BRANCH_GREATER_THAN, CoreOpcode.LONG_BRANCH_LESS_THAN_OR_EQUALS, CoreOpcode.LONG_BRANCH_GREATER_THAN_OR_EQUALS}) {
+            register(opcode, new FallThroughBranchRule(CoreOpcode.POP_LONG_DISCARD, 2));
+        }
+        // conditional branches which only compare constants.
+        register(CoreOpcode.PUSH_INT_CONSTANT, new ConstantBranchRule(CoreOpcode.PUSH_INT_CONSTANT, 1));
+        register(CoreOpcode.PUSH_INT_CONSTANT, new ConstantBranchRule(CoreOpcode.PUSH_INT_CONSTANT, 2));
+        register(CoreOpcode.PUSH_LONG_CONSTANT, new ConstantBranchRule(CoreOpcode.PUSH_LONG_CONSTANT, 2));
+    }
+
+    /**
+     * Registers the specified {@link PeepholeRule rule} for the specified {@link CoreOpcode opcode}.
+     *
+     * @param opcode
+     *         the opcode of the first instruction the rule matches.
+     * @param rule
+     *         the rule to register.
+     */
+    public void register(@NonNull CoreOpcode opcode, @NonNull PeepholeRule rule) {
+        rules.computeIfAbsent(opcode, key -> new ArrayList<>()).add(rule);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script, Block block) {
+        var units = 0;
+        var index = 0;
+        while (index < block.getSize()) {
+            var rule = findRule(script, block, index);
+            if (rule == null) {
+                index++;
+                continue;
+            }
+            if (units++ == 0) {
+                optimizer.changed(block);
+            }
+            rule.apply(script, block, index);
+            // the rewritten sequence may now form a new match with the instruction before it.
+            if (index > 0) {
+                index--;
+            }
+        }
+        if (units > 0) {
+            script.getGraph().update(block);
+        }
+        return units;
+    }
+
+    /**
+     * Finds the first registered {@link PeepholeRule rule} which matches the instructions at the specified index.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block which the instructions are located in.
+     * @param index
+     *         the index of the first instruction.
+     *
+     * @return the matching {@link PeepholeRule} or {@code null} if none of the rules matched.
+     */
+    private PeepholeRule findRule(Script script, Block block, int index) {
+        var opcode = InstructionUtil.getCoreOpcode(block.getOpcode(index));
+        if (opcode == null) {
+            return null;
+        }
+        var candidates = rules.get(opcode);
+        if (candidates == null) {
+            return null;
+        }
+        for (var rule : candidates) {
+            if (rule.matches(script, block, index)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
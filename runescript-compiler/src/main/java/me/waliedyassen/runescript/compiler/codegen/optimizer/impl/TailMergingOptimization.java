@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import lombok.EqualsAndHashCode;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents the tail merging optimization, it merges the blocks which have the exact same instructions and do not
+ * fall through into the block after them, such as the switch cases which all end with the same return sequence. The
+ * first of the identical blocks in the layout is kept, and all of the branches and the switch cases which jump to the
+ * other blocks are retargeted to it.
+ * <p>
+ * A merged block which is fallen through into by the block before it is replaced by a branch to the kept block, so
+ * such blocks are only merged if they have more than a single instruction.
+ *
+ * @author Walied K. Yassen
+ */
+public final class TailMergingOptimization extends Optimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script) {
+        var graph = script.getGraph();
+        var kept = new HashMap<Sequence, Block>();
+        var merged = new LinkedHashMap<Block, Block>();
+        for (var block : graph) {
+            if (block.isFallingThrough()) {
+                continue;
+            }
+            var existing = kept.putIfAbsent(new Sequence(block), block);
+            if (existing == null) {
+                continue;
+            }
+            var previous = block.getPrevious();
+            if (previous != null && previous.isFallingThrough() && block.getSize() < 2) {
+                continue;
+            }
+            merged.put(block, existing);
+        }
+        if (merged.isEmpty()) {
+            return 0;
+        }
+        for (var block : graph) {
+            if (!merged.containsKey(block)) {
+                retarget(optimizer, script, block, merged);
+            }
+        }
+        for (var entry : merged.entrySet()) {
+            var block = entry.getKey();
+            optimizer.changed(block);
+            var previous = block.getPrevious();
+            if (previous != null && previous.isFallingThrough()) {
+                optimizer.changed(previous);
+                previous.add(InstructionUtil.encode(CoreOpcode.BRANCH), entry.getValue().getLabel().getId());
+                graph.update(previous);
+            }
+            graph.remove(block);
+        }
+        return merged.size();
+    }
+
+    /**
+     * Retargets all of the branches and the switch cases within the specified {@link Block block} which jump to a
+     * merged block to the block it was merged into.
+     *
+     * @param optimizer
+     *         the optimizer which is running this optimization.
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block to retarget the jumps of.
+     * @param merged
+     *         the block each merged block was merged into.
+     */
+    private static void retarget(Optimizer optimizer, Script script, Block block, Map<Block, Block> merged) {
+        var changed = false;
+        for (var index = 0; index < block.getSize(); index++) {
+            var opcode = block.getOpcode(index);
+            switch (InstructionUtil.getOperandType(opcode)) {
+                case LABEL:
+                    var replacement = merged.get(script.getBlock(block.getOperand(index)));
+                    if (replacement != null) {
+                        if (!changed) {
+                            optimizer.changed(block);
+                            changed = true;
+                        }
+                        block.set(index, opcode, replacement.getLabel().getId());
+                    }
+                    break;
+                case SWITCH:
+                    for (var switchCase : script.getSwitchTables().get(block.getOperand(index)).getCases()) {
+                        replacement = merged.get(script.getBlock(switchCase.getLabel().getId()));
+                        if (replacement != null) {
+                            if (!changed) {
+                                optimizer.changed(block);
+                                changed = true;
+                            }
+                            switchCase.setLabel(replacement.getLabel());
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (changed) {
+            script.getGraph().update(block);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+
+    /**
+     * Represents the instruction sequence of a block, two blocks with an equal sequence jump to the same blocks and
+     * leave the execution in the same state.
+     *
+     * @author Walied K. Yassen
+     */
+    @EqualsAndHashCode
+    private static final class Sequence {
+
+        /**
+         * The encoded opcodes of the instructions.
+         */
+        private final int[] opcodes;
+
+        /**
+         * The encoded operands of the instructions.
+         */
+        private final int[] operands;
+
+        /**
+         * Constructs a new {@link Sequence} type object instance.
+         *
+         * @param block
+         *         the block to copy the instructions from.
+         */
+        Sequence(Block block) {
+            opcodes = new int[block.getSize()];
+            operands = new int[block.getSize()];
+            for (var index = 0; index < block.getSize(); index++) {
+                opcodes[index] = block.getOpcode(index);
+                operands[index] = block.getOperand(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.BlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+/**
+ * Represents the unreachable code optimization, it removes all of the instructions which come after the first
+ * terminator instruction of a block, such as the default return that is generated after a block which already returned
+ * on every path.
+ * <p>
+ * A switch instruction is not a terminator, the execution continues into the default case when no key matches.
+ *
+ * @author Walied K. Yassen
+ */
+public final class UnreachableCodeOptimization extends BlockOptimization {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int run(Optimizer optimizer, Script script, Block block) {
+        var size = block.getSize();
+        for (var index = 0; index < size - 1; index++) {
+            if (InstructionUtil.isTerminator(block.getOpcode(index))) {
+                optimizer.changed(block);
+                block.truncate(index + 1);
+                script.getGraph().update(block);
+                return size - index - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(Optimizer optimizer, Script script) {
+        // NOOP
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.peephole;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+/**
+ * Represents the peephole rule which folds a conditional branch whose operands are all constants, the branch is
+ * replaced with an unconditional branch if the condition is always met, otherwise it is removed along with its
+ * operands.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class ConstantBranchRule implements PeepholeRule {
+
+    /**
+     * The push constant opcode of the compared operands stack type.
+     */
+    private final CoreOpcode push;
+
+    /**
+     * The amount of operands the conditional branch pops from the stack.
+     */
+    private final int operands;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(Script script, Block block, int index) {
+        if (index + operands >= block.getSize()) {
+            return false;
+        }
+        for (var offset = 1; offset < operands; offset++) {
+            if (!InstructionUtil.is(block.getOpcode(index + offset), push)) {
+                return false;
+            }
+        }
+        return evaluate(script, block, index) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void apply(Script script, Block block, int index) {
+        var branch = index + operands;
+        var taken = evaluate(script, block, index);
+        if (taken) {
+            block.set(branch, InstructionUtil.encode(CoreOpcode.BRANCH), block.getOperand(branch));
+        } else {
+            block.remove(branch);
+        }
+        for (var count = 0; count < operands; count++) {
+            block.remove(index);
+        }
+    }
+
+    /**
+     * Evaluates the condition of the conditional branch which comes after the constant operands at the specified
+     * index.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block which the instructions are located in.
+     * @param index
+     *         the index of the first constant operand.
+     *
+     * @return whether or not the branch is taken, or {@code null} if it cannot be evaluated.
+     */
+    private Boolean evaluate(Script script, Block block, int index) {
+        var opcode = InstructionUtil.getCoreOpcode(block.getOpcode(index + operands));
+        if (opcode == null) {
+            return null;
+        }
+        var left = getValue(script, block.getOperand(index));
+        var right = operands > 1 ? getValue(script, block.getOperand(index + 1)) : 0;
+        return evaluate(opcode, operands, left, right);
+    }
+
+    /**
+     * Gets the value of the constant with the specified operand.
+     *
+     * @param script
+     *         the script which the constant is located in.
+     * @param operand
+     *         the operand of the push constant instruction.
+     *
+     * @return the value of the constant.
+     */
+    private long getValue(Script script, int operand) {
+        return push == CoreOpcode.PUSH_LONG_CONSTANT ? script.getConstants().getLong(operand) : operand;
+    }
+
+    /**
+     * Evaluates the condition of the specified conditional branch opcode with the specified constant operands.
+     *
+     * @param opcode
+     *         the opcode of the conditional branch.
+     * @param operands
+     *         the amount of operands the branch was given.
+     * @param left
+     *         the value of the first operand.
+     * @param right
+     *         the value of the second operand, ignored if the branch only takes a single operand.
+     *
+     * @return whether or not the branch is taken, or {@code null} if it cannot be evaluated.
+     */
+    public static Boolean evaluate(CoreOpcode opcode, int operands, long left, long right) {
+        if (operands == 1) {
+            // we only fold the boolean values, it is up to the runtime how any other value is treated.
+            if (left != 0 && left != 1) {
+                return null;
+            }
+            switch (opcode) {
+                case BRANCH_IF_TRUE:
+                    return left == 1;
+                case BRANCH_IF_FALSE:
+                    return left == 0;
+                default:
+                    return null;
+            }
+        }
+        switch (opcode) {
+            case BRANCH_EQUALS:
+            case LONG_BRANCH_EQUALS:
+                return left == right;
+            case BRANCH_NOT:
+            case LONG_BRANCH_NOT:
+                return left != right;
+            case BRANCH_LESS_THAN:
+            case LONG_BRANCH_LESS_THAN:
+                return left < right;
+            case BRANCH_GREATER_THAN:
+            case LONG_BRANCH_GREATER_THAN:
+                return left > right;
+            case BRANCH_LESS_THAN_OR_EQUALS:
+            case LONG_BRANCH_LESS_THAN_OR_EQUALS:
+                return left <= right;
+            case BRANCH_GREATER_THAN_OR_EQUALS:
+            case LONG_BRANCH_GREATER_THAN_OR_EQUALS:
+                return left >= right;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.peephole;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+/**
+ * Represents the peephole rule which replaces a conditional branch to the block that is placed right after it with
+ * discards of the compared operands, since the execution continues into the same block whether the condition is met
+ * or not.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class FallThroughBranchRule implements PeepholeRule {
+
+    /**
+     * The discard opcode of the compared operands stack type.
+     */
+    private final CoreOpcode discard;
+
+    /**
+     * The amount of operands the conditional branch pops from the stack.
+     */
+    private final int operands;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(Script script, Block block, int index) {
+        return index == block.getSize() - 1 && block.getNext() != null && script.getBlock(block.getOperand(index)) == block.getNext();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void apply(Script script, Block block, int index) {
+        block.remove(index);
+        for (var count = 0; count < operands; count++) {
+            block.insert(index, InstructionUtil.encode(discard), 0);
+        }
+    }
+}
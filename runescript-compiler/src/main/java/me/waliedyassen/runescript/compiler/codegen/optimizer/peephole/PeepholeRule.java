@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.peephole;
+
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+/**
+ * Represents a single peephole rule, a rule matches a short sequence of instructions which starts with the opcode it
+ * was registered for in the {@link me.waliedyassen.runescript.compiler.codegen.optimizer.impl.PeepholeOptimization}
+ * and rewrites it into a cheaper sequence of instructions.
+ *
+ * @author Walied K. Yassen
+ */
+public interface PeepholeRule {
+
+    /**
+     * Checks whether or not the instructions starting at the specified index match this rule.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block which the instructions are located in.
+     * @param index
+     *         the index of the first instruction of the sequence.
+     *
+     * @return <code>true</code> if they match otherwise <code>false</code>.
+     */
+    boolean matches(Script script, Block block, int index);
+
+    /**
+     * Rewrites the instructions starting at the specified index, this is only called after {@link #matches(Script,
+     * Block, int)} returns <code>true</code> for the same index.
+     *
+     * @param script
+     *         the script which the block is located in.
+     * @param block
+     *         the block which the instructions are located in.
+     * @param index
+     *         the index of the first instruction of the sequence.
+     */
+    void apply(Script script, Block block, int index);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.peephole;
+
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+
+import static me.waliedyassen.runescript.compiler.codegen.InstructionUtil.is;
+
+/**
+ * Represents the peephole rule which removes a load of a local variable that is immediately stored back into the same
+ * local variable.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class SelfStoreRule implements PeepholeRule {
+
+    /**
+     * The pop local opcode of the same stack type as the push.
+     */
+    private final CoreOpcode store;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(Script script, Block block, int index) {
+        return index + 1 < block.getSize() && is(block.getOpcode(index + 1), store) && block.getOperand(index) == block.getOperand(index + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void apply(Script script, Block block, int index) {
+        block.remove(index + 1);
+        block.remove(index);
+    }
+}
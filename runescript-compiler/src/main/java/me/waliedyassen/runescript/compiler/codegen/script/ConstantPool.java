@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.script;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.Opcode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the side tables of a {@link Script}, instructions only carry an integer operand so any operand which does
+ * not fit in an integer is stored once in this pool and referred to by its index.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ConstantPool {
+
+    /**
+     * The string constants of the pool.
+     */
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * The string constants look-up map, used to store each string only once.
+     */
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    /**
+     * The long constants of the pool.
+     */
+    private long[] longs = new long[4];
+
+    /**
+     * The amount of used slots in the {@link #longs} array.
+     */
+    private int longsSize;
+
+    /**
+     * The symbol references of the pool, such as the variables and the scripts.
+     */
+    private final List<Object> references = new ArrayList<>();
+
+    /**
+     * The symbol references look-up map, used to store each reference only once.
+     */
+    private final Map<Object, Integer> referenceIds = new IdentityHashMap<>();
+
+    /**
+     * The non-core opcodes of the pool, such as the command opcodes.
+     */
+    private final List<Opcode> opcodes = new ArrayList<>();
+
+    /**
+     * The non-core opcodes look-up map, used to store each opcode only once.
+     */
+    private final Map<Opcode, Integer> opcodeIds = new IdentityHashMap<>();
+
+    /**
+     * Stores the specified string constant in the pool if it was not already stored.
+     *
+     * @param value
+     *         the string constant to store.
+     *
+     * @return the index of the string constant.
+     */
+    public int addString(String value) {
+        var id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the string constant at the specified index.
+     *
+     * @param index
+     *         the index of the string constant.
+     *
+     * @return the string constant.
+     */
+    public String getString(int index) {
+        return strings.get(index);
+    }
+
+    /**
+     * Gets all of the string constants of the pool ordered by their index.
+     *
+     * @return the string constants array.
+     */
+    public String[] getStrings() {
+        return strings.toArray(String[]::new);
+    }
+
+    /**
+     * Stores the specified long constant in the pool if it was not already stored.
+     *
+     * @param value
+     *         the long constant to store.
+     *
+     * @return the index of the long constant.
+     */
+    public int addLong(long value) {
+        for (var index = 0; index < longsSize; index++) {
+            if (longs[index] == value) {
+                return index;
+            }
+        }
+        if (longsSize == longs.length) {
+            longs = Arrays.copyOf(longs, longsSize << 1);
+        }
+        longs[longsSize] = value;
+        return longsSize++;
+    }
+
+    /**
+     * Gets the long constant at the specified index.
+     *
+     * @param index
+     *         the index of the long constant.
+     *
+     * @return the long constant.
+     */
+    public long getLong(int index) {
+        return longs[index];
+    }
+
+    /**
+     * Gets all of the long constants of the pool ordered by their index.
+     *
+     * @return the long constants array.
+     */
+    public long[] getLongs() {
+        return Arrays.copyOf(longs, longsSize);
+    }
+
+    /**
+     * Stores the specified symbol reference in the pool if it was not already stored.
+     *
+     * @param reference
+     *         the symbol reference to store.
+     *
+     * @return the index of the symbol reference.
+     */
+    public int addReference(Object reference) {
+        var id = referenceIds.get(reference);
+        if (id == null) {
+            id = references.size();
+            references.add(reference);
+            referenceIds.put(reference, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the symbol reference at the specified index.
+     *
+     * @param index
+     *         the index of the symbol reference.
+     *
+     * @return the symbol reference.
+     */
+    public Object getReference(int index) {
+        return references.get(index);
+    }
+
+    /**
+     * Stores the specified non-core opcode in the pool if it was not already stored.
+     *
+     * @param opcode
+     *         the opcode to store.
+     *
+     * @return the index of the opcode.
+     */
+    public int addOpcode(Opcode opcode) {
+        var id = opcodeIds.get(opcode);
+        if (id == null) {
+            id = opcodes.size();
+            opcodes.add(opcode);
+            opcodeIds.put(opcode, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the non-core opcode at the specified index.
+     *
+     * @param index
+     *         the index of the opcode.
+     *
+     * @return the {@link Opcode} object.
+     */
+    public Opcode getOpcode(int index) {
+        return opcodes.get(index);
+    }
+}
@@ -10,6 +10,7 @@ package me.waliedyassen.runescript.compiler.codegen.script;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.block.ControlFlowGraph;
 import me.waliedyassen.runescript.compiler.codegen.block.Label;
 import me.waliedyassen.runescript.compiler.codegen.local.Local;
 import me.waliedyassen.runescript.compiler.codegen.sw.SwitchTable;
@@ -32,10 +33,10 @@ public final class Script {
     private final String name;
 
     /**
-     * The blocks that are registered within our script.
+     * The control-flow graph of the script blocks.
      */
     @Getter
-    private final Map<Label, Block> blocks;
+    private final ControlFlowGraph graph;
 
     /**
      * A map of all the script parameters.
@@ -56,25 +57,58 @@ public final class Script {
     private final List<SwitchTable> switchTables;
 
     /**
-     * Checks whether or not the specified labels are next to each other.
+     * The constant pool of the script, holds the operands which do not fit into the instruction operand.
+     */
+    @Getter
+    private final ConstantPool constants;
+
+    /**
+     * A list of all the script labels ordered by their id.
+     */
+    @Getter
+    private final List<Label> labels;
+
+    /**
+     * Gets the amount of local slots of the specified {@link StackType} which are used by the parameters and the local
+     * variables of the script, local variables may share the same slot so this is not the amount of local variables.
      *
-     * @param first
-     *         the first label to check if the second label is after.
-     * @param second
-     *         the second label to check if its after the first label.
+     * @param stackType
+     *         the stack type of the locals.
      *
-     * @return <code>true</code> if they are next to each other otherwise <code>false</code>.
+     * @return the amount of local slots.
      */
-    public boolean isNextTo(Label first, Label second) {
-        // TODO: Perhaps find a better way to do this? I am not sure if it requires changing the blocks field type.
-        var check_next = false;
-        for (var label : blocks.keySet()) {
-            if (check_next) {
-                return second == label;
-            } else if (label == first) {
-                check_next = true;
-            }
+    public int getLocalCount(StackType stackType) {
+        var count = 0;
+        for (var local : parameters.getOrDefault(stackType, Collections.emptyList())) {
+            count = Math.max(count, local.getIndex() + 1);
+        }
+        for (var local : variables.getOrDefault(stackType, Collections.emptyList())) {
+            count = Math.max(count, local.getIndex() + 1);
         }
-        return false;
+        return count;
+    }
+
+    /**
+     * Gets the {@link Label} with the specified id.
+     *
+     * @param id
+     *         the id of the label.
+     *
+     * @return the {@link Label} object.
+     */
+    public Label getLabel(int id) {
+        return labels.get(id);
+    }
+
+    /**
+     * Gets the {@link Block} of the label with the specified id.
+     *
+     * @param id
+     *         the id of the block label.
+     *
+     * @return the {@link Block} object or {@code null} if the block was removed.
+     */
+    public Block getBlock(int id) {
+        return graph.get(id);
     }
 }
@@ -7,8 +7,9 @@
  */
 package me.waliedyassen.runescript.compiler.codegen.sw;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import me.waliedyassen.runescript.compiler.codegen.block.Label;
 
 /**
@@ -16,7 +17,7 @@ import me.waliedyassen.runescript.compiler.codegen.block.Label;
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 public final class SwitchCase {
 
     /**
@@ -29,5 +30,6 @@ public final class SwitchCase {
      * The switch case label.
      */
     @Getter
-    private final Label label;
+    @Setter
+    private Label label;
 }
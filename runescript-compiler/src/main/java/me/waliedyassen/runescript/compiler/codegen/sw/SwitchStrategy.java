@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.sw;
+
+/**
+ * Represents the strategies a switch statement can be lowered with.
+ *
+ * @author Walied K. Yassen
+ */
+public enum SwitchStrategy {
+
+    /**
+     * The switch is lowered to a chain of equality branches, one for each key.
+     */
+    COMPARE_CHAIN,
+
+    /**
+     * The switch is lowered to a table which is indexed by the key offset from the lowest key.
+     */
+    DENSE_TABLE,
+
+    /**
+     * The switch is lowered to a hash table which is looked-up by the key.
+     */
+    HASH_TABLE;
+
+    /**
+     * The maximum amount of keys a switch can have to be lowered to a {@link #COMPARE_CHAIN}.
+     */
+    public static final int MAX_COMPARE_KEYS = 3;
+
+    /**
+     * The minimum percentage of the key range that must be used by keys for a switch to be lowered to a {@link
+     * #DENSE_TABLE}.
+     */
+    public static final int MIN_DENSE_PERCENTAGE = 50;
+
+    /**
+     * Selects the strategy to lower a switch with the specified cases with.
+     *
+     * @param cases
+     *         the cases of the switch.
+     *
+     * @return the selected {@link SwitchStrategy}.
+     */
+    public static SwitchStrategy select(SwitchCase[] cases) {
+        var count = 0;
+        var min = Long.MAX_VALUE;
+        var max = Long.MIN_VALUE;
+        for (var switchCase : cases) {
+            for (var key : switchCase.getKeys()) {
+                count++;
+                min = Math.min(min, key);
+                max = Math.max(max, key);
+            }
+        }
+        if (count <= MAX_COMPARE_KEYS) {
+            return COMPARE_CHAIN;
+        }
+        var range = max - min + 1;
+        if (range <= Short.MAX_VALUE && count * 100L >= range * MIN_DENSE_PERCENTAGE) {
+            return DENSE_TABLE;
+        }
+        return HASH_TABLE;
+    }
+}
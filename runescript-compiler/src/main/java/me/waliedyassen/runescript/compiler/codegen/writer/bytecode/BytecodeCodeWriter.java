@@ -7,12 +7,15 @@
  */
 package me.waliedyassen.runescript.compiler.codegen.writer.bytecode;
 
-import me.waliedyassen.runescript.compiler.codegen.block.Block;
-import me.waliedyassen.runescript.compiler.codegen.block.Label;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
 import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.opcode.Opcode;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
 import me.waliedyassen.runescript.compiler.codegen.sw.SwitchCase;
-import me.waliedyassen.runescript.compiler.codegen.sw.SwitchTable;
+import me.waliedyassen.runescript.compiler.codegen.sw.SwitchStrategy;
 import me.waliedyassen.runescript.compiler.codegen.writer.CodeWriter;
 import me.waliedyassen.runescript.compiler.stack.StackType;
 
@@ -24,6 +27,7 @@ import java.util.*;
  *
  * @author Walied K. Yassen
  */
+@RequiredArgsConstructor
 public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
 
     /**
@@ -31,116 +35,138 @@ public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
      */
     private static final List<Local> EMPTY = Collections.emptyList();
 
+    /**
+     * The instruction map which contains the code numbers of the core opcodes.
+     */
+    private final InstructionMap instructionMap;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public BytecodeScript write(Script script) {
         // Build the address table of the blocks.
-        final var addressTable = buildAddressTable(script.getBlocks());
-        // Build the index table of the local variables.
-        final var localTable = buildLocalTable(script.getParameters(), script.getVariables());
+        final var addressTable = buildAddressTable(script);
         // Calculate the local variables and  parameters count.
         var numIntParameters = script.getParameters().getOrDefault(StackType.INT, EMPTY).size();
         var numStringParameters = script.getParameters().getOrDefault(StackType.STRING, EMPTY).size();
         var numLongParameters = script.getParameters().getOrDefault(StackType.LONG, EMPTY).size();
-        var numIntLocals = script.getVariables().getOrDefault(StackType.INT, EMPTY).size() + numIntParameters;
-        var numStringLocals = script.getVariables().getOrDefault(StackType.STRING, EMPTY).size() + numStringParameters;
-        var numLongLocals = script.getVariables().getOrDefault(StackType.LONG, EMPTY).size() + numLongParameters;
-        //
-        var switchTables = new LinkedList<Hashtable<Integer, Integer>>();
-        final var instructions = new ArrayList<BytecodeInstruction>();
-        for (var label : script.getBlocks().keySet()) {
-            var $block = script.getBlocks().get(label);
-            for (var $instruction : $block.getInstructions()) {
-                var address = instructions.size();
-                var operand = $instruction.getOperand();
-                if (operand instanceof Label) {
-                    operand = addressTable.get(operand) - address - 1;
-                } else if (operand instanceof SwitchTable) {
-                    var jumps = new Hashtable<Integer, Integer>();
-                    for (SwitchCase $case : ((SwitchTable) operand).getCases()) {
-                        var jump = addressTable.get($case.getLabel()) - address - 1;
-                        for (var key : $case.getKeys()) {
-                            jumps.put(key, jump);
+        var numIntLocals = script.getLocalCount(StackType.INT);
+        var numStringLocals = script.getLocalCount(StackType.STRING);
+        var numLongLocals = script.getLocalCount(StackType.LONG);
+        // Count the instructions of the script.
+        var count = 0;
+        for (var block : script.getGraph()) {
+            count += block.getSize();
+        }
+        var switchTables = new ArrayList<Map<Integer, Integer>>();
+        var opcodes = new int[count];
+        var operands = new int[count];
+        var operandTypes = new byte[count];
+        var address = 0;
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++, address++) {
+                var encoded = block.getOpcode(index);
+                var operand = block.getOperand(index);
+                var opcode = lookupOpcode(script, encoded);
+                var operandType = opcode.isLarge() ? BytecodeScript.OPERAND_INT : BytecodeScript.OPERAND_BYTE;
+                switch (InstructionUtil.getOperandType(encoded)) {
+                    case LABEL:
+                        operand = addressTable[operand] - address - 1;
+                        break;
+                    case SWITCH:
+                        var cases = script.getSwitchTables().get(operand).getCases();
+                        var denseOpcode = instructionMap.lookup(CoreOpcode.SWITCH_DENSE);
+                        var dense = denseOpcode != null && SwitchStrategy.select(cases) == SwitchStrategy.DENSE_TABLE;
+                        Map<Integer, Integer> jumps = dense ? new TreeMap<>() : new Hashtable<>();
+                        for (SwitchCase $case : cases) {
+                            var jump = addressTable[$case.getLabel().getId()] - address - 1;
+                            for (var key : $case.getKeys()) {
+                                jumps.put(key, jump);
+                            }
                         }
-                    }
-                    operand = switchTables.size();
-                    switchTables.add(jumps);
-                } else if (operand instanceof Local) {
-                    operand = localTable.get(operand);
-                } else if (operand instanceof Integer) {
-                    // NOOP
-                } else if (operand instanceof String) {
-                    // NOOP
-                } else if (operand instanceof Long) {
-                    // NOOP
-                } else {
-                    throw new UnsupportedOperationException("Unsupported operand type: " + operand + ", for opcode: " + $instruction.getOpcode());
-                }
-                if (operand == null) {
-                    throw new IllegalStateException("Null operands are not allowed");
+                        if (dense) {
+                            opcode = denseOpcode;
+                            operandType = opcode.isLarge() ? BytecodeScript.OPERAND_INT : BytecodeScript.OPERAND_BYTE;
+                            jumps = buildDenseTable((TreeMap<Integer, Integer>) jumps);
+                        }
+                        operand = switchTables.size();
+                        switchTables.add(jumps);
+                        break;
+                    case STRING:
+                        operandType = BytecodeScript.OPERAND_STRING;
+                        break;
+                    case LONG:
+                        operandType = BytecodeScript.OPERAND_LONG;
+                        break;
+                    case REFERENCE:
+                        throw new UnsupportedOperationException("Unsupported operand type: " + script.getConstants().getReference(operand) + ", for opcode: " + opcode);
+                    default:
+                        // NOOP
+                        break;
                 }
-                instructions.add(new BytecodeInstruction($instruction.getOpcode().getCode(), $instruction.getOpcode().isLarge(), operand));
+                opcodes[address] = opcode.getCode();
+                operands[address] = operand;
+                operandTypes[address] = operandType;
             }
         }
         // Create the container object and return it.
-        return new BytecodeScript(script.getName(), numIntParameters, numStringParameters, numLongParameters, numIntLocals, numStringLocals, numLongLocals, instructions.toArray(BytecodeInstruction[]::new), switchTables);
+        var constants = script.getConstants();
+        return new BytecodeScript(script.getName(), numIntParameters, numStringParameters, numLongParameters, numIntLocals, numStringLocals, numLongLocals, opcodes, operands, operandTypes, constants.getStrings(), constants.getLongs(), switchTables);
     }
 
     /**
-     * Builds the index table of the specified local variables nad parameters.
+     * Builds a dense switch table from the specified sorted switch table, the dense table contains every key from the
+     * lowest to the highest key in ascending order, and the keys which are not present in the sorted table jump to the
+     * instruction which comes right after the switch instruction.
      *
-     * @param parameters
-     *         the parameters to  build the index table for.
-     * @param variables
-     *         the local variables to build the index table for.
+     * @param sorted
+     *         the sorted switch table to build the dense table from.
      *
-     * @return the index table as a {@link Map} object.
+     * @return the built dense switch table.
      */
-    private Map<Local, Integer> buildLocalTable(Map<StackType, List<Local>> parameters, Map<StackType, List<Local>> variables) {
-        final Map<StackType, List<Local>>[] combined = new Map[]{parameters, variables};
-        var table = new HashMap<Local, Integer>();
-        var numInts = 0;
-        var numStrings = 0;
-        var numLongs = 0;
-        for (var map : combined) {
-            for (var stackType : map.keySet()) {
-                for (var local : map.get(stackType)) {
-                    switch (stackType) {
-                        case INT:
-                            table.put(local, numInts++);
-                            break;
-                        case STRING:
-                            table.put(local, numStrings++);
-                            break;
-                        case LONG:
-                            table.put(local, numLongs++);
-                            break;
-                    }
-                }
-            }
+    private static Map<Integer, Integer> buildDenseTable(TreeMap<Integer, Integer> sorted) {
+        var dense = new LinkedHashMap<Integer, Integer>();
+        // the key is iterated as a long, so the table does not wrap around when the highest key is Integer.MAX_VALUE.
+        for (long key = sorted.firstKey(), last = sorted.lastKey(); key <= last; key++) {
+            dense.put((int) key, sorted.getOrDefault((int) key, 0));
         }
-        return table;
+        return dense;
     }
 
     /**
-     * Builds the address table for the specified map of {@link Block blocks}.
+     * Looks-up the {@link Opcode} of the specified encoded instruction opcode.
      *
-     * @param blocks
-     *         the map of blocks to build the address table for.
+     * @param script
+     *         the script which the instruction is located in.
+     * @param opcode
+     *         the encoded instruction opcode.
      *
-     * @return the address table as a {@link Map} object.
+     * @return the {@link Opcode} object.
      */
-    private Map<Label, Integer> buildAddressTable(Map<Label, Block> blocks) {
-        var table = new HashMap<Label, Integer>();
+    private Opcode lookupOpcode(Script script, int opcode) {
+        if (InstructionUtil.isCore(opcode)) {
+            return instructionMap.lookup(InstructionUtil.getCoreOpcode(opcode));
+        }
+        return script.getConstants().getOpcode(InstructionUtil.decodeCommand(opcode));
+    }
+
+    /**
+     * Builds the address table for the specified {@link Script script}.
+     *
+     * @param script
+     *         the script to build the address table for.
+     *
+     * @return the address of each block indexed by the block label id.
+     */
+    private int[] buildAddressTable(Script script) {
+        var table = new int[script.getLabels().size()];
+        Arrays.fill(table, -1);
         var address = 0;
-        for (var label : blocks.keySet()) {
-            var block = blocks.get(label);
-            table.put(label, address);
-            address += block.getInstructions().size();
+        for (var block : script.getGraph()) {
+            table[block.getLabel().getId()] = address;
+            address += block.getSize();
         }
         return table;
     }
 }
-
@@ -13,8 +13,8 @@ import lombok.RequiredArgsConstructor;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Hashtable;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a byte code script.
@@ -24,6 +24,26 @@ import java.util.LinkedList;
 @RequiredArgsConstructor
 public final class BytecodeScript {
 
+    /**
+     * The operand type of an instruction which has a byte operand.
+     */
+    public static final byte OPERAND_BYTE = 0;
+
+    /**
+     * The operand type of an instruction which has an integer operand.
+     */
+    public static final byte OPERAND_INT = 1;
+
+    /**
+     * The operand type of an instruction which has a string constant operand.
+     */
+    public static final byte OPERAND_STRING = 2;
+
+    /**
+     * The operand type of an instruction which has a long constant operand.
+     */
+    public static final byte OPERAND_LONG = 3;
+
     /**
      * The name of the script.
      */
@@ -67,16 +87,40 @@ public final class BytecodeScript {
     private final int numLongLocals;
 
     /**
-     * The instructions of the script.
+     * The opcode code numbers of the instructions.
+     */
+    @Getter
+    private final int[] opcodes;
+
+    /**
+     * The operands of the instructions, the string and long constant operands are indices in their constant tables.
+     */
+    @Getter
+    private final int[] operands;
+
+    /**
+     * The operand types of the instructions.
+     */
+    @Getter
+    private final byte[] operandTypes;
+
+    /**
+     * The string constants table of the script.
+     */
+    @Getter
+    private final String[] strings;
+
+    /**
+     * The long constants table of the script.
      */
     @Getter
-    private final BytecodeInstruction[] instructions;
+    private final long[] longs;
 
     /**
      * The switch tables of the script.
      */
     @Getter
-    private final LinkedList<Hashtable<Integer, Integer>> switchTables;
+    private final List<Map<Integer, Integer>> switchTables;
 
     /**
      * Writes the byte code data to the specified {@link OutputStream stream}.
@@ -91,23 +135,26 @@ public final class BytecodeScript {
         try (var data = new DataOutputStream(stream)) {
             // write the name of the script.
             writeString(data, name);
-            for (var instruction : instructions) {
-                var operand = instruction.getOperand();
-                data.writeShort(instruction.getOpcode());
-                if (operand instanceof String) {
-                    writeString(data, (String) operand);
-                } else if (operand instanceof Long) {
-                    data.writeLong((long) operand);
-                } else {
-                    if (instruction.isLarge()) {
-                        data.writeInt((int) operand);
-                    } else {
-                        data.writeByte((int) operand);
-                    }
+            for (var index = 0; index < opcodes.length; index++) {
+                var operand = operands[index];
+                data.writeShort(opcodes[index]);
+                switch (operandTypes[index]) {
+                    case OPERAND_STRING:
+                        writeString(data, strings[operand]);
+                        break;
+                    case OPERAND_LONG:
+                        data.writeLong(longs[operand]);
+                        break;
+                    case OPERAND_INT:
+                        data.writeInt(operand);
+                        break;
+                    default:
+                        data.writeByte(operand);
+                        break;
                 }
             }
             // write the instructions of the script.
-            data.writeInt(instructions.length);
+            data.writeInt(opcodes.length);
             // write the locals count of the script.
             data.writeShort(numIntLocals);
             data.writeShort(numStringLocals);
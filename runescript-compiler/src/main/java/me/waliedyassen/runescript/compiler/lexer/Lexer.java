@@ -85,6 +85,16 @@ public final class Lexer {
         return tokens.get(index - 1);
     }
 
+    /**
+     * Moves the pointer index one step back so the previous {@link Token token} would be returned by the next call to
+     * {@link #take()}.
+     */
+    public void rewind() {
+        if (index > 0) {
+            index--;
+        }
+    }
+
     /**
      * Getes the token at is located at {@code n} steps from the current index.
      *
@@ -15,6 +15,7 @@ import me.waliedyassen.runescript.compiler.util.Operator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Represents the symbol table for the lexical phase of the compilation process, it holds all the symbols that we need
@@ -276,4 +277,17 @@ public final class LexicalTable {
         return operatorSize;
     }
 
+    /**
+     * Builds a textual signature of all of the registered symbols, in a stable order regardless of the order they were
+     * registered in. Two tables that tokenize any source the same way have the same signature.
+     *
+     * @return the signature of the table.
+     */
+    public String getSignature() {
+        var builder = new StringBuilder();
+        new TreeMap<>(keywords).forEach((word, kind) -> builder.append('k').append(word).append('=').append(kind).append(';'));
+        new TreeMap<>(separators).forEach((character, kind) -> builder.append('s').append(character).append('=').append(kind).append(';'));
+        new TreeMap<>(operators).forEach((sequence, kind) -> builder.append('o').append(sequence).append('=').append(kind).append(';'));
+        return builder.toString();
+    }
 }
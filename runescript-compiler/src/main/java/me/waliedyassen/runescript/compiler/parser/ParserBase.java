@@ -7,6 +7,7 @@
  */
 package me.waliedyassen.runescript.compiler.parser;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.commons.document.Element;
 import me.waliedyassen.runescript.commons.document.Range;
@@ -14,6 +15,8 @@ import me.waliedyassen.runescript.compiler.lexer.Lexer;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.lexer.token.Token;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -29,6 +32,12 @@ public abstract class ParserBase {
      */
     private final Stack<Range> ranges = new Stack<>();
 
+    /**
+     * The syntax errors that the parser has recovered from so far.
+     */
+    @Getter
+    private final List<SyntaxError> errors = new ArrayList<>();
+
     /**
      * The lexical phase result object.
      */
@@ -168,6 +177,54 @@ public abstract class ParserBase {
         return range;
     }
 
+    /**
+     * Gets the current depth of the {@link #ranges} stack. The returned value should be passed to {@link
+     * #recover(SyntaxError, int)} when recovering from an error that was thrown after this call.
+     *
+     * @return the current depth of the {@link Range} stack.
+     */
+    protected int rangeDepth() {
+        return ranges.size();
+    }
+
+    /**
+     * Records the specified {@link SyntaxError} and discards all of the {@link Range} objects that were pushed by the
+     * rules which have failed, leaving the stack with the specified {@code depth}.
+     *
+     * @param error
+     *         the syntax error that we are recovering from.
+     * @param depth
+     *         the depth of the {@link Range} stack before the failing rule was attempted.
+     */
+    protected void recover(SyntaxError error, int depth) {
+        errors.add(error);
+        while (ranges.size() > depth) {
+            ranges.pop();
+        }
+    }
+
+    /**
+     * Skips all of the next tokens until the next token {@link Kind kind} is one of the specified {@link Kind kinds}
+     * or until we reach the end of the file.
+     *
+     * @param kinds
+     *         the token kinds to stop at, the matching token will not be consumed.
+     */
+    protected void skipUntil(Kind... kinds) {
+        while (true) {
+            var kind = peekKind();
+            if (kind == Kind.EOF) {
+                return;
+            }
+            for (var stop : kinds) {
+                if (kind == stop) {
+                    return;
+                }
+            }
+            consume();
+        }
+    }
+
     /**
      * Throws a syntax error indicating a mismatched grammar rule.
      *
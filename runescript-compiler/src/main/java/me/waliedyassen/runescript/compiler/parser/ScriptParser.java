@@ -29,6 +29,7 @@ import me.waliedyassen.runescript.compiler.util.VariableScope;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static me.waliedyassen.runescript.compiler.lexer.token.Kind.*;
 
@@ -40,6 +41,12 @@ import static me.waliedyassen.runescript.compiler.lexer.token.Kind.*;
  */
 public final class ScriptParser extends ParserBase {
 
+    /**
+     * The version of the grammar, it must be bumped whenever the parser produces a different tree for the same tokens,
+     * so the trees which were cached by an older parser are never used.
+     */
+    public static final int GRAMMAR_VERSION = 1;
+
     // TODO: Detailed documentation
 
     /**
@@ -52,6 +59,40 @@ public final class ScriptParser extends ParserBase {
         super(lexer);
     }
 
+    /**
+     * Attempts to match all of the remaining tokens to a list of {@link AstScript} objects. Any syntax error that occurs
+     * within a script header causes the parser to skip to the next script header, the errors are collected in {@link
+     * #getErrors()} instead of being thrown so that we can report all of the errors at once.
+     *
+     * @return the list of the parsed {@link AstScript} objects.
+     */
+    public List<AstScript> scripts() {
+        var scripts = new ArrayList<AstScript>();
+        scripts(scripts::add);
+        return scripts;
+    }
+
+    /**
+     * Attempts to match all of the remaining tokens to {@link AstScript} objects, each script is passed to the
+     * specified consumer as soon as it is parsed so the caller does not have to keep all of the trees at once. The
+     * errors are handled the same way as in {@link #scripts()}.
+     *
+     * @param consumer
+     *         the consumer to pass each of the parsed {@link AstScript} objects to.
+     */
+    public void scripts(Consumer<AstScript> consumer) {
+        while (peekKind() != EOF) {
+            var depth = rangeDepth();
+            try {
+                consumer.accept(script());
+            } catch (SyntaxError error) {
+                recover(error, depth);
+                unreadHeaderStart();
+                skipUntil(LBRACKET, HASH);
+            }
+        }
+    }
+
     /**
      * Attempts to match all of the next tokens to a {@link AstScript} object.
      *
@@ -396,11 +437,44 @@ public final class ScriptParser extends ParserBase {
     private AstStatement[] statementsList() {
         var list = new ArrayList<AstStatement>();
         while (isStatement()) {
-            list.add(statement());
+            var depth = rangeDepth();
+            try {
+                list.add(statement());
+            } catch (SyntaxError error) {
+                recover(error, depth);
+                synchronize();
+            }
         }
         return list.toArray(new AstStatement[0]);
     }
 
+    /**
+     * Skips all of the tokens that are left from a statement which we have failed to parse. The parsing is resumed
+     * after the next statement terminator or at the next block end or script header, whichever comes first.
+     */
+    private void synchronize() {
+        if (lexer.previous().getKind() == SEMICOLON) {
+            return;
+        }
+        unreadHeaderStart();
+        skipUntil(SEMICOLON, RBRACE, LBRACKET, HASH);
+        consumeIf(SEMICOLON);
+    }
+
+    /**
+     * Puts back the last consumed token if it was the start of a script header, this happens when a rule fails because
+     * it has reached the next script header, such as an unclosed block at the end of a script.
+     */
+    private void unreadHeaderStart() {
+        if (lexer.peek() == null) {
+            return;
+        }
+        var kind = lexer.previous().getKind();
+        if (kind == LBRACKET || kind == HASH) {
+            lexer.rewind();
+        }
+    }
+
     /**
      * Attempts to match the next token set to a return-statement rule.
      *
@@ -751,7 +825,7 @@ public final class ScriptParser extends ParserBase {
         if (types.size() == 1) {
             return types.get(0);
         } else {
-            return new TupleType(types.toArray(PrimitiveType[]::new));
+            return TupleType.of(types.toArray(PrimitiveType[]::new));
         }
     }
 
@@ -9,7 +9,7 @@ package me.waliedyassen.runescript.compiler.parser;
 
 import lombok.Getter;
 import me.waliedyassen.runescript.commons.document.Range;
-import me.waliedyassen.runescript.compiler.lexer.token.Token;
+import me.waliedyassen.runescript.compiler.CompilerError;
 
 /**
  * Represents a syntax error. The syntax error occurs when the input text sequence does not match the grammar rule or is
@@ -17,7 +17,7 @@ import me.waliedyassen.runescript.compiler.lexer.token.Token;
  *
  * @author Walied K. Yassen
  */
-public class SyntaxError extends RuntimeException {
+public class SyntaxError extends CompilerError {
 
     /**
      * The serialisation key of the {@link SyntaxError} type.
@@ -39,7 +39,7 @@ public class SyntaxError extends RuntimeException {
      *         the error message explaining why the error has occurred.
      */
     public SyntaxError(Range token, String message) {
-        super(message);
+        super(token, message);
         this.token = token;
     }
 }
@@ -7,18 +7,21 @@
  */
 package me.waliedyassen.runescript.compiler.semantics;
 
-import jdk.jfr.Threshold;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.compiler.CompilerError;
 import me.waliedyassen.runescript.compiler.ast.AstNode;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.semantics.typecheck.DeclarationChecking;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.PreTypeChecking;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.TypeChecking;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Represents the semantic analysis checker. It checks the source code for any semantic errors.
@@ -28,6 +31,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public final class SemanticChecker {
 
+    /**
+     * The minimum amount of scripts that are required to type check the scripts in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 16;
+
     /**
      * The generated errors during this semantic checker life time.
      */
@@ -47,19 +55,65 @@ public final class SemanticChecker {
      *         the scripts to perform the pre semantic checking on.
      */
     public void executePre(Iterable<AstScript> scripts) {
-        var pre = new PreTypeChecking(this, symbolTable);
+        var pre = new PreTypeChecking(this, symbolTable, true);
         scripts.forEach(tree -> tree.accept(pre));
     }
 
     /**
-     * Executes the semantic checking for the specified {@link AstNode node}.
+     * Declares the signatures of all of the scripts that are stored within the specified {@link AstArena arena}, which
+     * is the part of {@link #executePre(Iterable)} that needs all of the scripts at once. The code of the scripts is
+     * not read from the arena, it is checked later one script at a time through {@link #check(AstScript)}.
+     *
+     * @param arena
+     *         the arena which the scripts are stored in.
+     */
+    public void declare(AstArena arena) {
+        var pre = new PreTypeChecking(this, symbolTable, false);
+        arena.walk(new DeclarationChecking(pre, arena));
+    }
+
+    /**
+     * Performs the remaining pre semantic checking and the semantic checking for the specified {@link AstScript
+     * script}, whose signature must have been declared through {@link #declare(AstArena)}.
+     *
+     * @param script
+     *         the script to perform the semantic checking on.
+     *
+     * @return <code>true</code> if the script had no errors otherwise <code>false</code>.
+     */
+    public boolean check(AstScript script) {
+        var count = errors.size();
+        script.accept(new PreTypeChecking(this, symbolTable, false));
+        var checker = new TypeChecking(symbolTable);
+        script.accept(checker);
+        errors.addAll(checker.getErrors());
+        return errors.size() == count;
+    }
+
+    /**
+     * Executes the semantic checking for the specified {@link AstNode node}. This must be called after {@link
+     * #executePre(Iterable)}, at that point all of the script signatures are registered and the symbol table is only
+     * read from, which allows us to type check the scripts in parallel. The errors are reported in the same order as if
+     * the scripts were checked sequentially.
      *
      * @param scripts
      *         the scripts to perform the semantic checking on.
      */
     public void execute(Iterable<AstScript> scripts) {
-        var checker = new TypeChecking(this, symbolTable);
-        scripts.forEach(tree -> tree.accept(checker));
+        var list = new ArrayList<AstScript>();
+        scripts.forEach(list::add);
+        // each script is checked by its own TypeChecking, which is confined to the thread that checks the script.
+        var results = new ArrayList<List<SemanticError>>(Collections.nCopies(list.size(), null));
+        var stream = IntStream.range(0, list.size());
+        if (list.size() >= PARALLEL_THRESHOLD) {
+            stream = stream.parallel();
+        }
+        stream.forEach(index -> {
+            var checker = new TypeChecking(symbolTable);
+            list.get(index).accept(checker);
+            results.set(index, checker.getErrors());
+        });
+        results.forEach(errors::addAll);
     }
 
     /**
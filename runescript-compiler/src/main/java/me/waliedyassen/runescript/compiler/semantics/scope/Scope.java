@@ -7,7 +7,7 @@
  */
 package me.waliedyassen.runescript.compiler.semantics.scope;
 
-import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.stack.StackType;
 import me.waliedyassen.runescript.compiler.symbol.impl.ArrayInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableDomain;
 import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableInfo;
@@ -23,7 +23,6 @@ import java.util.Map;
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
 public final class Scope {
 
     /**
@@ -42,7 +41,36 @@ public final class Scope {
     private final Map<String, ArrayInfo> arrays = new LinkedHashMap<>();
 
     /**
-     * Declares a new local variable with the specified {@code name} and {@code type} in this scope.
+     * The next free local variable slot of each stack type, this is shared between all of the scopes of the same
+     * script.
+     */
+    private final int[] slots;
+
+    /**
+     * The amount of arrays that were declared in the parent scopes at the time this scope was created.
+     */
+    private final int arrayBase;
+
+    /**
+     * Constructs a new {@link Scope} type object instance.
+     *
+     * @param parent
+     *         the parent scope of this scope, or {@code null} if it is the script scope.
+     */
+    public Scope(Scope parent) {
+        this.parent = parent;
+        if (parent == null) {
+            slots = new int[StackType.values().length];
+            arrayBase = 0;
+        } else {
+            slots = parent.slots;
+            arrayBase = parent.getArrayCount();
+        }
+    }
+
+    /**
+     * Declares a new local variable with the specified {@code name} and {@code type} in this scope. The variable is
+     * assigned the next free slot of its stack type, which the code generator uses directly.
      *
      * @param name
      *         the name of the variable to declare.
@@ -52,7 +80,7 @@ public final class Scope {
      * @return the declared variable information.
      */
     public VariableInfo declareLocalVariable(String name, Type type) {
-        var info = new VariableInfo(VariableDomain.LOCAL, name, type);
+        var info = new VariableInfo(VariableDomain.LOCAL, name, type, slots[type.getStackType().ordinal()]++);
         variables.put(name, info);
         return info;
     }
@@ -87,7 +115,7 @@ public final class Scope {
         if (getArrayCount() >= 5) {
             throw new IllegalStateException("You cannot have more than 5 arrays in the same scope");
         }
-        var info = new ArrayInfo(arrays.size(), name, type);
+        var info = new ArrayInfo(getArrayCount(), name, type);
         arrays.put(name, info);
         return info;
     }
@@ -114,12 +142,7 @@ public final class Scope {
      * @return the current declared arrays count.
      */
     public int getArrayCount() {
-        var scope = this;
-        var count = 0;
-        do {
-            count += scope.arrays.size();
-        } while ((scope = scope.parent) != null);
-        return count;
+        return arrayBase + arrays.size();
     }
 
     /**
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.semantics.typecheck;
+
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaReader;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArenaVisitor;
+import me.waliedyassen.runescript.compiler.ast.arena.AstKind;
+
+/**
+ * Declares the signatures of all of the scripts that are stored within an {@link AstArena}, this is the flat equivalent
+ * of the declaration part of the {@link PreTypeChecking}. Only the headers of the scripts are read from the arena, the
+ * code of the scripts is never visited or turned into objects.
+ *
+ * @author Walied K. Yassen
+ */
+public final class DeclarationChecking implements AstArenaVisitor {
+
+    /**
+     * The pre type checking which checks and declares each of the script headers.
+     */
+    private final PreTypeChecking pre;
+
+    /**
+     * The reader which we read the script headers with.
+     */
+    private final AstArenaReader reader;
+
+    /**
+     * Constructs a new {@link DeclarationChecking} type object instance.
+     *
+     * @param pre
+     *         the pre type checking which checks and declares each of the script headers.
+     * @param arena
+     *         the arena which the scripts are stored in.
+     */
+    public DeclarationChecking(PreTypeChecking pre, AstArena arena) {
+        this.pre = pre;
+        reader = new AstArenaReader(arena);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean enter(AstArena arena, int node) {
+        if (arena.getKind(node) == AstKind.SCRIPT) {
+            pre.declare(reader.header(node));
+        }
+        // the declarations never depend on the code of the scripts.
+        return false;
+    }
+}
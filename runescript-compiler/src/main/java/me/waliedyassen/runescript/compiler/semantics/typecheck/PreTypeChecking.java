@@ -16,6 +16,8 @@ import me.waliedyassen.runescript.compiler.ast.expr.AstGosub;
 import me.waliedyassen.runescript.compiler.ast.expr.AstVariableExpression;
 import me.waliedyassen.runescript.compiler.ast.stmt.*;
 import me.waliedyassen.runescript.compiler.ast.visitor.AstTreeVisitor;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationHint;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationLevel;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.semantics.SemanticError;
 import me.waliedyassen.runescript.compiler.semantics.scope.Scope;
@@ -54,11 +56,32 @@ public final class PreTypeChecking extends AstTreeVisitor {
      */
     private final SymbolTable symbolTable;
 
+    /**
+     * Whether or not the visited scripts should be {@link #declare(AstScript) declared}, the scripts that were already
+     * declared through their headers must not be declared again.
+     */
+    private final boolean declareScripts;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Void visit(AstScript script) {
+        if (declareScripts) {
+            declare(script);
+        }
+        return super.visit(script);
+    }
+
+    /**
+     * Checks the header of the specified {@link AstScript script} and registers its signature in the symbol table.
+     * Only the annotations, the trigger, the name, the parameters and the type of the script are used, the code of the
+     * script is not visited.
+     *
+     * @param script
+     *         the script to declare.
+     */
+    public void declare(AstScript script) {
         // create the annotations list.
         Map<String, Annotation> annotations;
         if (script.getAnnotations().size() > 0) {
@@ -70,6 +93,29 @@ public final class PreTypeChecking extends AstTreeVisitor {
                 } else {
                     annotations.put(name, new Annotation(name, annotation.getValue().getValue()));
                 }
+                // check if the declared optimization level is one of the known levels.
+                var levels = OptimizationLevel.values();
+                if (name.equals(OptimizationHint.OPT_LEVEL.getName()) && (annotation.getValue().getValue() < 0 || annotation.getValue().getValue() >= levels.length)) {
+                    checker.reportError(new SemanticError(annotation.getValue(), String.format("The optimization level must be between 0 and %d", levels.length - 1)));
+                }
+            }
+            // check if the inlining hints of the script contradict each other.
+            var inline = annotations.get(OptimizationHint.INLINE.getName());
+            var noinline = annotations.get(OptimizationHint.NO_INLINE.getName());
+            if (inline != null && noinline != null && inline.getValue() != 0 && noinline.getValue() != 0) {
+                checker.reportError(new SemanticError(script.getName(), "The script cannot be declared both inline and noinline"));
+            }
+            // check if any of the hints has no effect at the optimization level the script declares.
+            var optlevel = annotations.get(OptimizationHint.OPT_LEVEL.getName());
+            if (optlevel != null && optlevel.getValue() >= 0 && optlevel.getValue() < OptimizationLevel.values().length) {
+                var level = OptimizationLevel.values()[optlevel.getValue()];
+                var hot = annotations.get(OptimizationHint.HOT.getName());
+                if (hot != null && hot.getValue() != 0 && !level.includes(OptimizationLevel.O2)) {
+                    checker.reportError(new SemanticError(script.getName(), String.format("The hot hint has no effect at the optimization level %s", level.getRepresentation())));
+                }
+                if (inline != null && inline.getValue() != 0 && level == OptimizationLevel.O0) {
+                    checker.reportError(new SemanticError(script.getName(), String.format("The inline hint has no effect at the optimization level %s", level.getRepresentation())));
+                }
             }
         } else {
             annotations = Collections.emptyMap();
@@ -94,7 +140,6 @@ public final class PreTypeChecking extends AstTreeVisitor {
                 symbolTable.defineScript(annotations, trigger, name.getText(), script.getType(), Arrays.stream(script.getParameters()).map(AstParameter::getType).toArray(Type[]::new));
             }
         }
-        return super.visit(script);
     }
 
     /**
@@ -102,7 +147,8 @@ public final class PreTypeChecking extends AstTreeVisitor {
      */
     @Override
     public Void visit(AstParameter parameter) {
-        scopes.lastElement().declareLocalVariable(parameter.getName().getText(), parameter.getType());
+        var variable = scopes.lastElement().declareLocalVariable(parameter.getName().getText(), parameter.getType());
+        parameter.setVariable(variable);
         return super.visit(parameter);
     }
 
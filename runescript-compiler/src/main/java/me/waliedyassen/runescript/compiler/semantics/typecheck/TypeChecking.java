@@ -7,6 +7,7 @@
  */
 package me.waliedyassen.runescript.compiler.semantics.typecheck;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.compiler.ast.AstNode;
 import me.waliedyassen.runescript.compiler.ast.AstParameter;
@@ -17,7 +18,6 @@ import me.waliedyassen.runescript.compiler.ast.stmt.*;
 import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
 import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
 import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
-import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.semantics.SemanticError;
 import me.waliedyassen.runescript.compiler.semantics.SemanticUtil;
 import me.waliedyassen.runescript.compiler.stack.StackType;
@@ -29,8 +29,8 @@ import me.waliedyassen.runescript.compiler.util.Operator;
 import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * Represents the type checking semantic analysis.
@@ -44,9 +44,11 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
     // for the parent nodes, just to skip the redundant type checking.
 
     /**
-     * The owner {@link SemanticChecker} object.
+     * The errors that were reported while type checking, each type checker has its own list so that multiple scripts
+     * can be type checked concurrently.
      */
-    private final SemanticChecker checker;
+    @Getter
+    private final List<SemanticError> errors = new ArrayList<>();
 
     /**
      * The symbol table.
@@ -143,18 +145,17 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var name = gosub.getName();
         var script = symbolTable.lookupScript(TriggerType.PROC, name.getText());
         if (script == null) {
-            checker.reportError(new SemanticError(gosub, String.format("Could not resolve proc script with the name '%s'", name.getText())));
+            reportError(new SemanticError(gosub, String.format("Could not resolve proc script with the name '%s'", name.getText())));
             return PrimitiveType.UNDEFINED;
         } else {
             var arguments = gosub.getArguments();
-            var types = new Type[gosub.getArguments().length];
-            for (int index = 0; index < arguments.length; index++) {
-                types[index] = arguments[index].accept(this);
+            var signature = script.getFlattenedArguments();
+            var position = 0;
+            for (var argument : arguments) {
+                position = matchSignature(signature, position, argument.accept(this));
             }
-            var expected = SemanticUtil.flatten(types);
-            var actual = script.getArguments();
-            if (expected.length != actual.length || !Arrays.equals(expected, actual)) {
-                checker.reportError(new SemanticError(gosub, String.format("The script %s(%s) is not applicable for the arguments (%s)", name.getText(), SemanticUtil.createRepresentation(actual), SemanticUtil.createRepresentation(expected))));
+            if (position != signature.length) {
+                reportError(new SemanticError(gosub, String.format("The script %s(%s) is not applicable for the arguments (%s)", name.getText(), SemanticUtil.createRepresentation(script.getArguments()), createRepresentation(arguments))));
             }
         }
         return gosub.setType(script.getType());
@@ -169,7 +170,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var commandInfo = symbolTable.lookupCommand(name.getText());
         if (commandInfo != null) {
             if (commandInfo.getArguments().length > 0) {
-                checker.reportError(new SemanticError(name, String.format("The command %s(%s) is not applicable for the arguments ()", name.getText(), SemanticUtil.createRepresentation(commandInfo.getArguments()))));
+                reportError(new SemanticError(name, String.format("The command %s(%s) is not applicable for the arguments ()", name.getText(), SemanticUtil.createRepresentation(commandInfo.getArguments()))));
             }
             return dynamic.setType(commandInfo.getType());
         }
@@ -177,7 +178,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         if (configInfo != null) {
             return dynamic.setType(configInfo.getType());
         }
-        checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a symbol", name.getText())));
+        reportError(new SemanticError(name, String.format("%s cannot be resolved to a symbol", name.getText())));
         return PrimitiveType.UNDEFINED;
 
     }
@@ -190,7 +191,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var name = constant.getName();
         var info = symbolTable.lookupConstant(name.getText());
         if (info == null) {
-            checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a constant", name.getText())));
+            reportError(new SemanticError(name, String.format("%s cannot be resolved to a constant", name.getText())));
             return PrimitiveType.VOID;
         }
         return constant.setType(info.getType());
@@ -204,18 +205,17 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var name = command.getName();
         var info = symbolTable.lookupCommand(name.getText());
         if (info == null) {
-            checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a command", name.getText())));
+            reportError(new SemanticError(name, String.format("%s cannot be resolved to a command", name.getText())));
             return PrimitiveType.VOID;
         }
         var arguments = command.getArguments();
-        var types = new Type[arguments.length];
-        for (var index = 0; index < arguments.length; index++) {
-            types[index] = arguments[index].accept(this);
+        var signature = info.getFlattenedArguments();
+        var position = 0;
+        for (var argument : arguments) {
+            position = matchSignature(signature, position, argument.accept(this));
         }
-        var expected = SemanticUtil.flatten(types);
-        var actual = info.getArguments();
-        if (expected.length != actual.length || !Arrays.equals(expected, actual)) {
-            checker.reportError(new SemanticError(command, String.format("The command %s(%s) is not applicable for the arguments (%s)", name.getText(), SemanticUtil.createRepresentation(actual), SemanticUtil.createRepresentation(expected))));
+        if (position != signature.length) {
+            reportError(new SemanticError(command, String.format("The command %s(%s) is not applicable for the arguments (%s)", name.getText(), SemanticUtil.createRepresentation(info.getArguments()), createRepresentation(arguments))));
         }
         return command.setType(info.getType());
     }
@@ -238,7 +238,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var expression = variableDeclaration.getExpression();
         if (expression == null) {
             if (variableDeclaration.getType().getDefaultValue() == null) {
-                checker.reportError(new SemanticError(variableDeclaration, "Variables with type '" + variableDeclaration.getType().getRepresentation() + "' must be initialised"));
+                reportError(new SemanticError(variableDeclaration, "Variables with type '" + variableDeclaration.getType().getRepresentation() + "' must be initialised"));
             }
             return null;
         }
@@ -252,7 +252,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
     @Override
     public Type visit(AstArrayDeclaration arrayDeclaration) {
         if (arrayDeclaration.getType().getStackType() != StackType.INT) {
-            checker.reportError(new SemanticError(arrayDeclaration, "Arrays can only have a type that is derived from the int type"));
+            reportError(new SemanticError(arrayDeclaration, "Arrays can only have a type that is derived from the int type"));
         }
         checkType(arrayDeclaration.getSize(), PrimitiveType.INT, arrayDeclaration.getSize().accept(this));
         return PrimitiveType.UNDEFINED;
@@ -298,7 +298,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
                 if (checkType(key, type, key.accept(this))) {
                     int resolvedKey = resolveCaseKey(key);
                     if (!defined_keys.add(resolvedKey)) {
-                        checker.reportError(new SemanticError(key, "Duplicate case"));
+                        reportError(new SemanticError(key, "Duplicate case"));
                     }
                     resolvedKeys[index] = resolvedKey;
                 }
@@ -329,7 +329,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         } else if (expression instanceof AstDynamic) {
             return symbolTable.lookupConfig(((AstDynamic) expression).getName().getText()).getId();
         } else {
-            checker.reportError(new SemanticError(expression, "Case keys must be known at compile-time."));
+            reportError(new SemanticError(expression, "Case keys must be known at compile-time."));
         }
         return 0;
     }
@@ -395,7 +395,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
                 for (var index = 0; index < expressions.length; index++) {
                     types[index] = expressions[index].accept(this);
                 }
-                type = new TupleType(types);
+                type = TupleType.of(types);
                 break;
         }
         checkType(returnStatement, script.getType(), type);
@@ -415,7 +415,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
 
     /**
      * Checks if the specified {@link Operator operator} is applicable to the given {@link Type left} and {@link Type
-     * right} hand sides, and if it is not applicable, it will report an error back to the {@link #checker}.
+     * right} hand sides, and if it is not applicable, it will report an error to the {@link #errors} list.
      *
      * @param node
      *         the node which requested this check.
@@ -444,14 +444,14 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
             }
         }
         if (!applicable) {
-            checker.reportError(new SemanticError(node, "The operator '" + operator.getRepresentation() + "' is undefined for the argument type(s) " + left.getRepresentation() + ", " + right.getRepresentation()));
+            reportError(new SemanticError(node, "The operator '" + operator.getRepresentation() + "' is undefined for the argument type(s) " + left.getRepresentation() + ", " + right.getRepresentation()));
         }
         return PrimitiveType.BOOL;
     }
 
     /**
      * Checks if the specified {@link Type expected type} matches the specified {@link Type actual type}, and if it does
-     * not match, it will report an error back to the {@link #checker}.
+     * not match, it will report an error to the {@link #errors} list.
      *
      * @param node
      *         the node which requested this check.
@@ -464,9 +464,69 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     private boolean checkType(AstNode node, Type expected, Type actual) {
         if (!expected.equals(actual)) {
-            checker.reportError(new SemanticError(node, "Type mismatch: cannot convert from " + actual.getRepresentation() + " to " + expected.getRepresentation()));
+            reportError(new SemanticError(node, "Type mismatch: cannot convert from " + actual.getRepresentation() + " to " + expected.getRepresentation()));
             return false;
         }
         return true;
     }
+
+    /**
+     * Matches the specified argument {@link Type type} against the specified flattened signature starting from the
+     * specified position. The signature types are canonical so they are compared by their identity.
+     *
+     * @param signature
+     *         the flattened signature types to match against.
+     * @param position
+     *         the position of the next signature type to match, or {@code -1} if a previous argument did not match.
+     * @param type
+     *         the argument type to match.
+     *
+     * @return the position of the next signature type to match or {@code -1} if the argument type did not match.
+     */
+    private static int matchSignature(Type[] signature, int position, Type type) {
+        if (position == -1) {
+            return -1;
+        }
+        if (type instanceof TupleType) {
+            for (var child : ((TupleType) type).getFlattened()) {
+                if (position == signature.length || signature[position] != child) {
+                    return -1;
+                }
+                position++;
+            }
+            return position;
+        }
+        if (position == signature.length || signature[position] != type) {
+            return -1;
+        }
+        return position + 1;
+    }
+
+    /**
+     * Creates the textual representation of the types of the specified argument expressions, this is only used when
+     * reporting an argument mismatch error.
+     *
+     * @param arguments
+     *         the argument expressions which were already type checked.
+     *
+     * @return the textual representation of the argument types.
+     */
+    private static String createRepresentation(AstExpression[] arguments) {
+        var types = new Type[arguments.length];
+        for (var index = 0; index < arguments.length; index++) {
+            var type = arguments[index].getType();
+            types[index] = type == null ? PrimitiveType.UNDEFINED : type;
+        }
+        return SemanticUtil.createRepresentation(types);
+    }
+
+    /**
+     * Reports an error that has occurred while type checking.
+     *
+     * @param error
+     *         the error to report.
+     */
+    private void reportError(SemanticError error) {
+        errors.add(error);
+    }
 }
@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.compiler.symbol;
 
 import me.waliedyassen.runescript.compiler.codegen.opcode.Opcode;
+import me.waliedyassen.runescript.compiler.semantics.SemanticUtil;
 import me.waliedyassen.runescript.compiler.symbol.impl.CommandInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.ConfigInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.ConstantInfo;
@@ -106,7 +107,7 @@ public final class SymbolTable {
         if (commands.containsKey(name)) {
             throw new IllegalArgumentException("The command '" + name + "' is already defined.");
         }
-        commands.put(name, new CommandInfo(opcode, name, type, arguments, alternative));
+        commands.put(name, new CommandInfo(opcode, name, type, arguments, SemanticUtil.flatten(arguments), alternative));
     }
 
     /**
@@ -168,7 +169,7 @@ public final class SymbolTable {
         if (scripts.containsKey(name)) {
             throw new IllegalArgumentException("The script '" + name + "' is already defined.");
         }
-        scripts.put(String.format(SCRIPT_NAME_TEMPLATE, trigger.getRepresentation(), name), new ScriptInfo(annotations, name, trigger, type, arguments));
+        scripts.put(String.format(SCRIPT_NAME_TEMPLATE, trigger.getRepresentation(), name), new ScriptInfo(annotations, name, trigger, type, arguments, SemanticUtil.flatten(arguments)));
     }
 
     /**
@@ -199,7 +200,7 @@ public final class SymbolTable {
         if (variables.containsKey(name)) {
             throw new IllegalArgumentException("The variable '" + name + "' is already defined.");
         }
-        variables.put(name, new VariableInfo(domain, name, type));
+        variables.put(name, new VariableInfo(domain, name, type, -1));
     }
 
     /**
@@ -45,6 +45,12 @@ public final class CommandInfo extends Symbol {
     @Getter
     private final Type[] arguments;
 
+    /**
+     * The flattened argument type(s) of the command, precomputed so call sites can be checked without flattening.
+     */
+    @Getter
+    private final Type[] flattenedArguments;
+
     /**
      * Whether or not this command can be alternative.
      */
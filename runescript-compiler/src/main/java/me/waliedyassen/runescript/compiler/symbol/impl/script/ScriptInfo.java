@@ -52,6 +52,12 @@ public final class ScriptInfo {
     @Getter
     private final Type[] arguments;
 
+    /**
+     * The flattened argument types of the script, precomputed so call sites can be checked without flattening.
+     */
+    @Getter
+    private final Type[] flattenedArguments;
+
     /**
      * {@inheritDoc}
      */
@@ -40,6 +40,13 @@ public final class VariableInfo extends Symbol {
     @Getter
     private final Type type;
 
+    /**
+     * The slot index of the variable within the variables of the same stack type, this is only used by the local
+     * variables, it is {@code -1} for any other variable.
+     */
+    @Getter
+    private final int index;
+
     /**
      * {@inheritDoc}
      */
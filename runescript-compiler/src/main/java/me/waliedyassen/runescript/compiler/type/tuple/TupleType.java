@@ -11,20 +11,27 @@ import lombok.Getter;
 import me.waliedyassen.runescript.compiler.semantics.SemanticUtil;
 import me.waliedyassen.runescript.compiler.stack.StackType;
 import me.waliedyassen.runescript.compiler.type.Type;
-import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a tuple type which is a combined type, it combines multiple type to be represented as a single type while
  * still providing access to those combined types.
+ * <p>
+ * Tuple types are canonical, there is only ever one instance for each flattened sequence of types, which means tuple
+ * types can be compared by their identity. New instances must be obtained through {@link #of(Type...)}.
  *
  * @author Walied K. Yassen
  */
 public final class TupleType implements Type {
 
+    /**
+     * The canonical tuple types, keyed by their flattened child types.
+     */
+    private static final Map<List<Type>, TupleType> CANONICAL = new ConcurrentHashMap<>();
+
     /**
      * The child types of this tuple.
      */
@@ -40,23 +47,26 @@ public final class TupleType implements Type {
     /**
      * Constructs a new {@link TupleType} type object instance.
      *
-     * @param childs
-     *         the tuple child types.
+     * @param flattened
+     *         the flattened tuple child types.
      */
-    public TupleType(Type... childs) {
-        this.childs = childs;
-        flattened = SemanticUtil.flatten(childs);
+    private TupleType(Type[] flattened) {
+        this.childs = flattened;
+        this.flattened = flattened;
     }
 
     /**
-     * {@inheritDoc}
+     * Returns the canonical {@link TupleType} of the specified child types. Nested tuple types are flattened into the
+     * returned tuple type, which does not change its representation.
+     *
+     * @param childs
+     *         the tuple child types.
+     *
+     * @return the canonical {@link TupleType} object.
      */
-    @Override
-    public boolean equals(Object obj) {
-        if (obj == null || !(obj instanceof TupleType)) {
-            return false;
-        }
-        return Arrays.equals(flattened, ((TupleType) obj).flattened);
+    public static TupleType of(Type... childs) {
+        var flattened = SemanticUtil.flatten(childs);
+        return CANONICAL.computeIfAbsent(List.of(flattened), key -> new TupleType(flattened));
     }
 
     /**
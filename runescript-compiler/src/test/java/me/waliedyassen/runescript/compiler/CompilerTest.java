@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler;
+
+import me.waliedyassen.runescript.compiler.cache.SyntaxTreeCache;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationLevel;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.OptimizationStatistics;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.instructionMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompilerTest {
+
+    private static final String SOURCE = "[proc,test](int $a)(int) def_int $b = $a; if ($b = 1) { return(1); } return($b);";
+
+    @Test
+    void testDefaultLevel() throws Exception {
+        var compiler = new Compiler(instructionMap());
+        assertEquals(1, compiler.compile(SOURCE).length);
+        // only the passes of the default level are ran.
+        assertTrue(runs(compiler.getOptimizer(OptimizationLevel.O1)) > 0);
+        assertEquals(0, runs(compiler.getOptimizer(OptimizationLevel.O2)));
+    }
+
+    @Test
+    void testExplicitLevel() throws Exception {
+        var compiler = new Compiler(instructionMap(), OptimizationLevel.O2);
+        compiler.compile(SOURCE);
+        assertEquals(0, runs(compiler.getOptimizer(OptimizationLevel.O1)));
+        assertTrue(runs(compiler.getOptimizer(OptimizationLevel.O2)) > 0);
+    }
+
+    @Test
+    void testWholeProgram() throws Exception {
+        var compiler = new Compiler(instructionMap(), OptimizationLevel.O2);
+        compiler.setWholeProgram(true);
+        compiler.getDeadProcEliminator().addRoot("kept");
+        var compiled = compiler.compile("[clientscript,main](int $a) $a = ~getter($a);\n"
+                + "[proc,getter](int $a)(int) return($a);\n"
+                + "[proc,unused](int $a)(int) return($a);\n"
+                + "[proc,kept](int $a)(int) return($a);");
+        // the unused procedure is removed straight away, the getter once its only call is inlined.
+        assertEquals(List.of("[clientscript,main]", "[proc,kept]"), Arrays.stream(compiled).map(CompiledScript::getName).collect(Collectors.toList()));
+        assertEquals(List.of("unused", "getter"), compiler.getEliminatedScripts().stream().map(ScriptInfo::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testArenaMode(@TempDir Path directory) throws Exception {
+        // the first script calls a script which is declared after it.
+        var source = "[clientscript,main](int $a) $a = ~twice($a); if ($a = 2) { $a = 3; }\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);\n"
+                + "[proc,other](string $s)(string) switch_int (1) { case 1: return(\"<$s>!\"); } return($s);";
+        var expected = new Compiler(instructionMap(), OptimizationLevel.O2).compile(source);
+        assertCompiled(expected, arenaCompiler(null).compile(source));
+        // the arena is stored in the cache, then read from it as is by the next compilation.
+        var cache = new SyntaxTreeCache(directory);
+        assertCompiled(expected, arenaCompiler(cache).compile(source));
+        assertEquals(1, Files.list(directory).count());
+        assertCompiled(expected, arenaCompiler(cache).compile(source));
+    }
+
+    @Test
+    void testArenaModeErrors() {
+        var source = "[proc,first](int $a)(int) def_int $b = \"wrong\"; return($a);\n"
+                + "[proc,second] def_int $c = 1; $c = \"wrong\";\n"
+                + "[proc,first] return;";
+        var expected = assertThrows(CompilerErrors.class, () -> new Compiler(instructionMap()).compile(source)).getErrors();
+        var errors = assertThrows(CompilerErrors.class, () -> arenaCompiler(null).compile(source)).getErrors();
+        // the same errors are reported, the signatures are declared before any of the scripts is checked.
+        assertEquals(3, errors.size());
+        assertEquals(messages(expected), messages(errors));
+    }
+
+    private static Compiler arenaCompiler(SyntaxTreeCache cache) {
+        var compiler = new Compiler(instructionMap(), OptimizationLevel.O2);
+        compiler.setArenaMode(true);
+        compiler.setSyntaxTreeCache(cache);
+        return compiler;
+    }
+
+    private static void assertCompiled(CompiledScript[] expected, CompiledScript[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (var index = 0; index < expected.length; index++) {
+            assertEquals(expected[index].getName(), actual[index].getName());
+            assertArrayEquals(expected[index].getData(), actual[index].getData());
+        }
+    }
+
+    private static List<String> messages(List<CompilerError> errors) {
+        return errors.stream().map(CompilerError::getMessage).sorted().collect(Collectors.toList());
+    }
+
+    private static int runs(Optimizer optimizer) {
+        return optimizer.getStatistics().stream().mapToInt(OptimizationStatistics::getRuns).sum();
+    }
+}
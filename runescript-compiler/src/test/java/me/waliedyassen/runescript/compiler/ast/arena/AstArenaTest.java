@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import me.waliedyassen.runescript.compiler.ast.stmt.AstVariableDeclaration;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AstArenaTest {
+
+    @Test
+    void testRoundTrip() {
+        var script = ScriptParserTest.fromResource("visitor-tree-script.rs2").script();
+        var arena = new AstArena();
+        var root = new AstArenaWriter(arena).write(script);
+        assertEquals(1, arena.getRootCount());
+        assertEquals(AstKind.SCRIPT, arena.getKind(root));
+        // read the tree back and write it again, both of the arenas must be identical.
+        var read = new AstArenaReader(arena).script(root);
+        assertEquals(script.getName().getText(), read.getName().getText());
+        assertEquals(script.getRange(), read.getRange());
+        assertEquals(script.getParameters().length, read.getParameters().length);
+        assertEquals(script.getCode().getStatements().length, read.getCode().getStatements().length);
+        var declaration = (AstVariableDeclaration) read.getCode().getStatements()[0];
+        assertEquals("local0", declaration.getName().getText());
+        var copy = new AstArena();
+        new AstArenaWriter(copy).write(read);
+        assertEquals(arena.getSize(), copy.getSize());
+        for (var node = 0; node < arena.getSize(); node++) {
+            assertEquals(arena.getKind(node), copy.getKind(node));
+            assertEquals(arena.getData(node), copy.getData(node));
+            assertEquals(arena.getChildCount(node), copy.getChildCount(node));
+            assertEquals(arena.getRange(node), copy.getRange(node));
+        }
+    }
+
+    @Test
+    void testHeader() {
+        var script = ScriptParserTest.fromResource("visitor-tree-script.rs2").script();
+        var arena = new AstArena();
+        var root = new AstArenaWriter(arena).write(script);
+        var header = new AstArenaReader(arena).header(root);
+        assertEquals(script.getName().getText(), header.getName().getText());
+        assertEquals(script.getType(), header.getType());
+        assertEquals(script.getParameters().length, header.getParameters().length);
+        // the code of the script is left out.
+        assertEquals(0, header.getCode().getStatements().length);
+        assertEquals(script.getCode().getRange(), header.getCode().getRange());
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        var arena = new AstArena();
+        new AstArenaWriter(arena).write(ScriptParserTest.fromResource("visitor-tree-script.rs2").script());
+        var stream = new ByteArrayOutputStream();
+        arena.write(stream);
+        var read = AstArena.read(new ByteArrayInputStream(stream.toByteArray()));
+        assertEquals(arena.getSize(), read.getSize());
+        assertEquals(arena.getRootCount(), read.getRootCount());
+        assertEquals(arena.getStrings(), read.getStrings());
+        assertEquals(arena.getTypes(), read.getTypes());
+        for (var node = 0; node < arena.getSize(); node++) {
+            assertEquals(arena.getKind(node), read.getKind(node));
+            assertEquals(arena.getData(node), read.getData(node));
+            assertEquals(arena.getChildCount(node), read.getChildCount(node));
+            assertEquals(arena.getRange(node), read.getRange(node));
+            for (var child = 0; child < arena.getChildCount(node); child++) {
+                assertEquals(arena.getChild(node, child), read.getChild(node, child));
+            }
+        }
+    }
+
+    @Test
+    void testBinaryRoundTripLarge() throws IOException {
+        // the child count and the string are both larger than what fits in an unsigned short.
+        var literal = "a".repeat(70000);
+        var source = "[proc,test] def_string $text = \"" + literal + "\";" + "return;".repeat(70000);
+        var arena = new AstArena();
+        var root = new AstArenaWriter(arena).write(ScriptParserTest.fromString(source).script());
+        var stream = new ByteArrayOutputStream();
+        arena.write(stream);
+        var read = AstArena.read(new ByteArrayInputStream(stream.toByteArray()));
+        assertEquals(arena.getSize(), read.getSize());
+        assertEquals(arena.getStrings(), read.getStrings());
+        assertTrue(read.getStrings().contains(literal));
+        var script = new AstArenaReader(read).script(root);
+        assertEquals(70001, script.getCode().getStatements().length);
+    }
+
+    @Test
+    void testWalk() {
+        var arena = new AstArena();
+        new AstArenaWriter(arena).write(ScriptParserTest.fromString("[proc,test] if (true) { return; } else { return; }").script());
+        var entered = new int[1];
+        var exited = new int[1];
+        arena.walk(new AstArenaVisitor() {
+            @Override
+            public boolean enter(AstArena arena, int node) {
+                entered[0]++;
+                return true;
+            }
+
+            @Override
+            public void exit(AstArena arena, int node) {
+                exited[0]++;
+            }
+        });
+        // script, trigger, name, block, if, bool, two blocks and two returns.
+        assertEquals(10, entered[0]);
+        assertEquals(entered[0], exited[0]);
+        assertEquals(arena.getSize(), entered[0]);
+    }
+}
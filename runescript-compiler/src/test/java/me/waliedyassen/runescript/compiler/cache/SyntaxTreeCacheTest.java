@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import me.waliedyassen.runescript.compiler.lexer.table.LexicalTable;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntaxTreeCacheTest {
+
+    private static final String SOURCE = "[proc,first](int $a)(int) if ($a = 1) { return(2); } return($a);\n[proc,second] return;";
+
+    @Test
+    void testMiss(@TempDir Path directory) {
+        var cache = new SyntaxTreeCache(directory);
+        assertNull(cache.lookup(key(SOURCE)));
+    }
+
+    @Test
+    void testHit(@TempDir Path directory) {
+        var cache = new SyntaxTreeCache(directory);
+        var key = key(SOURCE);
+        var scripts = ScriptParserTest.fromString(SOURCE).scripts();
+        assertTrue(cache.store(key, scripts));
+        var cached = cache.lookup(key);
+        assertNotNull(cached);
+        assertEquals(scripts.size(), cached.size());
+        for (var index = 0; index < scripts.size(); index++) {
+            assertEquals(scripts.get(index).getName().getText(), cached.get(index).getName().getText());
+            assertEquals(scripts.get(index).getRange(), cached.get(index).getRange());
+            assertEquals(scripts.get(index).getCode().getStatements().length, cached.get(index).getCode().getStatements().length);
+        }
+        // a different source must never hit the entry of another source.
+        assertNull(cache.lookup(key(SOURCE + " ")));
+    }
+
+    @Test
+    void testCorrupt(@TempDir Path directory) throws IOException {
+        var cache = new SyntaxTreeCache(directory);
+        var key = key(SOURCE);
+        assertTrue(cache.store(key, ScriptParserTest.fromString(SOURCE).scripts()));
+        var entries = Files.list(directory).collect(Collectors.toList());
+        assertEquals(1, entries.size());
+        // a truncated entry.
+        var content = Files.readAllBytes(entries.get(0));
+        Files.write(entries.get(0), Arrays.copyOf(content, content.length / 2));
+        assertNull(cache.lookup(key));
+        // an entry that is not an arena at all.
+        Files.write(entries.get(0), new byte[]{0, 0, 0, 1, 2, 3});
+        assertNull(cache.lookup(key));
+        // the entry is overwritten once the source is parsed again.
+        assertTrue(cache.store(key, ScriptParserTest.fromString(SOURCE).scripts()));
+        assertNotNull(cache.lookup(key));
+    }
+
+    @Test
+    void testStoreFailure(@TempDir Path directory) throws IOException {
+        // the cache directory can not be created since there is a regular file in its place.
+        var file = Files.createFile(directory.resolve("cache"));
+        var cache = new SyntaxTreeCache(file);
+        var key = key(SOURCE);
+        assertFalse(cache.store(key, ScriptParserTest.fromString(SOURCE).scripts()));
+        assertNull(cache.lookup(key));
+    }
+
+    @Test
+    void testKey(@TempDir Path directory) {
+        var cache = new SyntaxTreeCache(directory);
+        var data = SOURCE.getBytes(StandardCharsets.UTF_8);
+        assertEquals(key(SOURCE), SyntaxTreeCache.key(new LexicalTable(true), data));
+        assertTrue(cache.store(key(SOURCE), ScriptParserTest.fromString(SOURCE).scripts()));
+        // the trees are not shared with a compiler which tokenizes the same source differently.
+        var table = new LexicalTable(true);
+        table.registerKeyword("second", Kind.IDENTIFIER);
+        var key = SyntaxTreeCache.key(table, data);
+        assertNotEquals(key(SOURCE), key);
+        assertNull(cache.lookup(key));
+    }
+
+    private static String key(String source) {
+        return SyntaxTreeCache.key(LexicalTable.DEFAULT_TABLE, source.getBytes(StandardCharsets.UTF_8));
+    }
+}
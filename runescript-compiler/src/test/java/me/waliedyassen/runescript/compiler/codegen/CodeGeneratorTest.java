@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen;
+
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CodeGeneratorTest {
+
+    @Test
+    void testLocalSlots() {
+        var script = generateScript("[proc,test](int $a, string $s)(int) def_int $b = $a; def_string $t = $s; def_int $c = $b; return($c);");
+        // the parameters take the first slots of each stack type, then the variables in their declaration order.
+        assertEquals(List.of(0), indices(script.getParameters().get(StackType.INT)));
+        assertEquals(List.of(0), indices(script.getParameters().get(StackType.STRING)));
+        assertEquals(List.of(1, 2), indices(script.getVariables().get(StackType.INT)));
+        assertEquals(List.of(1), indices(script.getVariables().get(StackType.STRING)));
+        assertEquals(3, script.getLocalCount(StackType.INT));
+        assertEquals(2, script.getLocalCount(StackType.STRING));
+        assertEquals(List.of(
+                "PUSH_INT_LOCAL 0", "POP_INT_LOCAL 1",
+                "PUSH_STRING_LOCAL 0", "POP_STRING_LOCAL 1",
+                "PUSH_INT_LOCAL 1", "POP_INT_LOCAL 2",
+                "PUSH_INT_LOCAL 2", "RETURN 0",
+                "PUSH_INT_CONSTANT 0", "RETURN 0"), instructions(script.getGraph().getFirst()));
+    }
+
+    @Test
+    void testArraySlots() {
+        var script = generateScript("[proc,test](int $p) def_int $x(2); if ($p = 1) { def_int $y(2); $y(0) = 1; } $x(0) = 2;");
+        // the arrays of a nested scope are numbered after the arrays of its parent scopes.
+        var defined = new ArrayList<Integer>();
+        var stored = new ArrayList<Integer>();
+        for (var block : script.getGraph()) {
+            for (var index = 0; index < block.getSize(); index++) {
+                if (InstructionUtil.is(block.getOpcode(index), CoreOpcode.DEFINE_ARRAY)) {
+                    defined.add(block.getOperand(index) >> 16);
+                } else if (InstructionUtil.is(block.getOpcode(index), CoreOpcode.POP_ARRAY_INT)) {
+                    stored.add(block.getOperand(index));
+                }
+            }
+        }
+        assertEquals(List.of(0, 1), defined);
+        assertEquals(List.of(1, 0), stored);
+    }
+
+    @Test
+    void testLoopRotation() {
+        var script = generateScript("[proc,test](int $a)(int) while ($a < 10) { $a = 11; } return($a);");
+        var entry = script.getGraph().getFirst();
+        var body = entry.getNext();
+        var condition = body.getNext();
+        var exit = condition.getNext();
+        // the condition is tested once before entering the loop.
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "PUSH_INT_CONSTANT 10", "BRANCH_LESS_THAN " + body.getLabel().getId(), "BRANCH " + exit.getLabel().getId()), instructions(entry));
+        // the body falls through into the condition, which branches back to the body or falls through out of the loop.
+        assertEquals(List.of(CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.POP_INT_LOCAL), opcodes(body));
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "PUSH_INT_CONSTANT 10", "BRANCH_LESS_THAN " + body.getLabel().getId()), instructions(condition));
+        assertEquals(List.of(body, exit), List.copyOf(condition.getSuccessors()));
+    }
+
+    /**
+     * Parses, checks and generates the code of all of the scripts within the specified source code.
+     *
+     * @param source
+     *         the source code of the scripts.
+     *
+     * @return the generated scripts keyed by their symbol information, in their declaration order.
+     */
+    public static Map<ScriptInfo, Script> generate(String source) {
+        var scripts = ScriptParserTest.fromString(source).scripts();
+        var table = new SymbolTable();
+        var checker = new SemanticChecker(table);
+        checker.executePre(scripts);
+        checker.execute(scripts);
+        assertEquals(List.of(), checker.getErrors());
+        var generator = new CodeGenerator(table);
+        var generated = new LinkedHashMap<ScriptInfo, Script>();
+        for (var script : scripts) {
+            var info = table.lookupScript(TriggerType.forRepresentation(script.getTrigger().getText()), script.getName().getText());
+            generated.put(info, generator.visit(script));
+        }
+        return generated;
+    }
+
+    /**
+     * Parses, checks and generates the code of the first script within the specified source code.
+     *
+     * @param source
+     *         the source code of the scripts.
+     *
+     * @return the generated script.
+     */
+    public static Script generateScript(String source) {
+        return generate(source).values().iterator().next();
+    }
+
+    /**
+     * Finds the generated script with the specified name.
+     *
+     * @param scripts
+     *         the generated scripts.
+     * @param name
+     *         the name of the script, without the trigger.
+     *
+     * @return the symbol information of the script.
+     */
+    public static ScriptInfo find(Map<ScriptInfo, Script> scripts, String name) {
+        return scripts.keySet().stream().filter(info -> info.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    /**
+     * Creates an {@link Optimizer} which runs the specified passes.
+     *
+     * @param optimizations
+     *         the passes to run.
+     *
+     * @return the created {@link Optimizer} object.
+     */
+    public static Optimizer optimizer(Optimization... optimizations) {
+        var optimizer = new Optimizer();
+        for (var optimization : optimizations) {
+            optimizer.register(optimization);
+        }
+        return optimizer;
+    }
+
+    /**
+     * Creates an {@link InstructionMap} which has all of the core opcodes registered by their ordinal.
+     *
+     * @return the created {@link InstructionMap} object.
+     */
+    public static InstructionMap instructionMap() {
+        var map = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            map.registerCore(opcode, opcode.ordinal(), false);
+        }
+        return map;
+    }
+
+    /**
+     * Collects the opcodes of all of the instructions of the specified script in the layout order of the blocks.
+     *
+     * @param script
+     *         the script to collect the opcodes of.
+     *
+     * @return the {@link List} of the opcodes.
+     */
+    public static List<CoreOpcode> opcodes(Script script) {
+        var opcodes = new ArrayList<CoreOpcode>();
+        for (var block : script.getGraph()) {
+            opcodes.addAll(opcodes(block));
+        }
+        return opcodes;
+    }
+
+    /**
+     * Collects the opcodes of all of the instructions of the specified block.
+     *
+     * @param block
+     *         the block to collect the opcodes of.
+     *
+     * @return the {@link List} of the opcodes.
+     */
+    public static List<CoreOpcode> opcodes(Block block) {
+        var opcodes = new ArrayList<CoreOpcode>();
+        for (var index = 0; index < block.getSize(); index++) {
+            opcodes.add(InstructionUtil.getCoreOpcode(block.getOpcode(index)));
+        }
+        return opcodes;
+    }
+
+    /**
+     * Collects the textual form of all of the instructions of the specified block, the opcode followed by the raw
+     * operand.
+     *
+     * @param block
+     *         the block to collect the instructions of.
+     *
+     * @return the {@link List} of the instructions.
+     */
+    public static List<String> instructions(Block block) {
+        var instructions = new ArrayList<String>();
+        for (var index = 0; index < block.getSize(); index++) {
+            instructions.add(InstructionUtil.getCoreOpcode(block.getOpcode(index)) + " " + block.getOperand(index));
+        }
+        return instructions;
+    }
+
+    /**
+     * Counts the instructions of the specified script which have the specified opcode.
+     *
+     * @param script
+     *         the script to count the instructions within.
+     * @param opcode
+     *         the opcode of the instructions.
+     *
+     * @return the amount of the instructions.
+     */
+    public static int count(Script script, CoreOpcode opcode) {
+        return (int) opcodes(script).stream().filter(other -> other == opcode).count();
+    }
+
+    private static List<Integer> indices(List<Local> locals) {
+        var indices = new ArrayList<Integer>();
+        locals.forEach(local -> indices.add(local.getIndex()));
+        return indices;
+    }
+}
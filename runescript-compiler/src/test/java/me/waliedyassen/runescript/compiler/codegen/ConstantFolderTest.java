@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantFolderTest {
+
+    @Test
+    void testFold() {
+        var table = new SymbolTable();
+        table.defineConstant("limit", PrimitiveType.INT, 5);
+        table.defineConstant("name", PrimitiveType.STRING, "world");
+        var folder = new ConstantFolder(table);
+        assertEquals(1, folder.fold(ScriptParserTest.fromString("true").expression()));
+        assertEquals(1, folder.fold(ScriptParserTest.fromString("1 < 2").expression()));
+        assertEquals(0, folder.fold(ScriptParserTest.fromString("^limit >= 6").expression()));
+        assertEquals(1, folder.fold(ScriptParserTest.fromString("3L = 3L").expression()));
+        assertEquals(1, folder.fold(ScriptParserTest.fromString("\"a\" ! \"b\"").expression()));
+        assertEquals("hello world!", folder.fold(ScriptParserTest.fromString("\"hello <^name>!\"").expression()));
+        // the operands of a different type are never folded.
+        assertNull(folder.fold(ScriptParserTest.fromString("1 = 1L").expression()));
+        // the strings are not ordered.
+        assertNull(folder.fold(ScriptParserTest.fromString("\"a\" < \"b\"").expression()));
+        // the variables are never constant.
+        assertNull(folder.fold(ScriptParserTest.fromString("$a = 1").expression()));
+        assertNull(folder.fold(ScriptParserTest.fromString("\"hello <$a>\"").expression()));
+    }
+
+    @Test
+    void testFoldLogical() {
+        var folder = new ConstantFolder(new SymbolTable());
+        // the right hand side does not matter if the left hand side decides the result.
+        assertTrue(folder.foldCondition(ScriptParserTest.fromString("true | $a = 1").expression()));
+        assertFalse(folder.foldCondition(ScriptParserTest.fromString("false & $a = 1").expression()));
+        assertNull(folder.foldCondition(ScriptParserTest.fromString("true & $a = 1").expression()));
+        assertNull(folder.foldCondition(ScriptParserTest.fromString("$a = 1 | true").expression()));
+        assertTrue(folder.foldCondition(ScriptParserTest.fromString("1 = 1 & 2 > 1").expression()));
+    }
+
+    @Test
+    void testConstantCondition() {
+        var script = generateScript("[proc,test](int $a)(int) if (false & $a = 1) { return(1); } return(2);");
+        // the condition is replaced with a branch to the else block, and the operands are never loaded.
+        assertEquals(0, count(script, CoreOpcode.PUSH_INT_LOCAL));
+        assertEquals(0, count(script, CoreOpcode.BRANCH_EQUALS));
+        assertEquals(CoreOpcode.BRANCH, opcodes(script.getGraph().getFirst()).get(0));
+    }
+
+    @Test
+    void testConstantConcatenation() {
+        var script = generateScript("[proc,test](string $s)(string) return(\"a<\"b\">c<$s>\");");
+        assertEquals(1, count(script, CoreOpcode.JOIN_STRING));
+        var constant = generateScript("[proc,test]()(string) return(\"a<\"b\">c\");");
+        assertEquals(0, count(constant, CoreOpcode.JOIN_STRING));
+        assertEquals(List.of(CoreOpcode.PUSH_STRING_CONSTANT, CoreOpcode.RETURN), opcodes(constant.getGraph().getFirst()).subList(0, 2));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.block;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.instructions;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockTest {
+
+    private static final int PUSH = InstructionUtil.encode(CoreOpcode.PUSH_INT_CONSTANT);
+
+    private static final int DISCARD = InstructionUtil.encode(CoreOpcode.POP_INT_DISCARD);
+
+    @Test
+    void testInstructions() {
+        var block = new Block(new Label(0, "entry"));
+        assertTrue(block.isEmpty());
+        assertTrue(block.isFallingThrough());
+        // more instructions than the initial capacity of the arrays.
+        for (var index = 0; index < 20; index++) {
+            block.add(PUSH, index);
+        }
+        assertEquals(20, block.getSize());
+        for (var index = 0; index < 20; index++) {
+            assertEquals(PUSH, block.getOpcode(index));
+            assertEquals(index, block.getOperand(index));
+        }
+        block.truncate(2);
+        block.insert(1, DISCARD, 7);
+        block.insert(3, DISCARD, 8);
+        assertEquals(List.of("PUSH_INT_CONSTANT 0", "POP_INT_DISCARD 7", "PUSH_INT_CONSTANT 1", "POP_INT_DISCARD 8"), instructions(block));
+        block.remove(0);
+        block.set(1, PUSH, 9);
+        assertEquals(List.of("POP_INT_DISCARD 7", "PUSH_INT_CONSTANT 9", "POP_INT_DISCARD 8"), instructions(block));
+        assertEquals(DISCARD, block.lastOpcode());
+        assertEquals(8, block.lastOperand());
+        assertThrows(IndexOutOfBoundsException.class, () -> block.getOpcode(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> block.insert(4, PUSH, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> block.remove(-1));
+    }
+
+    @Test
+    void testFallingThrough() {
+        var block = new Block(new Label(0, "entry"));
+        block.add(InstructionUtil.encode(CoreOpcode.BRANCH_IF_TRUE), 1);
+        assertTrue(block.isFallingThrough());
+        block.add(InstructionUtil.encode(CoreOpcode.BRANCH), 1);
+        assertFalse(block.isFallingThrough());
+        block.set(1, InstructionUtil.encode(CoreOpcode.RETURN), 0);
+        assertFalse(block.isFallingThrough());
+    }
+
+    @Test
+    void testEncoding() {
+        for (var opcode : CoreOpcode.values()) {
+            var encoded = InstructionUtil.encode(opcode);
+            assertTrue(InstructionUtil.isCore(encoded));
+            assertSame(opcode, InstructionUtil.getCoreOpcode(encoded));
+        }
+        var command = InstructionUtil.encodeCommand(5);
+        assertFalse(InstructionUtil.isCore(command));
+        assertNull(InstructionUtil.getCoreOpcode(command));
+        assertEquals(5, InstructionUtil.decodeCommand(command));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.block;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.generateScript;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControlFlowGraphTest {
+
+    @Test
+    void testGenerated() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } return(2);");
+        var graph = script.getGraph();
+        var first = graph.getFirst();
+        var target = script.getBlock(first.getOperand(2));
+        var exit = script.getBlock(first.getOperand(3));
+        assertEquals(Set.of(target, exit), first.getSuccessors());
+        // the branch to the end of the if statement is still there after the return.
+        assertEquals(Set.of(exit), target.getSuccessors());
+        assertEquals(Set.of(first, target), exit.getPredecessors());
+        assertTrue(first.getPredecessors().isEmpty());
+        // every edge is known by both of its ends.
+        var count = 0;
+        for (var block : graph) {
+            for (var successor : block.getSuccessors()) {
+                assertTrue(successor.getPredecessors().contains(block));
+            }
+            for (var predecessor : block.getPredecessors()) {
+                assertTrue(predecessor.getSuccessors().contains(block));
+            }
+            assertSame(block, graph.get(block.getLabel()));
+            count++;
+        }
+        assertEquals(graph.getSize(), count);
+    }
+
+    @Test
+    void testMutation() {
+        var a = block(0, CoreOpcode.BRANCH_IF_TRUE, 2);
+        var b = block(1, CoreOpcode.RETURN, 0);
+        var c = block(2, CoreOpcode.RETURN, 0);
+        var graph = new ControlFlowGraph(List.of());
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.build();
+        assertEquals(Set.of(b, c), a.getSuccessors());
+        assertEquals(Set.of(a), b.getPredecessors());
+        // the branch target is moved to be the fall-through block.
+        graph.moveAfter(a, c);
+        assertEquals(List.of(a, c, b), layout(graph));
+        assertEquals(Set.of(c), a.getSuccessors());
+        assertTrue(b.getPredecessors().isEmpty());
+        assertSame(b, graph.getLast());
+        graph.remove(b);
+        assertEquals(List.of(a, c), layout(graph));
+        assertEquals(2, graph.getSize());
+        assertFalse(graph.contains(b));
+        assertNull(graph.get(b.getLabel()));
+        // a block that no longer ends with a terminator falls through into the next block.
+        var d = block(3, CoreOpcode.RETURN, 0);
+        graph.insertAfter(c, d);
+        c.set(0, InstructionUtil.encode(CoreOpcode.POP_INT_DISCARD), 0);
+        graph.update(c);
+        assertEquals(Set.of(d), c.getSuccessors());
+        assertEquals(Set.of(c), d.getPredecessors());
+    }
+
+    private static Block block(int id, CoreOpcode opcode, int operand) {
+        var block = new Block(new Label(id, "block_" + id));
+        block.add(InstructionUtil.encode(opcode), operand);
+        return block;
+    }
+
+    private static List<Block> layout(ControlFlowGraph graph) {
+        var blocks = new ArrayList<Block>();
+        graph.forEach(blocks::add);
+        return blocks;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.generate;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadProcEliminatorTest {
+
+    private static final String SOURCE = "[clientscript,main](int $k) $k = ~outer($k);\n"
+            + "[proc,outer](int $x)(int) return(~inner($x));\n"
+            + "[proc,inner](int $x)(int) return($x);\n"
+            + "[proc,unused](int $x)(int) return(~unused_inner($x));\n"
+            + "[proc,unused_inner](int $x)(int) return($x);\n"
+            + "[proc,kept](int $x)(int) return(~inner($x));";
+
+    @Test
+    void testEliminate() {
+        var scripts = generate(SOURCE);
+        var eliminator = new DeadProcEliminator();
+        eliminator.addRoot("kept");
+        // the procedures which are only called by unreachable procedures are removed as well.
+        assertEquals(List.of("unused", "unused_inner"), names(eliminator.eliminate(scripts)));
+        assertEquals(List.of("main", "outer", "inner", "kept"), names(List.copyOf(scripts.keySet())));
+        // nothing is left to remove on the second run.
+        assertTrue(eliminator.eliminate(scripts).isEmpty());
+    }
+
+    @Test
+    void testRoots() {
+        var eliminator = new DeadProcEliminator();
+        eliminator.addRoot("kept");
+        assertEquals(List.of("kept"), List.copyOf(eliminator.getRoots()));
+        assertTrue(eliminator.removeRoot("kept"));
+        assertFalse(eliminator.removeRoot("kept"));
+        var scripts = generate(SOURCE);
+        assertEquals(List.of("unused", "unused_inner", "kept"), names(eliminator.eliminate(scripts)));
+        // the scripts of the other triggers are always entry points.
+        assertEquals("main", names(List.copyOf(scripts.keySet())).get(0));
+    }
+
+    private static List<String> names(List<ScriptInfo> infos) {
+        return infos.stream().map(ScriptInfo::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InlinerTest {
+
+    @Test
+    void testInline() {
+        var scripts = generate("[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(1, inline(new Inliner(), scripts));
+        var main = scripts.get(find(scripts, "main"));
+        // the call is replaced with the argument store and the code of the callee.
+        assertEquals(0, count(main, CoreOpcode.GOSUB_WITH_PARAMS));
+        assertEquals(1, count(main, CoreOpcode.BRANCH_EQUALS));
+        // the argument is stored into a fresh local of the caller.
+        assertEquals(2, main.getLocalCount(StackType.INT));
+    }
+
+    @Test
+    void testArrays() {
+        // the array ids of the callee would collide with the arrays of the caller.
+        var scripts = generate("[clientscript,main](int $k) def_int $arr(4); $arr(0) = $k; $k = ~getit(1); $k = $arr(0);\n"
+                + "[proc,getit](int $x)(int) def_int $tmp(4); $tmp(0) = 99; return($tmp(0));");
+        assertEquals(0, inline(new Inliner(), scripts));
+        var main = scripts.get(find(scripts, "main"));
+        assertEquals(1, count(main, CoreOpcode.GOSUB_WITH_PARAMS));
+        assertEquals(1, count(main, CoreOpcode.DEFINE_ARRAY));
+    }
+
+    @Test
+    void testRecursive() {
+        var scripts = generate("[clientscript,main](int $k) $k = ~count($k);\n"
+                + "[proc,count](int $x)(int) if ($x = 0) { return(0); } return(~count(0));");
+        assertEquals(0, inline(new Inliner(), scripts));
+        assertEquals(1, count(scripts.get(find(scripts, "main")), CoreOpcode.GOSUB_WITH_PARAMS));
+    }
+
+    @Test
+    void testThreshold() {
+        var source = "[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);";
+        var scripts = generate(source);
+        assertEquals(0, inline(new Inliner(4, OptimizationLevel.O2), scripts));
+        // the calls are only inlined into the scripts which are compiled at the highest level.
+        assertEquals(0, inline(new Inliner(Inliner.DEFAULT_THRESHOLD, OptimizationLevel.O1), generate(source)));
+    }
+
+    @Test
+    void testInlineHint() {
+        var scripts = generate("[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "#[inline:1] [proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        // the callee is inlined whatever its size.
+        assertEquals(1, inline(new Inliner(4, OptimizationLevel.O2), scripts));
+        assertEquals(0, count(scripts.get(find(scripts, "main")), CoreOpcode.GOSUB_WITH_PARAMS));
+    }
+
+    @Test
+    void testNoInlineHint() {
+        var scripts = generate("[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "#[noinline:1] [proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(0, inline(new Inliner(), scripts));
+        assertEquals(1, count(scripts.get(find(scripts, "main")), CoreOpcode.GOSUB_WITH_PARAMS));
+    }
+
+    @Test
+    void testHotHint() {
+        var scripts = generate("#[hot:1] [clientscript,main](int $k) $k = ~twice($k);\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        // the callee is too large for the threshold, but not for the scaled threshold of the hot caller.
+        assertEquals(1, inline(new Inliner(4, OptimizationLevel.O2), scripts));
+    }
+
+    @Test
+    void testOptLevelHint() {
+        var scripts = generate("[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "#[optlevel:0] [proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(0, inline(new Inliner(), scripts));
+        // calls are not inlined into a script which is compiled below the highest level either.
+        scripts = generate("#[optlevel:1] [clientscript,main](int $k) $k = ~twice($k);\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(0, inline(new Inliner(), scripts));
+    }
+
+    @Test
+    void testDefaultLevel() {
+        // the callee is inlined into a caller at the default level only because it asked for it.
+        var scripts = generate("[clientscript,main](int $k) $k = ~twice($k);\n"
+                + "#[inline:1] [proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(1, inline(new Inliner(Inliner.DEFAULT_THRESHOLD, OptimizationLevel.O1), scripts));
+        // a hot caller is raised to the highest level.
+        scripts = generate("#[hot:1] [clientscript,main](int $k) $k = ~twice($k);\n"
+                + "[proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(OptimizationLevel.O2, OptimizationLevel.forScript(find(scripts, "main"), OptimizationLevel.O1));
+        assertEquals(1, inline(new Inliner(Inliner.DEFAULT_THRESHOLD, OptimizationLevel.O1), scripts));
+        // nothing is inlined into a caller which has no optimizations at all.
+        scripts = generate("#[optlevel:0] [clientscript,main](int $k) $k = ~twice($k);\n"
+                + "#[inline:1] [proc,twice](int $x)(int) if ($x = 0) { return(1); } return($x);");
+        assertEquals(0, inline(new Inliner(), scripts));
+    }
+
+    static int inline(Inliner inliner, Map<ScriptInfo, Script> scripts) {
+        scripts.forEach(inliner::register);
+        var optimizer = optimizer();
+        return inliner.run(info -> optimizer);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.PeepholeOptimization;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizationRegistryTest {
+
+    @Test
+    void testLevels() {
+        assertEquals(OptimizationLevel.O1, OptimizationLevel.forRepresentation("-O1"));
+        assertNull(OptimizationLevel.forRepresentation("-O3"));
+        assertTrue(OptimizationLevel.O2.includes(OptimizationLevel.O1));
+        assertFalse(OptimizationLevel.O1.includes(OptimizationLevel.O2));
+        var registry = OptimizationRegistry.createDefault();
+        assertEquals(List.of(), names(registry.createOptimizer(OptimizationLevel.O0)));
+        assertEquals(List.of("jump-threading", "natural-flow", "branch-inversion", "peephole", "unreachable-code", "dead-branch", "dead-block", "tail-merging"),
+                names(registry.createOptimizer(OptimizationLevel.O1)));
+        assertEquals(12, names(registry.createOptimizer(OptimizationLevel.O2)).size());
+    }
+
+    @Test
+    void testRegister() {
+        var registry = OptimizationRegistry.createDefault();
+        assertThrows(IllegalArgumentException.class, () -> registry.register("peephole", OptimizationLevel.O1, PeepholeOptimization::new));
+        assertTrue(registry.unregister("peephole"));
+        assertFalse(registry.unregister("peephole"));
+        assertFalse(names(registry.createOptimizer(OptimizationLevel.O1)).contains("peephole"));
+        // the pass is appended to the end of the pipeline when it is registered again.
+        registry.register("peephole", OptimizationLevel.O2, PeepholeOptimization::new);
+        assertFalse(names(registry.createOptimizer(OptimizationLevel.O1)).contains("peephole"));
+        var names = names(registry.createOptimizer(OptimizationLevel.O2));
+        assertEquals("peephole", names.get(names.size() - 1));
+    }
+
+    @Test
+    void testStatistics() {
+        var script = generateScript("[proc,test](int $a)(int) $a = $a; return($a);");
+        var registry = new OptimizationRegistry();
+        registry.register("peephole", OptimizationLevel.O1, PeepholeOptimization::new);
+        var peephole = registry.createOptimizer(OptimizationLevel.O1);
+        peephole.run(script);
+        var statistics = peephole.getStatistics().get(0);
+        assertEquals("peephole", statistics.getName());
+        assertTrue(statistics.getRuns() > 0);
+        // the self store is removed, which is a single unit and two instructions.
+        assertEquals(1, statistics.getUnits());
+        assertEquals(2, statistics.getInstructionsBefore() - statistics.getInstructionsAfter());
+        peephole.resetStatistics();
+        assertEquals(0, statistics.getRuns());
+        assertEquals(0, statistics.getUnits());
+    }
+
+    private static List<String> names(Optimizer optimizer) {
+        return optimizer.getStatistics().stream().map(OptimizationStatistics::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer;
+
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.generateScript;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizerTest {
+
+    private static final String SOURCE = "[proc,test](int $a)(int) if ($a = 1) { return(1); } else if ($a = 2) { return(2); } return(3);";
+
+    @Test
+    void testVisitsEachBlockOnce() {
+        var script = generateScript(SOURCE);
+        var visits = new VisitRecorder();
+        var optimizer = new Optimizer();
+        optimizer.register(visits);
+        optimizer.run(script);
+        assertEquals(script.getGraph().getSize(), visits.blocks.size());
+        assertEquals(visits.blocks.size(), new HashSet<>(visits.blocks).size());
+        assertEquals(visits.blocks.size(), optimizer.getStatistics().get(0).getRuns());
+    }
+
+    @Test
+    void testChangedBlockRevisitsNeighbours() {
+        var script = generateScript(SOURCE);
+        var last = script.getGraph().getLast();
+        var visits = new VisitRecorder();
+        var optimizer = new Optimizer();
+        optimizer.register(new BlockOptimization() {
+            private boolean changed;
+
+            @Override
+            public int run(Optimizer optimizer, Script script, Block block) {
+                if (block == last && !changed) {
+                    changed = true;
+                    optimizer.changed(block);
+                    return 1;
+                }
+                return 0;
+            }
+
+            @Override
+            public void clean(Optimizer optimizer, Script script) {
+                // NOOP
+            }
+        });
+        optimizer.register(visits);
+        optimizer.run(script);
+        // the last block is visited last, so it and all of its neighbours are visited again.
+        var neighbours = new HashSet<Block>(last.getPredecessors());
+        neighbours.addAll(last.getSuccessors());
+        neighbours.add(last.getPrevious());
+        neighbours.add(last);
+        assertEquals(script.getGraph().getSize() + neighbours.size(), visits.blocks.size());
+        assertEquals(2, visits.blocks.stream().filter(block -> block == last).count());
+    }
+
+    @Test
+    void testLaterRoundsOnlyVisitChangedBlocks() {
+        var script = generateScript(SOURCE);
+        var visits = new VisitRecorder();
+        var rounds = new ScriptPass(1);
+        var optimizer = new Optimizer();
+        optimizer.register(visits);
+        optimizer.register(rounds);
+        optimizer.run(script);
+        // the script pass reported a change without changing any block, so a second round is ran
+        // which does not visit any of the blocks again.
+        assertEquals(2, rounds.runs);
+        assertEquals(script.getGraph().getSize(), visits.blocks.size());
+    }
+
+    @Test
+    void testRoundCap() {
+        var script = generateScript(SOURCE);
+        var rounds = new ScriptPass(Integer.MAX_VALUE);
+        var optimizer = new Optimizer();
+        optimizer.register(rounds);
+        optimizer.run(script);
+        assertEquals(Optimizer.MAX_ROUNDS, rounds.runs);
+        assertEquals(Optimizer.MAX_ROUNDS, optimizer.getStatistics().get(0).getRuns());
+        optimizer.resetStatistics();
+        assertEquals(0, optimizer.getStatistics().get(0).getRuns());
+    }
+
+    private static final class VisitRecorder extends BlockOptimization {
+
+        private final List<Block> blocks = new ArrayList<>();
+
+        @Override
+        public int run(Optimizer optimizer, Script script, Block block) {
+            blocks.add(block);
+            return 0;
+        }
+
+        @Override
+        public void clean(Optimizer optimizer, Script script) {
+            // NOOP
+        }
+    }
+
+    private static final class ScriptPass extends Optimization {
+
+        private final int changes;
+
+        private int runs;
+
+        ScriptPass(int changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public int run(Optimizer optimizer, Script script) {
+            return runs++ < changes ? 1 : 0;
+        }
+
+        @Override
+        public void clean(Optimizer optimizer, Script script) {
+            // NOOP
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.block.Block;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockLayoutOptimizationTest {
+
+    private static final String SOURCE = "[proc,test](int $a)(int) if ($a = 1) { $a = 2; } else { $a = 3; } return($a);";
+
+    @Test
+    void testLayout() {
+        var script = generateScript(SOURCE);
+        var entry = script.getGraph().getFirst();
+        var then = script.getBlock(entry.getOperand(2));
+        var otherwise = script.getBlock(entry.getOperand(3));
+        var exit = script.getBlock(otherwise.getOperand(2));
+        assertEquals(List.of(entry, then, otherwise, exit), layout(script));
+        optimizer(new BlockLayoutOptimization()).run(script);
+        // the else block is placed after the entry, and the end of the if statement after the else block.
+        assertEquals(List.of(entry, otherwise, exit, then), layout(script));
+        assertSame(otherwise, entry.getNext());
+        assertTrue(exit.getPredecessors().contains(then));
+    }
+
+    @Test
+    void testWithNaturalFlow() {
+        var script = generateScript(SOURCE);
+        assertEquals(3, count(script, CoreOpcode.BRANCH));
+        optimizer(new BlockLayoutOptimization(), new NaturalFlowOptimization()).run(script);
+        // only the branch of the then block to the end of the if statement is left.
+        assertEquals(1, count(script, CoreOpcode.BRANCH));
+        assertEquals(CoreOpcode.BRANCH, opcodes(script.getGraph().getLast()).get(2));
+    }
+
+    private static List<Block> layout(Script script) {
+        var blocks = new ArrayList<Block>();
+        script.getGraph().forEach(blocks::add);
+        return blocks;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.opcode.OperandType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchInversionOptimizationTest {
+
+    @Test
+    void testInvert() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a ! 1) { return(1); } return(2);");
+        var entry = script.getGraph().getFirst();
+        var exit = entry.getOperand(3);
+        assertEquals(List.of(CoreOpcode.PUSH_INT_LOCAL, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.BRANCH_NOT, CoreOpcode.BRANCH), opcodes(entry));
+        optimizer(new BranchInversionOptimization()).run(script);
+        // the then block is now reached by falling through.
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "PUSH_INT_CONSTANT 1", "BRANCH_EQUALS " + exit), instructions(entry));
+        assertTrue(entry.getSuccessors().contains(entry.getNext()));
+    }
+
+    @Test
+    void testInvertLong() {
+        var script = generateScript("[proc,test](long $a)(int) if ($a < 5L) { return(1); } return(2);");
+        optimizer(new BranchInversionOptimization()).run(script);
+        assertEquals(List.of(CoreOpcode.PUSH_LONG_LOCAL, CoreOpcode.PUSH_LONG_CONSTANT, CoreOpcode.LONG_BRANCH_GREATER_THAN_OR_EQUALS), opcodes(script.getGraph().getFirst()));
+    }
+
+    @Test
+    void testInverse() {
+        for (var opcode : CoreOpcode.values()) {
+            var inverse = opcode.getInverse();
+            if (inverse == null) {
+                continue;
+            }
+            assertEquals(OperandType.LABEL, opcode.getOperandType());
+            assertSame(opcode, inverse.getInverse());
+            assertNotSame(opcode, inverse);
+        }
+        assertSame(CoreOpcode.BRANCH_IF_FALSE, CoreOpcode.BRANCH_IF_TRUE.getInverse());
+        assertSame(CoreOpcode.BRANCH_GREATER_THAN, CoreOpcode.BRANCH_LESS_THAN_OR_EQUALS.getInverse());
+        assertNull(CoreOpcode.BRANCH.getInverse());
+    }
+}
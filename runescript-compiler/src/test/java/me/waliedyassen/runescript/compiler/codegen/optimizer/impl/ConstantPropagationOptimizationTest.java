@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantPropagationOptimizationTest {
+
+    private static final String SOURCE = "[proc,test](int $a)(int) def_int $b = 3; if ($b = 3) { return(7); } return($a);";
+
+    @Test
+    void testPropagate() {
+        var script = generateScript(SOURCE);
+        optimizer(new ConstantPropagationOptimization()).run(script);
+        // the load of the variable is replaced, the load of the parameter is left as is.
+        assertEquals(List.of("PUSH_INT_CONSTANT 3", "POP_INT_LOCAL 1", "PUSH_INT_CONSTANT 3", "PUSH_INT_CONSTANT 3"),
+                instructions(script.getGraph().getFirst()).subList(0, 4));
+        assertEquals(1, count(script, CoreOpcode.PUSH_INT_LOCAL));
+    }
+
+    @Test
+    void testMergedPaths() {
+        var script = generateScript("[proc,test](int $a)(int) def_int $b = 3; if ($a = 1) { $b = 4; } return($b);");
+        optimizer(new ConstantPropagationOptimization()).run(script);
+        // the variable holds a different constant on each of the paths which reach the return.
+        assertEquals(2, count(script, CoreOpcode.PUSH_INT_LOCAL));
+        assertEquals("PUSH_INT_LOCAL 1", instructions(script.getGraph().getLast()).get(0));
+    }
+
+    @Test
+    void testWithOtherPasses() {
+        var script = generateScript(SOURCE);
+        optimizer(new ConstantPropagationOptimization(), new PeepholeOptimization(), new DeadBranchOptimization(), new DeadBlockOptimization(),
+                new DeadStoreOptimization(), new UnreachableCodeOptimization()).run(script);
+        // the condition always holds, so only the then block is left and the variable is removed.
+        assertEquals(List.of(CoreOpcode.BRANCH, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN), opcodes(script));
+        assertEquals(2, script.getGraph().getSize());
+        assertEquals(0, script.getVariables().get(StackType.INT).size());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadStoreOptimizationTest {
+
+    @Test
+    void testDeadStores() {
+        var script = generateScript("[proc,test](int $a)(int) def_int $b = $a; def_int $unused = 5; $a = 3; if ($a = 1) { return(1); } return($b);");
+        optimizer(new DeadStoreOptimization()).run(script);
+        // the dead store is replaced with a discard, $b is still loaded later and the value of $a is
+        // only loaded right after it is stored so it is left on the stack for the comparison.
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "POP_INT_LOCAL 1", "PUSH_INT_CONSTANT 5", "POP_INT_DISCARD 0", "PUSH_INT_CONSTANT 3", "PUSH_INT_CONSTANT 1"),
+                instructions(script.getGraph().getFirst()).subList(0, 6));
+        // the unused variable is no longer referenced by any instruction.
+        assertEquals(1, script.getVariables().get(StackType.INT).size());
+    }
+
+    @Test
+    void testStoreThenLoad() {
+        var script = generateScript("[proc,test](int $a)(int) def_int $b = $a; return($b);");
+        optimizer(new DeadStoreOptimization()).run(script);
+        // the value is left on the stack for the return.
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "RETURN 0"), instructions(script.getGraph().getFirst()).subList(0, 2));
+        assertEquals(1, script.getLocalCount(StackType.INT));
+    }
+
+    @Test
+    void testWithPeephole() {
+        var script = generateScript("[proc,test](int $a)(int) def_string $s = \"unused\"; $a = 3; return(1);");
+        optimizer(new PeepholeOptimization(), new DeadStoreOptimization()).run(script);
+        // the discards left by the dead stores are removed along with their pushes in the next round.
+        assertEquals(List.of(CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN), opcodes(script));
+        assertEquals(0, script.getLocalCount(StackType.STRING));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JumpThreadingOptimizationTest {
+
+    @Test
+    void testBranchChain() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { if ($a = 2) { return(1); } } return(3);");
+        var entry = script.getGraph().getFirst();
+        var outer = script.getBlock(entry.getOperand(2));
+        var exit = script.getBlock(entry.getOperand(3));
+        var inner = script.getBlock(outer.getOperand(3));
+        assertEquals(List.of("BRANCH " + exit.getLabel().getId()), instructions(inner));
+        optimizer(new JumpThreadingOptimization()).run(script);
+        // the inner if statement now jumps straight to the end of the outer if statement.
+        assertEquals(exit.getLabel().getId(), outer.getOperand(3));
+        assertTrue(inner.getPredecessors().isEmpty());
+        assertTrue(exit.getPredecessors().contains(outer));
+    }
+
+    @Test
+    void testSwitchAndEmptyBlocks() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 1, 2, 3, 4 : $a = 5; case 6, 7, 8, 9 : case default : return(2); } while ($a = 1) { } return(3);");
+        var cases = script.getSwitchTables().get(0).getCases();
+        var empty = script.getBlock(cases[1].getLabel().getId());
+        var exit = script.getBlock(empty.getOperand(0));
+        var body = script.getBlock(exit.getOperand(2));
+        assertTrue(body.isEmpty());
+        optimizer(new JumpThreadingOptimization()).run(script);
+        // the case which only branches to the end of the switch now points to the end of the switch.
+        assertEquals(exit.getLabel(), cases[1].getLabel());
+        assertTrue(empty.getPredecessors().isEmpty());
+        // the empty loop body is skipped, the loop condition branches to itself.
+        var condition = body.getNext();
+        assertEquals(condition.getLabel().getId(), exit.getOperand(2));
+        assertTrue(condition.getPredecessors().containsAll(Set.of(condition, exit)));
+        assertTrue(body.getPredecessors().isEmpty());
+    }
+}
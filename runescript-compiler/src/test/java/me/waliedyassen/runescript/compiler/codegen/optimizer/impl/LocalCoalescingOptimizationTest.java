@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
+import me.waliedyassen.runescript.compiler.stack.StackType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalCoalescingOptimizationTest {
+
+    @Test
+    void testCoalesce() {
+        var script = generateScript("[proc,test](int $a)(int) def_int $b = $a; def_int $c = $b; return($c);");
+        assertEquals(3, script.getLocalCount(StackType.INT));
+        optimizer(new LocalCoalescingOptimization()).run(script);
+        // none of the lifetimes overlap, so all of the locals share the slot of the parameter.
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "POP_INT_LOCAL 0", "PUSH_INT_LOCAL 0", "POP_INT_LOCAL 0", "PUSH_INT_LOCAL 0", "RETURN 0"),
+                instructions(script.getGraph().getFirst()).subList(0, 6));
+        var bytecode = new BytecodeCodeWriter(instructionMap()).write(script);
+        assertEquals(1, bytecode.getNumIntParameters());
+        assertEquals(1, bytecode.getNumIntLocals());
+    }
+
+    @Test
+    void testInterference() {
+        var script = generateScript("[proc,test](int $a)(int) def_int $b = 1; def_int $c = 2; if ($b = $c) { return($a); } return($b);");
+        optimizer(new LocalCoalescingOptimization()).run(script);
+        // the parameter and both of the variables are live at the comparison.
+        assertEquals(3, script.getLocalCount(StackType.INT));
+        assertEquals(List.of("PUSH_INT_CONSTANT 1", "POP_INT_LOCAL 1", "PUSH_INT_CONSTANT 2", "POP_INT_LOCAL 2", "PUSH_INT_LOCAL 1", "PUSH_INT_LOCAL 2"),
+                instructions(script.getGraph().getFirst()).subList(0, 6));
+    }
+
+    @Test
+    void testStackTypes() {
+        var script = generateScript("[proc,test](string $s)(string) def_string $t = \"<$s>!\"; def_int $i = 1; def_string $u = \"<$t>?\"; return($u);");
+        assertEquals(3, script.getLocalCount(StackType.STRING));
+        optimizer(new LocalCoalescingOptimization()).run(script);
+        // the string slots are coalesced on their own, the int variable keeps its slot.
+        assertEquals(1, script.getLocalCount(StackType.STRING));
+        assertEquals(1, script.getLocalCount(StackType.INT));
+    }
+}
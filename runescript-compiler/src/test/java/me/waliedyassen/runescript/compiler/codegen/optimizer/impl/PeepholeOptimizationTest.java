@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.InstructionUtil;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.peephole.ConstantBranchRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeepholeOptimizationTest {
+
+    @Test
+    void testSelfStore() {
+        var script = generateScript("[proc,test](int $a, string $s)(int) $a = $a; $s = $s; return($a);");
+        assertEquals(1, count(script, CoreOpcode.POP_INT_LOCAL));
+        optimizer(new PeepholeOptimization()).run(script);
+        assertEquals(0, count(script, CoreOpcode.POP_INT_LOCAL));
+        assertEquals(0, count(script, CoreOpcode.POP_STRING_LOCAL));
+        assertEquals(List.of("PUSH_INT_LOCAL 0", "RETURN 0"), instructions(script.getGraph().getFirst()).subList(0, 2));
+    }
+
+    @Test
+    void testDiscardedPush() {
+        var script = generateScript("[proc,test](int $a)(int) return($a);");
+        var entry = script.getGraph().getFirst();
+        // push a local and a constant which are both discarded straight away.
+        entry.insert(0, InstructionUtil.encode(CoreOpcode.PUSH_INT_LOCAL), 0);
+        entry.insert(1, InstructionUtil.encode(CoreOpcode.PUSH_INT_CONSTANT), 5);
+        entry.insert(2, InstructionUtil.encode(CoreOpcode.POP_INT_DISCARD), 0);
+        entry.insert(3, InstructionUtil.encode(CoreOpcode.POP_INT_DISCARD), 0);
+        optimizer(new PeepholeOptimization()).run(script);
+        // removing the inner pair exposes the outer pair, which is removed as well.
+        assertEquals(List.of(CoreOpcode.PUSH_INT_LOCAL, CoreOpcode.RETURN, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN), opcodes(entry));
+    }
+
+    @Test
+    void testFallThroughBranch() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } return(2);");
+        var entry = script.getGraph().getFirst();
+        // drop the branch to the else block, so the conditional branch targets the block right after it.
+        entry.remove(entry.getSize() - 1);
+        script.getGraph().update(entry);
+        optimizer(new PeepholeOptimization()).run(script);
+        // the branch is replaced with discards of its operands, which are then removed along with their pushes.
+        assertTrue(entry.isEmpty());
+        assertEquals(List.of(entry.getNext()), List.copyOf(entry.getSuccessors()));
+    }
+
+    @Test
+    void testConstantBranch() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } return(2);");
+        var entry = script.getGraph().getFirst();
+        var then = script.getBlock(entry.getOperand(2));
+        // replace the load of the parameter with a constant which satisfies the condition.
+        entry.set(0, InstructionUtil.encode(CoreOpcode.PUSH_INT_CONSTANT), 1);
+        optimizer(new PeepholeOptimization()).run(script);
+        assertEquals(List.of("BRANCH " + then.getLabel().getId(), "BRANCH " + entry.getOperand(1)), instructions(entry));
+        // a condition which never holds removes the branch.
+        script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } return(2);");
+        entry = script.getGraph().getFirst();
+        entry.set(0, InstructionUtil.encode(CoreOpcode.PUSH_INT_CONSTANT), 2);
+        optimizer(new PeepholeOptimization()).run(script);
+        assertEquals(List.of(CoreOpcode.BRANCH), opcodes(entry));
+    }
+
+    @Test
+    void testEvaluate() {
+        assertEquals(true, ConstantBranchRule.evaluate(CoreOpcode.BRANCH_LESS_THAN, 2, 1, 2));
+        assertEquals(false, ConstantBranchRule.evaluate(CoreOpcode.LONG_BRANCH_NOT, 2, 5, 5));
+        assertEquals(true, ConstantBranchRule.evaluate(CoreOpcode.BRANCH_IF_FALSE, 1, 0, 0));
+        // only the boolean values of a single operand branch are folded.
+        assertNull(ConstantBranchRule.evaluate(CoreOpcode.BRANCH_IF_TRUE, 1, 2, 0));
+        assertNull(ConstantBranchRule.evaluate(CoreOpcode.BRANCH, 2, 1, 1));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailMergingOptimizationTest {
+
+    @Test
+    void testSwitchCases() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 0, 1: return(1); case 2, 4: return(1); case 5: return(2); } return(0);");
+        var cases = script.getSwitchTables().get(0).getCases();
+        var first = script.getBlock(cases[0].getLabel().getId());
+        assertEquals(5, script.getGraph().getSize());
+        optimizer(new TailMergingOptimization()).run(script);
+        // the second case is identical to the first one, so it jumps to the block of the first case.
+        assertEquals(4, script.getGraph().getSize());
+        assertSame(first.getLabel(), cases[1].getLabel());
+        assertNotSame(first.getLabel(), cases[2].getLabel());
+        assertTrue(script.getGraph().getFirst().getSuccessors().contains(first));
+    }
+
+    @Test
+    void testWithUnreachableCode() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } if ($a = 2) { return(1); } return(2);");
+        var entry = script.getGraph().getFirst();
+        var then = script.getBlock(entry.getOperand(2));
+        optimizer(new TailMergingOptimization()).run(script);
+        // the trailing branches of the then blocks jump to different blocks.
+        assertEquals(5, script.getGraph().getSize());
+        optimizer(new UnreachableCodeOptimization(), new TailMergingOptimization()).run(script);
+        assertEquals(4, script.getGraph().getSize());
+        var second = entry.getNext().getNext();
+        assertEquals(List.of(CoreOpcode.PUSH_INT_LOCAL, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.BRANCH_EQUALS, CoreOpcode.BRANCH), opcodes(second));
+        assertEquals(then.getLabel().getId(), second.getOperand(2));
+    }
+}
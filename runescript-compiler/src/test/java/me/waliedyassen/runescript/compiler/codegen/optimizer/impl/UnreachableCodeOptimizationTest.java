@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.optimizer.impl;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnreachableCodeOptimizationTest {
+
+    @Test
+    void testAfterReturn() {
+        var script = generateScript("[proc,test](int $a)(int) if ($a = 1) { return(1); } return(2);");
+        var entry = script.getGraph().getFirst();
+        var then = script.getBlock(entry.getOperand(2));
+        var end = script.getGraph().getLast();
+        assertTrue(then.getSuccessors().contains(end));
+        optimizer(new UnreachableCodeOptimization()).run(script);
+        // the branch after the return of the then block and the default return are removed.
+        assertEquals(List.of(CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN), opcodes(then));
+        assertEquals(List.of(CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN), opcodes(end));
+        assertTrue(then.getSuccessors().isEmpty());
+        assertFalse(end.getPredecessors().contains(then));
+    }
+
+    @Test
+    void testSwitch() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 0, 1: return(1); case 2, 4: return(2); case default: return(3); } return(0);");
+        optimizer(new UnreachableCodeOptimization()).run(script);
+        // the execution continues into the default case after the switch, only the code after its return is removed.
+        assertEquals(List.of(CoreOpcode.PUSH_INT_LOCAL, CoreOpcode.SWITCH, CoreOpcode.PUSH_INT_CONSTANT, CoreOpcode.RETURN),
+                opcodes(script.getGraph().getFirst()));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.sw;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.count;
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.generateScript;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwitchStrategyTest {
+
+    @Test
+    void testSelect() {
+        assertEquals(SwitchStrategy.COMPARE_CHAIN, SwitchStrategy.select(cases(new int[]{1}, new int[]{5, 100})));
+        assertEquals(SwitchStrategy.DENSE_TABLE, SwitchStrategy.select(cases(new int[]{0, 1}, new int[]{2, 4})));
+        // exactly half of the key range is used.
+        assertEquals(SwitchStrategy.DENSE_TABLE, SwitchStrategy.select(cases(new int[]{0, 1, 2, 7})));
+        assertEquals(SwitchStrategy.HASH_TABLE, SwitchStrategy.select(cases(new int[]{0, 1, 2, 8})));
+        assertEquals(SwitchStrategy.HASH_TABLE, SwitchStrategy.select(cases(new int[]{1, 100}, new int[]{1000, 5000})));
+    }
+
+    @Test
+    void testCompareChain() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 1: return(1); case 2, 3: return(2); case default: return(3); } return(0);");
+        // each key is compared against a reload of the local, the default case is placed right after the chain.
+        assertEquals(0, count(script, CoreOpcode.SWITCH));
+        assertEquals(3, count(script, CoreOpcode.BRANCH_EQUALS));
+        assertEquals(3, count(script, CoreOpcode.PUSH_INT_LOCAL));
+        assertTrue(script.getSwitchTables().isEmpty());
+    }
+
+    @Test
+    void testTable() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 0, 1: return(1); case 2, 4: return(2); } return(0);");
+        assertEquals(1, count(script, CoreOpcode.SWITCH));
+        assertEquals(0, count(script, CoreOpcode.BRANCH_EQUALS));
+    }
+
+    private static SwitchCase[] cases(int[]... keys) {
+        var cases = new SwitchCase[keys.length];
+        for (var index = 0; index < keys.length; index++) {
+            cases[index] = new SwitchCase(keys[index], null);
+        }
+        return cases;
+    }
+}
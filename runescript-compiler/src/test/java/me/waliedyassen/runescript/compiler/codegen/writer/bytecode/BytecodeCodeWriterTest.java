@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.writer.bytecode;
+
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.generateScript;
+import static me.waliedyassen.runescript.compiler.codegen.CodeGeneratorTest.instructionMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BytecodeCodeWriterTest {
+
+    @Test
+    void testWrite() {
+        var script = generateScript("[proc,test](int $a, string $s)(string) if ($a = 1) { return(\"one\"); } return($s);");
+        var bytecode = new BytecodeCodeWriter(instructionMap()).write(script);
+        assertEquals("[proc,test]", bytecode.getName());
+        assertEquals(1, bytecode.getNumIntParameters());
+        assertEquals(1, bytecode.getNumStringParameters());
+        assertEquals(1, bytecode.getNumIntLocals());
+        assertEquals(1, bytecode.getNumStringLocals());
+        assertArrayEquals(new int[]{
+                CoreOpcode.PUSH_INT_LOCAL.ordinal(), CoreOpcode.PUSH_INT_CONSTANT.ordinal(), CoreOpcode.BRANCH_EQUALS.ordinal(), CoreOpcode.BRANCH.ordinal(),
+                CoreOpcode.PUSH_STRING_CONSTANT.ordinal(), CoreOpcode.RETURN.ordinal(), CoreOpcode.BRANCH.ordinal(),
+                CoreOpcode.PUSH_STRING_LOCAL.ordinal(), CoreOpcode.RETURN.ordinal(),
+                CoreOpcode.PUSH_STRING_CONSTANT.ordinal(), CoreOpcode.RETURN.ordinal()}, bytecode.getOpcodes());
+        // the branch operands are relative to the instruction after the branch.
+        assertEquals(1, bytecode.getOperands()[1]);
+        assertEquals(1, bytecode.getOperands()[2]);
+        assertEquals(3, bytecode.getOperands()[3]);
+        assertEquals(0, bytecode.getOperands()[6]);
+        assertEquals("one", bytecode.getStrings()[bytecode.getOperands()[4]]);
+        assertEquals(BytecodeScript.OPERAND_STRING, bytecode.getOperandTypes()[4]);
+    }
+
+    @Test
+    void testDenseSwitch() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 0, 1: return(1); case 2, 4: return(2); } return(0);");
+        var bytecode = new BytecodeCodeWriter(instructionMap()).write(script);
+        assertEquals(CoreOpcode.SWITCH_DENSE.ordinal(), bytecode.getOpcodes()[1]);
+        // every key from the lowest to the highest is present, the missing key jumps to the instruction after the switch.
+        var table = bytecode.getSwitchTables().get(0);
+        assertEquals(List.of(0, 1, 2, 3, 4), List.copyOf(table.keySet()));
+        assertEquals(List.of(1, 1, 4, 0, 4), List.copyOf(table.values()));
+    }
+
+    @Test
+    void testHashSwitch() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 1, 100: return(1); case 1000, 5000: return(2); } return(0);");
+        var bytecode = new BytecodeCodeWriter(instructionMap()).write(script);
+        assertEquals(CoreOpcode.SWITCH.ordinal(), bytecode.getOpcodes()[1]);
+        assertEquals(Map.of(1, 1, 100, 1, 1000, 4, 5000, 4), bytecode.getSwitchTables().get(0));
+    }
+
+    @Test
+    void testDenseSwitchBounds() {
+        var script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case 2147483644, 2147483645: return(1); case 2147483647: return(2); case 2147483646: return(3); } return(0);");
+        var table = new BytecodeCodeWriter(instructionMap()).write(script).getSwitchTables().get(0);
+        // the highest key of the table is the highest int value.
+        assertEquals(List.of(Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE), List.copyOf(table.keySet()));
+        script = generateScript("[proc,test](int $a)(int) switch_int ($a) { case -2147483648, -2147483647: return(1); case -2147483646, -2147483645: return(2); } return(0);");
+        table = new BytecodeCodeWriter(instructionMap()).write(script).getSwitchTables().get(0);
+        assertEquals(List.of(Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 2, Integer.MIN_VALUE + 3), List.copyOf(table.keySet()));
+    }
+}
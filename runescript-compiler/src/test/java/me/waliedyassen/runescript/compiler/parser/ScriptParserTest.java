@@ -78,6 +78,27 @@ public final class ScriptParserTest {
         });
     }
 
+    @Test
+    void testScriptsRecovery() {
+        assertAll("scripts recovery", () -> {
+            // errors in multiple statements and scripts.
+            var parser = fromString("[proc,one] def_int $a = ; $b = 1; return 1,;\n[proc,two](int $x, return;\n[proc,three] { if (true) {} return;");
+            var scripts = parser.scripts();
+            assertEquals(2, scripts.size());
+            assertEquals("one", scripts.get(0).getName().getText());
+            assertEquals(1, scripts.get(0).getCode().getStatements().length);
+            assertEquals("three", scripts.get(1).getName().getText());
+            assertEquals(4, parser.getErrors().size());
+        }, () -> {
+            // unclosed block right before the next script header.
+            var parser = fromString("[proc,one] if (true) { return;\n[proc,two] return;");
+            var scripts = parser.scripts();
+            assertEquals(2, scripts.size());
+            assertEquals("two", scripts.get(1).getName().getText());
+            assertEquals(1, parser.getErrors().size());
+        });
+    }
+
     @Test
     void testParameter() {
         assertAll("parameter", () -> {
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.semantics;
+
+import me.waliedyassen.runescript.compiler.CompilerError;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemanticCheckerTest {
+
+    /**
+     * The amount of scripts to check, which is large enough for the scripts to be checked in parallel.
+     */
+    private static final int SCRIPT_COUNT = 64;
+
+    @Test
+    void testErrorOrder() {
+        var builder = new StringBuilder();
+        for (var index = 0; index < SCRIPT_COUNT; index++) {
+            // each script is on its own line and calls the script which is declared after it.
+            builder.append("[proc,script").append(index).append("] def_int $a = \"wrong\"; ~script").append(index + 1).append("; def_int $b = \"wrong\";\n");
+        }
+        builder.append("[proc,script").append(SCRIPT_COUNT).append("] return;\n");
+        var scripts = ScriptParserTest.fromString(builder.toString()).scripts();
+        var expected = lines(check(scripts));
+        // two errors in each script, reported in the order of the scripts.
+        assertEquals(SCRIPT_COUNT * 2, expected.size());
+        for (var index = 0; index < expected.size(); index++) {
+            assertEquals(index / 2 + 1, expected.get(index));
+        }
+        // the order must not depend on the scheduling of the parallel checking.
+        for (var attempt = 0; attempt < 8; attempt++) {
+            var errors = check(ScriptParserTest.fromString(builder.toString()).scripts());
+            assertEquals(expected, lines(errors));
+        }
+    }
+
+    @Test
+    void testForwardReference() {
+        // the signatures of all of the scripts are registered before any of them is type checked.
+        var scripts = ScriptParserTest.fromString("[proc,first](int $a)(int) return(~second($a));\n[proc,second](int $a)(int) return($a);").scripts();
+        assertTrue(check(scripts).isEmpty());
+    }
+
+    @Test
+    void testConflictingHints() {
+        var scripts = ScriptParserTest.fromString("#[inline:1] #[noinline:1] [proc,test] return;\n#[inline:1] #[noinline:0] [proc,other] return;").scripts();
+        var errors = check(scripts);
+        // only the script which enables both of the hints is reported.
+        assertEquals(1, errors.size());
+        assertEquals(1, lines(errors).get(0));
+        assertEquals("The script cannot be declared both inline and noinline", errors.get(0).getMessage());
+    }
+
+    @Test
+    void testIgnoredHints() {
+        var scripts = ScriptParserTest.fromString("#[optlevel:3] [proc,first] return;\n"
+                + "#[optlevel:1] #[hot:1] [proc,second] return;\n"
+                + "#[optlevel:0] #[inline:1] [proc,third] return;\n"
+                + "#[optlevel:2] #[hot:1] #[inline:1] [proc,fourth] return;").scripts();
+        var errors = check(scripts);
+        assertEquals(List.of(1, 2, 3), lines(errors));
+        assertEquals("The optimization level must be between 0 and 2", errors.get(0).getMessage());
+        assertEquals("The hot hint has no effect at the optimization level -O1", errors.get(1).getMessage());
+        assertEquals("The inline hint has no effect at the optimization level -O0", errors.get(2).getMessage());
+    }
+
+    private static List<CompilerError> check(List<AstScript> scripts) {
+        var checker = new SemanticChecker(new SymbolTable());
+        checker.executePre(scripts);
+        checker.execute(scripts);
+        return checker.getErrors();
+    }
+
+    private static List<Integer> lines(List<CompilerError> errors) {
+        return errors.stream().map(error -> error.getRange().getStart().getLine()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.type.tuple;
+
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.type.primitive.PrimitiveType;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TupleTypeTest {
+
+    @Test
+    void testInterning() {
+        var tuple = TupleType.of(PrimitiveType.INT, PrimitiveType.STRING);
+        assertSame(tuple, TupleType.of(PrimitiveType.INT, PrimitiveType.STRING));
+        assertNotSame(tuple, TupleType.of(PrimitiveType.STRING, PrimitiveType.INT));
+        assertNotSame(tuple, TupleType.of(PrimitiveType.INT, PrimitiveType.STRING, PrimitiveType.INT));
+    }
+
+    @Test
+    void testFlattening() {
+        var inner = TupleType.of(PrimitiveType.STRING, PrimitiveType.LONG);
+        var nested = TupleType.of(PrimitiveType.INT, inner);
+        assertSame(TupleType.of(PrimitiveType.INT, PrimitiveType.STRING, PrimitiveType.LONG), nested);
+        assertArrayEquals(new Object[]{PrimitiveType.INT, PrimitiveType.STRING, PrimitiveType.LONG}, nested.getFlattened());
+        assertEquals(TupleType.of(PrimitiveType.INT, PrimitiveType.STRING, PrimitiveType.LONG).getRepresentation(), nested.getRepresentation());
+    }
+
+    @Test
+    void testSignatures() {
+        var scripts = ScriptParserTest.fromString("[proc,pair](int $a)(int,string) return($a, \"a\");\n"
+                + "[proc,take](int $a, int $b, string $c) return;\n"
+                + "[proc,good] ~take(1, ~pair(2));\n"
+                + "[proc,bad] ~take(~pair(1), 2);").scripts();
+        var table = new SymbolTable();
+        var checker = new SemanticChecker(table);
+        checker.executePre(scripts);
+        // the return type of the script is the canonical tuple of its return types.
+        assertSame(TupleType.of(PrimitiveType.INT, PrimitiveType.STRING), table.lookupScript(TriggerType.PROC, "pair").getType());
+        checker.execute(scripts);
+        // a tuple argument is matched against the flattened signature of the called script.
+        assertEquals(1, checker.getErrors().size());
+        assertEquals(4, checker.getErrors().get(0).getRange().getStart().getLine());
+    }
+}